@@ -0,0 +1,273 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.abstraction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Sets;
+
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGFingerprint;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.types.CType;
+
+/**
+ * Memoizes results of {@link SMGAbstractionManager#execute()}. Results are looked up by the fingerprint of the
+ * abstracted SMG, so the abstraction of a shape is computed only once even when the analysis reaches it repeatedly
+ * with different objects and value names.
+ *
+ * A result is stored as the changes the abstraction made, with objects and values of the input referred to by their
+ * canonical identifiers. On a hit, the changes are replayed on a copy of the caller's SMG, so the result keeps the
+ * caller's objects and values, and the values created by the abstraction are fresh. Abstract objects created by the
+ * abstraction are immutable and shared by all the results.
+ */
+public final class SMGAbstractionCache {
+  public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+  private final Cache<SMGFingerprint, Changes> cache;
+
+  public SMGAbstractionCache() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public SMGAbstractionCache(final long pMaximumSize) {
+    cache = CacheBuilder.newBuilder().maximumSize(pMaximumSize).recordStats().build();
+  }
+
+  public SMGAbstractionCache(final long pMaximumSize, final long pExpireAfterAccess, final TimeUnit pUnit) {
+    cache = CacheBuilder.newBuilder().maximumSize(pMaximumSize).expireAfterAccess(pExpireAfterAccess, pUnit)
+                        .recordStats().build();
+  }
+
+  /**
+   * @param pFingerprint Fingerprint of {@link pSMG}
+   * @param pSMG SMG to abstract
+   * @return Abstraction of {@link pSMG} computed from a previously stored result for the same shape, or null if
+   * there is none or the fingerprint does not cover the whole SMG
+   */
+  public ReadableSMG get(final SMGFingerprint pFingerprint, final ReadableSMG pSMG) {
+    if (!pFingerprint.isComplete()) {
+      return null;
+    }
+    Changes changes = cache.getIfPresent(pFingerprint);
+    if (changes == null) {
+      return null;
+    }
+    return changes.replay(pFingerprint, pSMG);
+  }
+
+  /**
+   * Stores the result of a complete abstraction. Results are only stored for SMGs whose fingerprint covers the
+   * whole SMG, as the objects and values not reachable from variables have no canonical identifiers.
+   *
+   * @param pFingerprint Fingerprint of {@link pSMG}
+   * @param pSMG The abstracted SMG
+   * @param pResult The result of the abstraction
+   */
+  public void put(final SMGFingerprint pFingerprint, final ReadableSMG pSMG, final ReadableSMG pResult) {
+    if (pFingerprint.isComplete()) {
+      cache.put(pFingerprint, new Changes(pFingerprint, pSMG, pResult));
+    }
+  }
+
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Has-Value edge with the object and the value given by references, see {@link Changes}.
+   */
+  private static final class Field {
+    private final int object;
+    private final int offset;
+    private final CType type;
+    private final int value;
+
+    private Field(final int pObject, final int pOffset, final CType pType, final int pValue) {
+      object = pObject;
+      offset = pOffset;
+      type = pType;
+      value = pValue;
+    }
+  }
+
+  /**
+   * Points-To edge with the value and the object given by references, see {@link Changes}.
+   */
+  private static final class Pointer {
+    private final int value;
+    private final int object;
+    private final int offset;
+
+    private Pointer(final int pValue, final int pObject, final int pOffset) {
+      value = pValue;
+      object = pObject;
+      offset = pOffset;
+    }
+  }
+
+  /**
+   * Changes made by an abstraction. Objects and values are referred to by non-negative canonical identifiers when
+   * they come from the input, and by negative numbers when the abstraction created them: -1 for the first created
+   * object or value, -2 for the second one, and so on.
+   */
+  private static final class Changes {
+    private final List<Integer> removedObjects = new ArrayList<>();
+    private final List<Integer> removedValues = new ArrayList<>();
+    private final List<SMGObject> addedObjects = new ArrayList<>();
+    private final List<Field> removedFields = new ArrayList<>();
+    private final List<Field> addedFields = new ArrayList<>();
+    private final List<Integer> removedPointers = new ArrayList<>();
+    private final List<Pointer> addedPointers = new ArrayList<>();
+    private int addedValues = 0;
+
+    private Changes(final SMGFingerprint pFingerprint, final ReadableSMG pSMG, final ReadableSMG pResult) {
+      Map<SMGObject, Integer> objectRefs = new HashMap<>();
+      Map<Integer, Integer> valueRefs = new HashMap<>();
+
+      Set<SMGObject> objects = pSMG.getObjects();
+      for (SMGObject object : objects) {
+        objectRefs.put(object, pFingerprint.getObjectId(object));
+        if (!pResult.getObjects().contains(object)) {
+          removedObjects.add(pFingerprint.getObjectId(object));
+        }
+      }
+      for (SMGObject object : pResult.getObjects()) {
+        if (!objects.contains(object)) {
+          addedObjects.add(object);
+          objectRefs.put(object, -addedObjects.size());
+        }
+      }
+
+      Set<Integer> values = pSMG.getValues();
+      for (Integer value : values) {
+        valueRefs.put(value, pFingerprint.getValueId(value));
+        if (!pResult.getValues().contains(value)) {
+          removedValues.add(pFingerprint.getValueId(value));
+        }
+      }
+      for (Integer value : pResult.getValues()) {
+        if (!values.contains(value)) {
+          addedValues++;
+          valueRefs.put(value, -addedValues);
+        }
+      }
+
+      Set<SMGEdgeHasValue> fields = Sets.newHashSet(pSMG.getHVEdges());
+      Set<SMGEdgeHasValue> resultFields = Sets.newHashSet(pResult.getHVEdges());
+      for (SMGEdgeHasValue hv : Sets.difference(fields, resultFields)) {
+        // Fields of removed objects disappear with them
+        if (pResult.getObjects().contains(hv.getObject())) {
+          removedFields.add(toField(hv, objectRefs, valueRefs));
+        }
+      }
+      for (SMGEdgeHasValue hv : Sets.difference(resultFields, fields)) {
+        addedFields.add(toField(hv, objectRefs, valueRefs));
+      }
+
+      Set<SMGEdgePointsTo> pointers = Sets.newHashSet(pSMG.getPTEdges());
+      Set<SMGEdgePointsTo> resultPointers = Sets.newHashSet(pResult.getPTEdges());
+      for (SMGEdgePointsTo pt : Sets.difference(pointers, resultPointers)) {
+        removedPointers.add(valueRefs.get(pt.getValue()));
+      }
+      for (SMGEdgePointsTo pt : Sets.difference(resultPointers, pointers)) {
+        addedPointers.add(new Pointer(valueRefs.get(pt.getValue()), objectRefs.get(pt.getObject()), pt.getOffset()));
+      }
+    }
+
+    private static Field toField(final SMGEdgeHasValue pEdge, final Map<SMGObject, Integer> pObjectRefs,
+                                 final Map<Integer, Integer> pValueRefs) {
+      return new Field(pObjectRefs.get(pEdge.getObject()), pEdge.getOffset(), pEdge.getType(),
+                       pValueRefs.get(pEdge.getValue()));
+    }
+
+    private ReadableSMG replay(final SMGFingerprint pFingerprint, final ReadableSMG pSMG) {
+      WritableSMG result = SMGFactory.createWritableCopy(pSMG);
+      List<SMGObject> objects = pFingerprint.getObjects();
+      List<Integer> values = pFingerprint.getValues();
+      List<Integer> newValues = new ArrayList<>();
+      for (int i = 0; i < addedValues; i++) {
+        Integer value = result.getContext().getNewValue();
+        result.addValue(value);
+        newValues.add(value);
+      }
+
+      for (Field field : removedFields) {
+        result.removeHasValueEdge(toEdge(field, objects, values, newValues));
+      }
+      for (Integer pointer : removedPointers) {
+        result.removePointsToEdge(resolve(pointer, values, newValues));
+      }
+      for (Integer object : removedObjects) {
+        result.removeHeapObject(objects.get(object));
+      }
+      for (Integer value : removedValues) {
+        result.removeValue(values.get(value));
+      }
+
+      for (SMGObject object : addedObjects) {
+        result.addHeapObject(object);
+      }
+      for (Pointer pointer : addedPointers) {
+        result.addPointsToEdge(new SMGEdgePointsTo(resolve(pointer.value, values, newValues),
+                                                   resolve(pointer.object, objects, addedObjects), pointer.offset));
+      }
+      for (Field field : addedFields) {
+        result.addHasValueEdge(toEdge(field, objects, values, newValues));
+      }
+      return result;
+    }
+
+    private SMGEdgeHasValue toEdge(final Field pField, final List<SMGObject> pObjects, final List<Integer> pValues,
+                                   final List<Integer> pNewValues) {
+      return new SMGEdgeHasValue(pField.type, pField.offset, resolve(pField.object, pObjects, addedObjects),
+                                 resolve(pField.value, pValues, pNewValues));
+    }
+
+    private static <T> T resolve(final int pReference, final List<T> pExisting, final List<T> pCreated) {
+      if (pReference < 0) {
+        return pCreated.get(-pReference - 1);
+      }
+      return pExisting.get(pReference);
+    }
+  }
+}
@@ -22,10 +22,32 @@
 
 package cz.afri.smg.abstraction;
 
+import java.util.Set;
+
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
 
 public interface SMGAbstractionCandidate {
+  /**
+   * @return Estimate of how much the SMG shrinks when the candidate is executed, in objects and edges removed.
+   * Candidates with higher scores are executed first.
+   */
   int getScore();
 
   ReadableSMG execute(ReadableSMG pSMG);
+
+  /**
+   * Executes the candidate in place. Disjoint candidates found in the same SMG can be applied to one copy
+   * of it, one after another.
+   *
+   * @param pSMG SMG to abstract, modified by the call
+   */
+  void apply(WritableSMG pSMG);
+
+  /**
+   * @return Objects of the original SMG which are replaced when the candidate is executed. A candidate stays
+   * valid after another one was executed as long as their objects do not overlap.
+   */
+  Set<SMGObject> getObjects();
 }
@@ -24,7 +24,31 @@ package cz.afri.smg.abstraction;
 import java.util.Set;
 
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.objects.SMGObject;
 
 public interface SMGAbstractionFinder {
   Set<SMGAbstractionCandidate> traverse(ReadableSMG pSmg);
+
+  /**
+   * Looks for candidates only in the structures reachable from the given objects, so that a changed part of
+   * an SMG can be re-examined without traversing the whole heap.
+   *
+   * @param pSmg SMG to search
+   * @param pScope Heap objects to start the search from
+   * @return Candidates found in the structures reachable from the scope
+   */
+  Set<SMGAbstractionCandidate> traverse(ReadableSMG pSmg, Set<SMGObject> pScope);
+
+  /**
+   * Looks for candidates in the structures reachable from the given objects until the budget is exhausted. The
+   * search takes no steps of the budget, it only stops early once the deadline passes or the budget is cancelled.
+   *
+   * @param pSmg SMG to search
+   * @param pScope Heap objects to start the search from
+   * @param pBudget Budget to observe
+   * @return Candidates found in the structures reachable from the scope, or only some of them if the budget was
+   * exhausted during the search
+   */
+  Set<SMGAbstractionCandidate> traverse(ReadableSMG pSmg, Set<SMGObject> pScope, SMGBudget pBudget);
 }
\ No newline at end of file
@@ -22,40 +22,324 @@
 package cz.afri.smg.abstraction;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGFingerprint;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.dll.SMGDoublyLinkedListFinder;
 import cz.afri.smg.objects.sll.SMGSingleLinkedListFinder;
 
 public class SMGAbstractionManager {
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** Orders candidates by descending score, so that the one shrinking the SMG most is applied first. */
+  private static final Comparator<SMGAbstractionCandidate> BY_SCORE = new Comparator<SMGAbstractionCandidate>() {
+    @Override
+    public int compare(final SMGAbstractionCandidate pFirst, final SMGAbstractionCandidate pSecond) {
+      return Integer.compare(pSecond.getScore(), pFirst.getScore());
+    }
+  };
+
   private ReadableSMG smg;
-  private List<SMGAbstractionCandidate> abstractionCandidates = new ArrayList<>();
+  private final List<SMGAbstractionFinder> finders;
+  private final ExecutorService executor;
+  private final SMGAbstractionCache cache;
+
+  /** Conflict-free candidates, ranked by score. */
+  private PriorityQueue<SMGAbstractionCandidate> abstractionCandidates =
+      new PriorityQueue<>(INITIAL_CAPACITY, BY_SCORE);
+  /** Objects of the ranked candidates, mapped to the candidate using them. */
+  private Map<SMGObject, SMGAbstractionCandidate> claimedObjects = new HashMap<>();
+  /** Candidates overlapping a better ranked one, kept until that one is executed or dropped. */
+  private List<SMGAbstractionCandidate> conflictingCandidates = new ArrayList<>();
+  private boolean complete = false;
 
   public SMGAbstractionManager(final ReadableSMG pSMG) {
+    this(pSMG, ImmutableList.<SMGAbstractionFinder>of(new SMGSingleLinkedListFinder(),
+                                                          new SMGDoublyLinkedListFinder()));
+  }
+
+  public SMGAbstractionManager(final ReadableSMG pSMG, final List<SMGAbstractionFinder> pFinders) {
+    this(pSMG, pFinders, null);
+  }
+
+  /**
+   * Creates a manager looking for abstraction candidates with the given finders. Finders keep state during a
+   * traversal, so a finder instance must not be shared with another manager.
+   *
+   * @param pSMG SMG to abstract
+   * @param pFinders Finders to search the SMG for candidates
+   * @param pExecutor Executor for running the finders concurrently, or null to run them one after another
+   */
+  public SMGAbstractionManager(final ReadableSMG pSMG, final List<SMGAbstractionFinder> pFinders,
+                               final ExecutorService pExecutor) {
+    this(pSMG, pFinders, pExecutor, null);
+  }
+
+  /**
+   * Creates a manager reusing the results of previous abstractions of the same shape. Results depend on the
+   * finders, so a cache must only be shared by managers with finders of the same configuration.
+   *
+   * @param pSMG SMG to abstract
+   * @param pFinders Finders to search the SMG for candidates
+   * @param pExecutor Executor for running the finders concurrently, or null to run them one after another
+   * @param pCache Cache of abstraction results, or null to always compute the abstraction
+   */
+  public SMGAbstractionManager(final ReadableSMG pSMG, final List<SMGAbstractionFinder> pFinders,
+                               final ExecutorService pExecutor, final SMGAbstractionCache pCache) {
     smg = pSMG;
+    finders = ImmutableList.copyOf(pFinders);
+    executor = pExecutor;
+    cache = pCache;
   }
 
   private boolean hasCandidates() {
-    SMGSingleLinkedListFinder sllCandidateFinder = new SMGSingleLinkedListFinder();
-    abstractionCandidates.addAll(sllCandidateFinder.traverse(smg));
-
     return (!abstractionCandidates.isEmpty());
   }
 
   private SMGAbstractionCandidate getBestCandidate() {
-    return abstractionCandidates.get(0);
+    SMGAbstractionCandidate best = abstractionCandidates.poll();
+    releaseObjects(best);
+    return best;
   }
 
   public final ReadableSMG execute() {
+    return execute(SMGBudget.unlimited());
+  }
+
+  /**
+   * Abstracts the SMG until there are no abstraction candidates left or the budget runs out. Every abstraction
+   * step yields a valid SMG, so when the budget runs out, the SMG abstracted so far is returned and
+   * {@link #isComplete()} is false.
+   *
+   * The heap is traversed once at the start, after that only the objects touched by applied candidates are
+   * re-examined. Ranked candidates are disjoint, so all of them are applied to a single copy of the SMG.
+   *
+   * With a cache, an SMG of a shape abstracted before is not searched at all, the cached result is replayed on it
+   * instead. Only complete abstractions of SMGs without unreachable objects or values are looked up and cached.
+   *
+   * The searches for candidates take no steps of the budget, but they stop early when the deadline passes or the
+   * budget is cancelled, and the abstraction is then incomplete.
+   *
+   * @param pBudget Budget limiting the work done by the abstraction, one step per applied candidate
+   * @return Abstracted SMG
+   */
+  public final ReadableSMG execute(final SMGBudget pBudget) {
+    if (cache == null) {
+      return abstractSMG(pBudget);
+    }
+
+    SMGFingerprint fingerprint = new SMGFingerprint(smg);
+    if (!fingerprint.isComplete()) {
+      return abstractSMG(pBudget);
+    }
+    ReadableSMG cached = cache.get(fingerprint, smg);
+    if (cached != null) {
+      smg = cached;
+      complete = true;
+      return smg;
+    }
+    ReadableSMG input = smg;
+    ReadableSMG result = abstractSMG(pBudget);
+    if (complete) {
+      cache.put(fingerprint, input, result);
+    }
+    return result;
+  }
+
+  private ReadableSMG abstractSMG(final SMGBudget pBudget) {
+    complete = false;
+    invalidateCandidates();
+    rankCandidates(findCandidates(smg.getHeapObjects(), pBudget));
     while (hasCandidates()) {
-      SMGAbstractionCandidate best = getBestCandidate();
-      smg = best.execute(smg);
-      invalidateCandidates();
+      if (pBudget.isExhausted() || !pBudget.step()) {
+        invalidateCandidates();
+        return smg;
+      }
+      ReadableSMG previous = smg;
+      WritableSMG batch = SMGFactory.createWritableCopy(smg);
+      List<SMGAbstractionCandidate> applied = new ArrayList<>();
+      boolean exhausted = false;
+      do {
+        SMGAbstractionCandidate best = getBestCandidate();
+        best.apply(batch);
+        applied.add(best);
+        exhausted = hasCandidates() && !pBudget.step();
+      } while (hasCandidates() && !exhausted);
+      smg = batch;
+
+      if (exhausted) {
+        invalidateCandidates();
+        return smg;
+      }
+      updateCandidates(previous, applied, pBudget);
+    }
+    if (pBudget.isExhausted()) {
+      // The last search stopped early, it may have missed some candidates
+      return smg;
     }
+    complete = true;
     return smg;
   }
 
+  /**
+   * @return True if the last call of {@link #execute(SMGBudget)} finished all possible abstractions, false if it
+   * ran out of budget.
+   */
+  public final boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Runs all finders from the given scope, concurrently if the manager has an executor. The SMG is only read
+   * while the finders run.
+   */
+  private List<SMGAbstractionCandidate> findCandidates(final Set<SMGObject> pScope, final SMGBudget pBudget) {
+    List<SMGAbstractionCandidate> found = new ArrayList<>();
+    if (executor == null || finders.size() < 2) {
+      for (SMGAbstractionFinder finder : finders) {
+        found.addAll(finder.traverse(smg, pScope, pBudget));
+      }
+      return found;
+    }
+
+    final ReadableSMG searched = smg;
+    List<Future<Set<SMGAbstractionCandidate>>> results = new ArrayList<>();
+    for (final SMGAbstractionFinder finder : finders) {
+      results.add(executor.submit(new Callable<Set<SMGAbstractionCandidate>>() {
+        @Override
+        public Set<SMGAbstractionCandidate> call() {
+          return finder.traverse(searched, pScope, pBudget);
+        }
+      }));
+    }
+    for (Future<Set<SMGAbstractionCandidate>> result : results) {
+      try {
+        found.addAll(Uninterruptibles.getUninterruptibly(result));
+      } catch (ExecutionException e) {
+        throw Throwables.propagate(e.getCause());
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Merges candidates into the ranking. Going from the best score down, a candidate is ranked if it does not
+   * overlap any ranked candidate, otherwise it is kept aside as conflicting.
+   */
+  private void rankCandidates(final Collection<SMGAbstractionCandidate> pFound) {
+    List<SMGAbstractionCandidate> merged = new ArrayList<>(pFound);
+    merged.addAll(conflictingCandidates);
+    conflictingCandidates.clear();
+    Collections.sort(merged, BY_SCORE);
+
+    for (SMGAbstractionCandidate candidate : merged) {
+      if (Collections.disjoint(claimedObjects.keySet(), candidate.getObjects())) {
+        abstractionCandidates.add(candidate);
+        for (SMGObject object : candidate.getObjects()) {
+          claimedObjects.put(object, candidate);
+        }
+      } else {
+        conflictingCandidates.add(candidate);
+      }
+    }
+  }
+
+  private void dropCandidate(final SMGAbstractionCandidate pCandidate) {
+    abstractionCandidates.remove(pCandidate);
+    releaseObjects(pCandidate);
+  }
+
+  private void releaseObjects(final SMGAbstractionCandidate pCandidate) {
+    for (SMGObject object : pCandidate.getObjects()) {
+      if (claimedObjects.get(object) == pCandidate) {
+        claimedObjects.remove(object);
+      }
+    }
+  }
+
+  /**
+   * Drops the candidates invalidated by the executed ones and re-examines the part of the SMG they changed: the
+   * objects they created and the remaining objects of the dropped candidates. Fresh candidates replace the
+   * ones they overlap.
+   */
+  private void updateCandidates(final ReadableSMG pPrevious, final List<SMGAbstractionCandidate> pExecuted,
+                                final SMGBudget pBudget) {
+    Set<SMGObject> touched = new HashSet<>();
+    for (SMGAbstractionCandidate executed : pExecuted) {
+      touched.addAll(executed.getObjects());
+    }
+    Set<SMGObject> scope = new HashSet<>();
+
+    for (SMGObject object : touched) {
+      SMGAbstractionCandidate candidate = claimedObjects.get(object);
+      if (candidate != null) {
+        dropCandidate(candidate);
+        scope.addAll(candidate.getObjects());
+      }
+    }
+    dropConflicting(touched, scope);
+    scope.removeAll(touched);
+
+    Set<SMGObject> previousHeap = pPrevious.getHeapObjects();
+    for (SMGObject object : smg.getHeapObjects()) {
+      if (!previousHeap.contains(object)) {
+        scope.add(object);
+      }
+    }
+
+    List<SMGAbstractionCandidate> found = findCandidates(scope, pBudget);
+    Set<SMGObject> covered = new HashSet<>();
+    for (SMGAbstractionCandidate candidate : found) {
+      for (SMGObject object : candidate.getObjects()) {
+        covered.add(object);
+        SMGAbstractionCandidate superseded = claimedObjects.get(object);
+        if (superseded != null) {
+          dropCandidate(superseded);
+        }
+      }
+    }
+    dropConflicting(covered, null);
+    rankCandidates(found);
+  }
+
+  private void dropConflicting(final Set<SMGObject> pObjects, final Set<SMGObject> pScope) {
+    Iterator<SMGAbstractionCandidate> iterator = conflictingCandidates.iterator();
+    while (iterator.hasNext()) {
+      SMGAbstractionCandidate candidate = iterator.next();
+      if (!Collections.disjoint(pObjects, candidate.getObjects())) {
+        if (pScope != null) {
+          pScope.addAll(candidate.getObjects());
+        }
+        iterator.remove();
+      }
+    }
+  }
+
   private void invalidateCandidates() {
     abstractionCandidates.clear();
+    claimedObjects.clear();
+    conflictingCandidates.clear();
   }
 }
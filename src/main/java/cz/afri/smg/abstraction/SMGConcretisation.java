@@ -24,7 +24,28 @@ package cz.afri.smg.abstraction;
 import java.util.Set;
 
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
 
 public interface SMGConcretisation {
   Set<ReadableSMG> execute(ReadableSMG pSMG);
+
+  /**
+   * Concretises the abstract object as {@link #execute(ReadableSMG)} does, taking a step of {@link pBudget} for
+   * every computed case.
+   *
+   * @param pSMG SMG containing the abstract object
+   * @param pBudget Budget limiting the work done
+   * @return SMGs with the object concretised, incomplete if the budget ran out
+   */
+  SMGConcretisationResult execute(ReadableSMG pSMG, SMGBudget pBudget);
+
+  /**
+   * Concretises the abstract object around the field at {@link pOffset}. Every case is computed only when the
+   * iteration reaches it, and infeasible cases are never computed at all.
+   *
+   * @param pSMG SMG containing the abstract object
+   * @param pOffset Offset of the accessed field, as used by the pointers to the abstract object
+   * @return Lazily evaluated SMGs with the accessed part of the object concretised
+   */
+  SMGConcretisationCases execute(ReadableSMG pSMG, int pOffset);
 }
@@ -0,0 +1,107 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.abstraction;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import com.google.common.collect.AbstractIterator;
+
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
+
+/**
+ * Fixed number of concretisation cases, each of them computed when an iteration reaches it. A case may turn out
+ * to be infeasible, in which case it is skipped.
+ *
+ * Computing a case takes a single step of the budget the cases are computed with.
+ */
+public abstract class SMGConcretisationCases implements Iterable<ReadableSMG> {
+  private final int cases;
+
+  protected SMGConcretisationCases(final int pCases) {
+    cases = pCases;
+  }
+
+  /**
+   * @param pCase Index of the case, from zero
+   * @return The SMG of the case, or null if the case is infeasible
+   */
+  protected abstract ReadableSMG computeCase(int pCase);
+
+  @Override
+  public final Iterator<ReadableSMG> iterator() {
+    return iterator(SMGBudget.unlimited());
+  }
+
+  /**
+   * @param pBudget Budget charged a step for every computed case
+   * @return Lazily evaluated SMGs of the cases. When the budget runs out, the iteration ends early and the budget
+   * stays exhausted.
+   */
+  public final Iterable<ReadableSMG> limitedBy(final SMGBudget pBudget) {
+    return new Iterable<ReadableSMG>() {
+      @Override
+      public Iterator<ReadableSMG> iterator() {
+        return SMGConcretisationCases.this.iterator(pBudget);
+      }
+    };
+  }
+
+  /**
+   * Computes all the cases, unless the budget runs out first.
+   *
+   * @param pBudget Budget charged a step for every computed case
+   * @return SMGs of the feasible cases computed, incomplete if the budget ran out before all of them were computed
+   */
+  public final SMGConcretisationResult compute(final SMGBudget pBudget) {
+    Set<ReadableSMG> results = new HashSet<>();
+    for (int i = 0; i < cases; i++) {
+      if (!pBudget.step()) {
+        return new SMGConcretisationResult(results, false);
+      }
+      ReadableSMG result = computeCase(i);
+      if (result != null) {
+        results.add(result);
+      }
+    }
+    return new SMGConcretisationResult(results, true);
+  }
+
+  private Iterator<ReadableSMG> iterator(final SMGBudget pBudget) {
+    return new AbstractIterator<ReadableSMG>() {
+      private int next = 0;
+
+      @Override
+      protected ReadableSMG computeNext() {
+        while (next < cases && pBudget.step()) {
+          ReadableSMG result = computeCase(next++);
+          if (result != null) {
+            return result;
+          }
+        }
+        return endOfData();
+      }
+    };
+  }
+}
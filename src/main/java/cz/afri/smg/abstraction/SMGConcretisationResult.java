@@ -0,0 +1,52 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.abstraction;
+
+import java.util.Collections;
+import java.util.Set;
+
+import cz.afri.smg.graphs.ReadableSMG;
+
+/**
+ * SMGs computed by a concretisation limited by a budget. When the budget runs out before all the cases are
+ * computed, the result is incomplete and holds only the SMGs of the cases computed so far.
+ */
+public final class SMGConcretisationResult {
+  private final Set<ReadableSMG> smgs;
+  private final boolean complete;
+
+  public SMGConcretisationResult(final Set<ReadableSMG> pSMGs, final boolean pComplete) {
+    smgs = Collections.unmodifiableSet(pSMGs);
+    complete = pComplete;
+  }
+
+  public Set<ReadableSMG> getSMGs() {
+    return smgs;
+  }
+
+  /**
+   * @return True if all the cases of the concretisation were computed, false if the budget ran out before
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+}
@@ -76,19 +76,20 @@ class CLangSMG extends SMG implements WritableSMG {
   private boolean hasLeaks = false;
 
   /**
-   * A flag setting if the class should perform additional consistency checks.
-   * It should be useful only during debugging, when is should find bad external
-   * calls closer to their origin. We probably do not want t run the checks in
-   * the production build.
+   * @deprecated Use a context with checks, see {@link SMGContext#withChecks(boolean)}. This method changes the
+   * default context, so it only affects SMGs created afterwards without an explicit context.
    */
-  private static boolean performChecks = false;
-
+  @Deprecated
   public static void setPerformChecks(final boolean pSetting) {
-    CLangSMG.performChecks = pSetting;
+    SMGContext.setDefault(SMGContext.getDefault().withChecks(pSetting));
   }
 
+  /**
+   * @deprecated Use {@link SMGContext#performChecks()} of the context of the SMG.
+   */
+  @Deprecated
   public static boolean performChecks() {
-    return CLangSMG.performChecks;
+    return SMGContext.getDefault().performChecks();
   }
 
   /**
@@ -100,7 +101,23 @@ class CLangSMG extends SMG implements WritableSMG {
    * pointing to it, and is empty otherwise.
    */
   public CLangSMG() {
-    super();
+    this(SMGContext.getDefault());
+  }
+
+  /**
+   * Constructor.
+   *
+   * Keeps consistency: yes
+   *
+   * Newly constructed CLangSMG contains a single nullObject with an address
+   * pointing to it, and is empty otherwise. Additional consistency checks are
+   * performed when the context asks for them.
+   *
+   * @param pContext
+   *          Context of the analysis this SMG belongs to.
+   */
+  public CLangSMG(final SMGContext pContext) {
+    super(pContext);
     heapObjects.add(getNullObject());
   }
 
@@ -138,7 +155,7 @@ class CLangSMG extends SMG implements WritableSMG {
    */
   @Override
   public void addHeapObject(final SMGObject pObject) {
-    if (CLangSMG.performChecks() && heapObjects.contains(pObject)) {
+    if (getContext().performChecks() && heapObjects.contains(pObject)) {
       throw new IllegalArgumentException("Heap object already in the SMG: [" + pObject + "]");
     }
     heapObjects.add(pObject);
@@ -157,11 +174,11 @@ class CLangSMG extends SMG implements WritableSMG {
    * @param pObject Object to add
    */
   private void addGlobalObject(final SMGRegion pObject) {
-    if (CLangSMG.performChecks() && globalObjects.values().contains(pObject)) {
+    if (getContext().performChecks() && globalObjects.values().contains(pObject)) {
       throw new IllegalArgumentException("Global object already in the SMG: [" + pObject + "]");
     }
 
-    if (CLangSMG.performChecks() && globalObjects.containsKey(pObject.getLabel())) {
+    if (getContext().performChecks() && globalObjects.containsKey(pObject.getLabel())) {
       throw new IllegalArgumentException("Global object with label [" + pObject.getLabel() + "] already in the SMG");
     }
 
@@ -235,11 +252,35 @@ class CLangSMG extends SMG implements WritableSMG {
       removeObjectAndEdges(object);
     }
 
-    if (CLangSMG.performChecks()) {
+    if (getContext().performChecks()) {
       CLangSMGConsistencyVerifier.verifyCLangSMG(this);
     }
   }
 
+  /**
+   * Renumber the values of the SMG densely, in the canonical order of its
+   * {@link SMGFingerprint}. The null value keeps the number 0.
+   *
+   * Keeps consistency: yes
+   *
+   * @return mapping from old values to new values
+   */
+  @Override
+  public Map<Integer, Integer> compactValues() {
+    normalize();
+    List<Integer> order = new SMGFingerprint(this).getValues();
+    if (order.size() > SMGValueAllocator.FIRST_VALUE) {
+      throw new IllegalStateException("Too many values to compact: " + order.size());
+    }
+
+    Map<Integer, Integer> renaming = new HashMap<>();
+    for (int i = 0; i < order.size(); i++) {
+      renaming.put(order.get(i), i);
+    }
+    renameValues(renaming);
+    return Collections.unmodifiableMap(renaming);
+  }
+
   /**
    * Prune the SMG: remove all unreachable objects (heap ones: global and stack
    * are always reachable) and values.
@@ -250,6 +291,7 @@ class CLangSMG extends SMG implements WritableSMG {
    */
   @Override
   public void pruneUnreachable() {
+    normalize();
     Set<SMGObject> seenObjects = new HashSet<>();
     Set<Integer> seenValues = new HashSet<>();
     Queue<SMGObject> workqueue = new ArrayDeque<>();
@@ -492,35 +534,6 @@ class CLangSMG extends SMG implements WritableSMG {
     return false;
   }
 
-  /**
-   * Get the symbolic value, that represents the address
-   * pointing to the given memory with the given offset, if it exists.
-   *
-   * @param memory
-   *          get address belonging to this memory.
-   * @param offset
-   *          get address with this offset relative to the beginning of the
-   *          memory.
-   * @return Address of the given field, or null, if such an address does not
-   *         yet exist in the SMG.
-   */
-  @Override
-  public Integer getAddress(final SMGObject pMemory, final Integer pOffset) {
-
-    // TODO A better way of getting those edges, maybe with a filter
-    // like the Has-Value-Edges
-
-    Set<SMGEdgePointsTo> pointsToEdges = getPTEdges();
-
-    for (SMGEdgePointsTo edge : pointsToEdges) {
-      if (edge.getObject().equals(pMemory) && edge.getOffset() == pOffset) {
-        return edge.getValue();
-      }
-    }
-
-    return null;
-  }
-
   /**
    * Read Value in field (object, type) of an Object.
    *
@@ -570,6 +583,7 @@ class CLangSMG extends SMG implements WritableSMG {
    * @throws SMGInconsistentException
    */
   public void free(final Integer pAddress, final Integer pOffset, final SMGRegion pRegion) {
+    normalize();
 
     if (!isHeapObject(pRegion)) {
       // You may not free any objects not on the heap.
@@ -627,7 +641,7 @@ class CLangSMG extends SMG implements WritableSMG {
   @Override
   public SMGRegion addGlobalVariable(final CType pType, final String pVarName) {
     int size = pType.getSize();
-    SMGRegion newObject = new SMGRegion(size, pVarName);
+    SMGRegion newObject = new SMGRegion(size, getContext().intern(pVarName));
 
     addGlobalObject(newObject);
     return newObject;
@@ -649,7 +663,7 @@ class CLangSMG extends SMG implements WritableSMG {
   @Override
   public SMGRegion addLocalVariable(final CType pType, final String pVarName) {
     int size = pType.getSize();
-    SMGRegion newObject = new SMGRegion(size, pVarName);
+    SMGRegion newObject = new SMGRegion(size, getContext().intern(pVarName));
 
     addStackObject(newObject);
     return newObject;
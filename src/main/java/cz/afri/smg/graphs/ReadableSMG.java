@@ -64,6 +64,8 @@ public interface ReadableSMG {
 
   int getNullValue();
 
+  SMGContext getContext();
+
   boolean isUnequal(int pV1, int pV2);
 
   SMGSymbolicValue readValue(SMGObject pObject, int pOffset, CType pType);
@@ -72,12 +74,18 @@ public interface ReadableSMG {
 
   Iterable<SMGEdgePointsTo> getPTEdges();
 
+  Iterable<SMGEdgePointsTo> getPTEdges(SMGObject pObject);
+
   boolean isPointer(Integer pValue);
 
   Integer getAddress(SMGObject pMemory, Integer pOffset);
 
   Iterable<SMGEdgeHasValue> getHVEdges();
 
+  /**
+   * @return Has-Value edges passing {@link pFilter}. If the filter restricts the object, the edges come in
+   * {@link SMGEdgeHasValue#FIELD_ORDER}.
+   */
   Iterable<SMGEdgeHasValue> getHVEdges(SMGEdgeHasValueFilter pFilter);
 
   SMGEdgeHasValue getUniqueHV(SMGEdgeHasValueFilter pFilter, boolean pStrict);
@@ -96,6 +104,8 @@ public interface ReadableSMG {
 
   SMGExplicitValue getExplicit(SMGKnownSymValue pValue);
 
+  SMGExplicitValue getExplicit(int pValue);
+
   boolean hasLocalVariable(String pVarName);
 
   boolean isIdenticalTo(ReadableSMG pOther);
@@ -21,8 +21,12 @@
  */
 package cz.afri.smg.graphs;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -30,16 +34,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.SetMultimap;
 
 import cz.afri.smg.graphs.SMGValues.SMGExplicitValue;
 import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
 import cz.afri.smg.graphs.SMGValues.SMGKnownSymValue;
-import cz.afri.smg.graphs.SMGValues.SMGUnknownValue;
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.objects.SMGRegion;
 import cz.afri.smg.types.CType;
@@ -48,10 +52,22 @@ class SMG {
   private final HashSet<SMGObject> objects = new HashSet<>();
   private final HashSet<Integer> values = new HashSet<>();
   private final HashSet<SMGEdgeHasValue> hvEdges = new HashSet<>();
+  private final SMGObjectIndex<SortedSet<SMGEdgeHasValue>> fields;
   private final HashMap<Integer, SMGEdgePointsTo> ptEdges = new HashMap<>();
+  private final SMGObjectIndex<Map<Integer, SortedSet<Integer>>> addresses;
   private final HashMap<SMGObject, Boolean> objectValidity = new HashMap<>();
   private final NeqRelation neq = new NeqRelation();
-  private final Map<SMGKnownSymValue, SMGKnownExpValue> explicitValues = new HashMap<>();
+  private final SMGExplicitValueTable explicitValues;
+  private final SMGContext context;
+
+  /**
+   * Union-find forest of merged values: each value merged away points towards the value it was merged into.
+   * The merges are applied when the SMG is normalized, which happens before the next modification, or when the
+   * SMG is copied. Getters never normalize: until then, they see the SMG as it was before the merges, so reads
+   * have no side effects and may run concurrently.
+   */
+  private final HashMap<Integer, Integer> mergedValues = new HashMap<>();
+  private boolean normalized = true;
 
   /**
    * A special object representing NULL
@@ -63,6 +79,57 @@ class SMG {
    */
   private static final int NULL_ADDRESS = 0;
 
+  /**
+   * Orders the fields of an object by {@link SMGEdgeHasValue#FIELD_ORDER}, and edges of the same field by their
+   * values, so that the order is consistent with the equality of Has-Value edges of one object.
+   */
+  private static final Comparator<SMGEdgeHasValue> OBJECT_FIELD_ORDER = new Comparator<SMGEdgeHasValue>() {
+    @Override
+    public int compare(final SMGEdgeHasValue pEdge1, final SMGEdgeHasValue pEdge2) {
+      int comparison = SMGEdgeHasValue.FIELD_ORDER.compare(pEdge1, pEdge2);
+      if (comparison != 0) {
+        return comparison;
+      }
+      return Integer.compare(pEdge1.getValue(), pEdge2.getValue());
+    }
+  };
+
+  /**
+   * Fields of an object, kept sorted when they are stored
+   */
+  private static final SMGObjectIndex.Factory<SortedSet<SMGEdgeHasValue>> FIELDS =
+      new SMGObjectIndex.Factory<SortedSet<SMGEdgeHasValue>>() {
+        @Override
+        public SortedSet<SMGEdgeHasValue> create() {
+          return new TreeSet<>(OBJECT_FIELD_ORDER);
+        }
+
+        @Override
+        public SortedSet<SMGEdgeHasValue> copy(final SortedSet<SMGEdgeHasValue> pFields) {
+          return new TreeSet<>(pFields);
+        }
+      };
+
+  /**
+   * Addresses of an object: for each offset, the values pointing to it
+   */
+  private static final SMGObjectIndex.Factory<Map<Integer, SortedSet<Integer>>> ADDRESSES =
+      new SMGObjectIndex.Factory<Map<Integer, SortedSet<Integer>>>() {
+        @Override
+        public Map<Integer, SortedSet<Integer>> create() {
+          return new HashMap<>();
+        }
+
+        @Override
+        public Map<Integer, SortedSet<Integer>> copy(final Map<Integer, SortedSet<Integer>> pAddresses) {
+          Map<Integer, SortedSet<Integer>> copy = new HashMap<>();
+          for (Map.Entry<Integer, SortedSet<Integer>> address : pAddresses.entrySet()) {
+            copy.put(address.getKey(), new TreeSet<>(address.getValue()));
+          }
+          return copy;
+        }
+      };
+
   /**
    * Constructor.
    *
@@ -72,6 +139,21 @@ class SMG {
    *
    */
   public SMG() {
+    this(SMGContext.getDefault());
+  }
+
+  /**
+   * Constructor.
+   *
+   * Consistent after call: yes.
+   *
+   * @param pContext Context of the analysis this SMG belongs to.
+   */
+  public SMG(final SMGContext pContext) {
+    context = pContext;
+    fields = new SMGObjectIndex<>(FIELDS);
+    addresses = new SMGObjectIndex<>(ADDRESSES);
+    explicitValues = new SMGExplicitValueTable();
     SMGEdgePointsTo nullPointer = new SMGEdgePointsTo(NULL_ADDRESS, NULL_OBJECT, 0);
 
     addObject(NULL_OBJECT);
@@ -89,16 +171,23 @@ class SMG {
    * @param pHeap Original SMG.
    */
   public SMG(final SMG pHeap) {
+    context = pHeap.context;
     objects.addAll(pHeap.objects);
     values.addAll(pHeap.values);
     hvEdges.addAll(pHeap.hvEdges);
+    fields = new SMGObjectIndex<>(pHeap.fields);
     ptEdges.putAll(pHeap.ptEdges);
+    addresses = new SMGObjectIndex<>(pHeap.addresses);
 
     objectValidity.putAll(pHeap.objectValidity);
 
-    explicitValues.putAll(pHeap.explicitValues);
+    explicitValues = new SMGExplicitValueTable(pHeap.explicitValues);
 
     neq.putAll(pHeap.neq);
+
+    mergedValues.putAll(pHeap.mergedValues);
+    normalized = pHeap.normalized;
+    normalize();
   }
 
   @Override
@@ -127,6 +216,7 @@ class SMG {
    * @param pValue Value to remove
    */
   public final void removeValue(final Integer pValue) {
+    normalize();
     values.remove(pValue);
     neq.removeValue(pValue);
   }
@@ -151,18 +241,19 @@ class SMG {
    * @param pObj Object to remove
    */
   public final void removeObjectAndEdges(final SMGObject pObj) {
+    normalize();
     removeObject(pObj);
-    Iterator<SMGEdgeHasValue> hvIter = hvEdges.iterator();
-    Iterator<SMGEdgePointsTo> ptIter = ptEdges.values().iterator();
-    while (hvIter.hasNext()) {
-      if (hvIter.next().getObject() == pObj) {
-        hvIter.remove();
-      }
+    Set<SMGEdgeHasValue> objectFields = fields.remove(pObj);
+    if (objectFields != null) {
+      hvEdges.removeAll(objectFields);
     }
 
-    while (ptIter.hasNext()) {
-      if (ptIter.next().getObject() == pObj) {
-        ptIter.remove();
+    Map<Integer, SortedSet<Integer>> objectAddresses = addresses.remove(pObj);
+    if (objectAddresses != null) {
+      for (SortedSet<Integer> offsetAddresses : objectAddresses.values()) {
+        for (Integer address : offsetAddresses) {
+          ptEdges.remove(address);
+        }
       }
     }
   }
@@ -200,7 +291,17 @@ class SMG {
    * @param pEdge Points-To edge to add.
    */
   public final void addPointsToEdge(final SMGEdgePointsTo pEdge) {
+    normalize();
+    removePointsToEdge(pEdge.getValue());
     ptEdges.put(pEdge.getValue(), pEdge);
+
+    Map<Integer, SortedSet<Integer>> objectAddresses = addresses.getWritable(pEdge.getObject());
+    SortedSet<Integer> offsetAddresses = objectAddresses.get(pEdge.getOffset());
+    if (offsetAddresses == null) {
+      offsetAddresses = new TreeSet<>();
+      objectAddresses.put(pEdge.getOffset(), offsetAddresses);
+    }
+    offsetAddresses.add(pEdge.getValue());
   }
 
   /**
@@ -211,7 +312,10 @@ class SMG {
    * @param pEdge Has-Value edge to add
    */
   public final void addHasValueEdge(final SMGEdgeHasValue pEdge) {
+    normalize();
     hvEdges.add(pEdge);
+
+    fields.getWritable(pEdge.getObject()).add(pEdge);
   }
 
   /**
@@ -222,7 +326,17 @@ class SMG {
    * @param pEdge Has-Value edge to remove
    */
   public final void removeHasValueEdge(final SMGEdgeHasValue pEdge) {
+    normalize();
     hvEdges.remove(pEdge);
+
+    Set<SMGEdgeHasValue> objectFields = fields.get(pEdge.getObject());
+    if (objectFields != null && objectFields.contains(pEdge)) {
+      objectFields = fields.getWritable(pEdge.getObject());
+      objectFields.remove(pEdge);
+      if (objectFields.isEmpty()) {
+        fields.remove(pEdge.getObject());
+      }
+    }
   }
 
   /**
@@ -233,7 +347,21 @@ class SMG {
    * @param pValue the Source of the Points-To edge to be removed
    */
   public final void removePointsToEdge(final Integer pValue) {
-    ptEdges.remove(pValue);
+    normalize();
+    SMGEdgePointsTo edge = ptEdges.remove(pValue);
+    if (edge == null) {
+      return;
+    }
+
+    Map<Integer, SortedSet<Integer>> objectAddresses = addresses.getWritable(edge.getObject());
+    SortedSet<Integer> offsetAddresses = objectAddresses.get(edge.getOffset());
+    offsetAddresses.remove(pValue);
+    if (offsetAddresses.isEmpty()) {
+      objectAddresses.remove(edge.getOffset());
+      if (objectAddresses.isEmpty()) {
+        addresses.remove(edge.getObject());
+      }
+    }
   }
 
   /**
@@ -261,8 +389,12 @@ class SMG {
    * Keeps consistency: no
    */
   public void replaceHVSet(final Set<SMGEdgeHasValue> pNewHV) {
+    normalize();
     hvEdges.clear();
-    hvEdges.addAll(pNewHV);
+    fields.clear();
+    for (SMGEdgeHasValue edge : pNewHV) {
+      addHasValueEdge(edge);
+    }
   }
 
   /**
@@ -274,6 +406,7 @@ class SMG {
    * Keeps consistency: no
    */
   public void addNeqRelation(final Integer pV1, final Integer pV2) {
+    normalize();
     neq.addRelation(pV1, pV2);
   }
 
@@ -297,6 +430,13 @@ class SMG {
     return SMG.NULL_ADDRESS;
   }
 
+  /**
+   * @return Context of the analysis this SMG belongs to
+   */
+  public final SMGContext getContext() {
+    return context;
+  }
+
   /**
    * Getter for obtaining string representation of values set. Constant.
    * @return String representation of values set
@@ -347,12 +487,23 @@ class SMG {
 
   /**
    * Getter for obtaining unmodifiable view on Has-Value edges set, filtered by
-   * a certain set of criteria.
+   * a certain set of criteria. When the filter restricts the object, the edges
+   * are looked up in the index of object fields and come in
+   * {@link SMGEdgeHasValue#FIELD_ORDER}.
    * @param pFilter Filtering object
    * @return A set of Has-Value edges for which the criteria in p hold
    */
   public final Iterable<SMGEdgeHasValue> getHVEdges(final SMGEdgeHasValueFilter pFilter) {
-    return Iterables.filter(Collections.unmodifiableSet(hvEdges), pFilter.asPredicate());
+    SMGObject object = pFilter.getObject();
+    if (object == null) {
+      return Iterables.filter(Collections.unmodifiableSet(hvEdges), pFilter.asPredicate());
+    }
+
+    Set<SMGEdgeHasValue> objectFields = fields.get(object);
+    if (objectFields == null) {
+      return Collections.emptySet();
+    }
+    return Iterables.filter(Collections.unmodifiableSet(objectFields), pFilter.asPredicate());
   }
 
   /**
@@ -378,6 +529,27 @@ class SMG {
     return Collections.unmodifiableSet(new HashSet<>(ptEdges.values()));
   }
 
+  /**
+   * Getter for obtaining the Points-To edges leading to an object, looked up
+   * in the index of object addresses. Constant.
+   *
+   * @param pObject Target object
+   * @return Unmodifiable set of Points-To edges with {@link pObject} as target.
+   */
+  public final Set<SMGEdgePointsTo> getPTEdges(final SMGObject pObject) {
+    Map<Integer, SortedSet<Integer>> objectAddresses = addresses.get(pObject);
+    if (objectAddresses == null) {
+      return Collections.emptySet();
+    }
+    Set<SMGEdgePointsTo> edges = new HashSet<>();
+    for (SortedSet<Integer> offsetAddresses : objectAddresses.values()) {
+      for (Integer address : offsetAddresses) {
+        edges.add(ptEdges.get(address));
+      }
+    }
+    return Collections.unmodifiableSet(edges);
+  }
+
   /**
    * Getter for obtaining an object, pointed by a value {@link pValue}. Constant.
    *
@@ -455,6 +627,31 @@ class SMG {
     return ptEdges.containsKey(value);
   }
 
+  /**
+   * Get the symbolic value, that represents the address
+   * pointing to the given memory with the given offset, if it exists.
+   * If several values point there, the least one is returned.
+   *
+   * @param pMemory
+   *          get address belonging to this memory.
+   * @param pOffset
+   *          get address with this offset relative to the beginning of the
+   *          memory.
+   * @return Address of the given field, or null, if such an address does not
+   *         yet exist in the SMG.
+   */
+  public final Integer getAddress(final SMGObject pMemory, final Integer pOffset) {
+    Map<Integer, SortedSet<Integer>> objectAddresses = addresses.get(pMemory);
+    if (objectAddresses == null) {
+      return null;
+    }
+    SortedSet<Integer> offsetAddresses = objectAddresses.get(pOffset);
+    if (offsetAddresses == null) {
+      return null;
+    }
+    return offsetAddresses.first();
+  }
+
   /**
    * Returns the {@link SMGEdgePointsTo} edge with the
    * given value as source.
@@ -487,27 +684,139 @@ class SMG {
     return (objectNullBytes.nextClearBit(pOffset) >= expectedMinClear);
   }
 
+  /**
+   * Merges two values. The null value always survives a merge, otherwise {@link pV1} does. The merge itself
+   * only links the values in the union-find forest, the merged value, its edges, neq relations and explicit value
+   * are replaced by the surviving one by {@link #normalize()}. Until then, getters do not see the merge.
+   *
+   * Keeps consistency: yes
+   *
+   * @param pV1 First value
+   * @param pV2 Second value
+   */
   public void mergeValues(final int pV1, final int pV2) {
-    if (pV1 == pV2) {
+    Integer root1 = findMerged(pV1);
+    Integer root2 = findMerged(pV2);
+    if (root1.equals(root2)) {
+      return;
+    }
+
+    if (root2 == NULL_ADDRESS) {
+      mergedValues.put(root1, root2);
+    } else {
+      mergedValues.put(root2, root1);
+    }
+    normalized = false;
+  }
+
+  /**
+   * @return The value {@link pValue} was (transitively) merged into since the last normalization, or the value
+   * itself
+   */
+  private Integer findMerged(final Integer pValue) {
+    Integer root = pValue;
+    Integer parent = mergedValues.get(root);
+    while (parent != null) {
+      root = parent;
+      parent = mergedValues.get(root);
+    }
+
+    Integer current = pValue;
+    while (!current.equals(root)) {
+      current = mergedValues.put(current, root);
+    }
+    return root;
+  }
+
+  /**
+   * Replaces all the values merged by {@link #mergeValues(int, int)} in values, edges, neq relations and
+   * explicit values by the values they were merged into. A surviving value without an explicit value takes the
+   * explicit value of a value merged into it.
+   *
+   * Keeps consistency: yes
+   */
+  public final void normalize() {
+    if (normalized) {
       return;
     }
+    normalized = true;
 
-    if (pV2 == NULL_ADDRESS) {
-      mergeValues(pV2, pV1);
+    Map<Integer, Integer> renaming = new HashMap<>();
+    for (Integer value : mergedValues.keySet()) {
+      renaming.put(value, findMerged(value));
     }
+    mergedValues.clear();
+    renameValues(renaming);
+  }
 
-    neq.mergeValues(pV1, pV2);
-    removeValue(pV2);
-    HashSet<SMGEdgeHasValue> newHvEdges = new HashSet<>();
+  /**
+   * Renames values of the SMG according to {@link pRenaming}. Values which are not keys in the mapping keep
+   * their names. Edges, neq relations and explicit values are renamed accordingly. The null value cannot be renamed.
+   *
+   * Keeps consistency: yes, if the renaming is injective
+   *
+   * @param pRenaming A mapping from old values to new values
+   */
+  public void renameValues(final Map<Integer, Integer> pRenaming) {
+    normalize();
+    if (renamed(pRenaming, NULL_ADDRESS) != NULL_ADDRESS) {
+      throw new IllegalArgumentException("Null value cannot be renamed");
+    }
+
+    Set<Integer> newValues = new HashSet<>();
+    for (Integer value : values) {
+      newValues.add(renamed(pRenaming, value));
+    }
+    values.clear();
+    values.addAll(newValues);
+
+    Set<SMGEdgeHasValue> newHvEdges = new HashSet<>();
     for (SMGEdgeHasValue hv : hvEdges) {
-      if (hv.getValue() != pV2) {
+      if (pRenaming.containsKey(hv.getValue())) {
+        newHvEdges.add(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(),
+                                           pRenaming.get(hv.getValue())));
+      } else {
         newHvEdges.add(hv);
+      }
+    }
+    replaceHVSet(newHvEdges);
+
+    // When values are merged, the surviving value keeps its own Points-To edge, so a value merged into the null
+    // value loses its edge. If the surviving value has none, the edge of the least merged value is used.
+    Map<Integer, SMGEdgePointsTo> newPtEdges = new HashMap<>();
+    SortedMap<Integer, SMGEdgePointsTo> renamedPtEdges = new TreeMap<>();
+    for (SMGEdgePointsTo pt : ptEdges.values()) {
+      if (pRenaming.containsKey(pt.getValue())) {
+        renamedPtEdges.put(pt.getValue(), pt);
       } else {
-        newHvEdges.add(new SMGEdgeHasValue(hv.getSizeInBytes(), hv.getOffset(), hv.getObject(), pV1));
+        newPtEdges.put(pt.getValue(), pt);
       }
     }
-    hvEdges.clear();
-    hvEdges.addAll(newHvEdges);
+    for (SMGEdgePointsTo pt : renamedPtEdges.values()) {
+      Integer newValue = pRenaming.get(pt.getValue());
+      if (!newPtEdges.containsKey(newValue)) {
+        newPtEdges.put(newValue, new SMGEdgePointsTo(newValue, pt.getObject(), pt.getOffset()));
+      }
+    }
+    ptEdges.clear();
+    addresses.clear();
+    for (SMGEdgePointsTo pt : newPtEdges.values()) {
+      addPointsToEdge(pt);
+    }
+
+    neq.renameValues(pRenaming);
+
+    // when values are merged, the explicit value of the surviving value wins, a surviving value without one
+    // takes the explicit value of a value merged into it
+    explicitValues.rename(pRenaming);
+  }
+
+  static Integer renamed(final Map<Integer, Integer> pRenaming, final Integer pValue) {
+    Integer newValue = pRenaming.get(pValue);
+    if (newValue == null) {
+      return pValue;
+    }
+    return newValue;
   }
 
   public boolean haveNeqRelation(final Integer pV1, final Integer pV2) {
@@ -519,18 +828,21 @@ class SMG {
   }
 
   public void putExplicit(final SMGKnownSymValue pKey, final SMGKnownExpValue pValue) {
-    explicitValues.put(pKey, pValue);
+    normalize();
+    explicitValues.put(pKey.getAsInt(), pValue);
   }
 
   public SMGExplicitValue getExplicit(final SMGKnownSymValue pKey) {
-    if (explicitValues.containsKey(pKey)) {
-      return explicitValues.get(pKey);
-    }
-    return SMGUnknownValue.getInstance();
+    return getExplicit(pKey.getAsInt());
+  }
+
+  public SMGExplicitValue getExplicit(final int pValue) {
+    return explicitValues.get(pValue);
   }
 
   public void clearExplicit(final SMGKnownSymValue pKey) {
-    explicitValues.remove(pKey);
+    normalize();
+    explicitValues.remove(pKey.getAsInt());
   }
 
   public boolean isIdenticalTo(final SMG pOther) {
@@ -543,18 +855,104 @@ class SMG {
 final class NeqRelation {
 
   /**
-   * The Multimap is used as Bi-Map, i.e. each pair (K,V) is also inserted as
-   * pair (V,K). We avoid self-references like (A,A).
+   * Symmetric adjacency matrix of the relation: the values taking part in some relation get dense ids, and
+   * each of them has a bit set of the ids of the values it is unequal to. Ids of values which lose all their
+   * relations are reused. We avoid self-references like (A,A).
    */
-  private final SetMultimap<Integer, Integer> smgValues = HashMultimap.create();
+  private static final class Table {
+    private final Map<Integer, Integer> ids;
+    private final List<Integer> values;
+    private final List<BitSet> rows;
+    private final Deque<Integer> freeIds;
+
+    private Table() {
+      ids = new HashMap<>();
+      values = new ArrayList<>();
+      rows = new ArrayList<>();
+      freeIds = new ArrayDeque<>();
+    }
+
+    private Table(final Table pTable) {
+      ids = new HashMap<>(pTable.ids);
+      values = new ArrayList<>(pTable.values);
+      rows = new ArrayList<>(pTable.rows.size());
+      for (BitSet row : pTable.rows) {
+        rows.add((BitSet) row.clone());
+      }
+      freeIds = new ArrayDeque<>(pTable.freeIds);
+    }
+
+    private int allocate(final Integer pValue) {
+      Integer id = ids.get(pValue);
+      if (id == null) {
+        if (freeIds.isEmpty()) {
+          id = values.size();
+          values.add(pValue);
+          rows.add(new BitSet());
+        } else {
+          id = freeIds.pop();
+          values.set(id, pValue);
+        }
+        ids.put(pValue, id);
+      }
+      return id;
+    }
+
+    private void releaseIfUnrelated(final int pId) {
+      if (rows.get(pId).isEmpty()) {
+        ids.remove(values.get(pId));
+        values.set(pId, null);
+        freeIds.push(pId);
+      }
+    }
+
+    private BitSet getRow(final Integer pValue) {
+      Integer id = ids.get(pValue);
+      if (id == null) {
+        return null;
+      }
+      return rows.get(id);
+    }
+  }
+
+  /**
+   * Copies of the relation share the table until one of them is modified, so copying an SMG does not copy
+   * its disequalities.
+   */
+  private Table table = new Table();
+  private volatile boolean shared = false;
+
+  private Table getWritableTable() {
+    if (shared) {
+      table = new Table(table);
+      shared = false;
+    }
+    return table;
+  }
 
   @Override
   public int hashCode() {
-    return smgValues.hashCode();
+    int result = 0;
+    for (int id = 0; id < table.values.size(); id++) {
+      Integer value = table.values.get(id);
+      BitSet row = table.rows.get(id);
+      for (int other = row.nextSetBit(0); other >= 0; other = row.nextSetBit(other + 1)) {
+        result += value.hashCode() ^ table.values.get(other).hashCode();
+      }
+    }
+    return result;
   }
 
   public Set<Integer> getNeqsForValue(final Integer pV) {
-    return Collections.unmodifiableSet(smgValues.get(pV));
+    BitSet row = table.getRow(pV);
+    if (row == null) {
+      return Collections.emptySet();
+    }
+    Set<Integer> neqs = new HashSet<>();
+    for (int other = row.nextSetBit(0); other >= 0; other = row.nextSetBit(other + 1)) {
+      neqs.add(table.values.get(other));
+    }
+    return Collections.unmodifiableSet(neqs);
   }
 
   @Override
@@ -563,51 +961,105 @@ final class NeqRelation {
       return false;
     }
     NeqRelation other = (NeqRelation) obj;
-    return other.smgValues != null && smgValues.equals(other.smgValues);
+    if (table == other.table) {
+      return true;
+    }
+    if (table.ids.size() != other.table.ids.size()) {
+      return false;
+    }
+    for (Integer value : table.ids.keySet()) {
+      if (!getNeqsForValue(value).equals(other.getNeqsForValue(value))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public void addRelation(final Integer pOne, final Integer pTwo) {
 
     // we do not want self-references
-    if (pOne.intValue() == pTwo.intValue()) {
+    if (pOne.intValue() == pTwo.intValue() || neqExists(pOne, pTwo)) {
       return;
     }
 
-    smgValues.put(pOne, pTwo);
-    smgValues.put(pTwo, pOne);
+    Table writable = getWritableTable();
+    int one = writable.allocate(pOne);
+    int two = writable.allocate(pTwo);
+    writable.rows.get(one).set(two);
+    writable.rows.get(two).set(one);
   }
 
   public void putAll(final NeqRelation pNeq) {
-    smgValues.putAll(pNeq.smgValues);
+    if (table.ids.isEmpty()) {
+      pNeq.shared = true;
+      table = pNeq.table;
+      shared = true;
+      return;
+    }
+
+    Table source = pNeq.table;
+    for (int id = 0; id < source.values.size(); id++) {
+      BitSet row = source.rows.get(id);
+      for (int other = row.nextSetBit(id + 1); other >= 0; other = row.nextSetBit(other + 1)) {
+        addRelation(source.values.get(id), source.values.get(other));
+      }
+    }
   }
 
   public void removeRelation(final Integer pOne, final Integer pTwo) {
-    smgValues.remove(pOne, pTwo);
-    smgValues.remove(pTwo, pOne);
+    if (!neqExists(pOne, pTwo)) {
+      return;
+    }
+
+    Table writable = getWritableTable();
+    int one = writable.ids.get(pOne);
+    int two = writable.ids.get(pTwo);
+    writable.rows.get(one).clear(two);
+    writable.rows.get(two).clear(one);
+    writable.releaseIfUnrelated(one);
+    writable.releaseIfUnrelated(two);
   }
 
   public boolean neqExists(final Integer pOne, final Integer pTwo) {
-    return smgValues.containsEntry(pOne, pTwo);
+    BitSet row = table.getRow(pOne);
+    Integer two = table.ids.get(pTwo);
+    return row != null && two != null && row.get(two);
   }
 
   public void removeValue(final Integer pOne) {
-    for (Integer other : smgValues.get(pOne)) {
-      smgValues.get(other).remove(pOne);
+    if (!table.ids.containsKey(pOne)) {
+      return;
+    }
+
+    Table writable = getWritableTable();
+    int one = writable.ids.get(pOne);
+    BitSet row = writable.rows.get(one);
+    for (int other = row.nextSetBit(0); other >= 0; other = row.nextSetBit(other + 1)) {
+      writable.rows.get(other).clear(one);
+      writable.releaseIfUnrelated(other);
     }
-    smgValues.removeAll(pOne);
+    row.clear();
+    writable.releaseIfUnrelated(one);
   }
 
-  /** transform all relations from (A->C) towards (A->B) and delete C */
-  public void mergeValues(final Integer pB, final Integer pC) {
-    List<Integer> values = ImmutableList.copyOf(smgValues.get(pC));
-    removeValue(pC);
-    for (Integer value : values) {
-      addRelation(pB, value);
+  public void renameValues(final Map<Integer, Integer> pRenaming) {
+    Table old = table;
+    table = new Table();
+    shared = false;
+    for (int id = 0; id < old.values.size(); id++) {
+      BitSet row = old.rows.get(id);
+      for (int other = row.nextSetBit(id + 1); other >= 0; other = row.nextSetBit(other + 1)) {
+        addRelation(SMG.renamed(pRenaming, old.values.get(id)), SMG.renamed(pRenaming, old.values.get(other)));
+      }
     }
   }
 
   @Override
   public String toString() {
-    return "neq_rel=" + smgValues.toString();
+    Map<Integer, Set<Integer>> relation = new HashMap<>();
+    for (Integer value : table.ids.keySet()) {
+      relation.put(value, getNeqsForValue(value));
+    }
+    return "neq_rel=" + relation.toString();
   }
-}
\ No newline at end of file
+}
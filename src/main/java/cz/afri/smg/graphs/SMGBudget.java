@@ -0,0 +1,112 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A limit on the amount of work an operation on SMGs may do. The budget is consumed in steps, and may also be
+ * limited by a deadline or cancelled from another thread. Once exhausted, the budget stays exhausted.
+ *
+ * Budgets are thread-safe, so a single budget may be shared by operations running in parallel.
+ */
+public final class SMGBudget {
+  /**
+   * Reading the clock on every step would be too expensive, so the deadline is checked once in this many steps.
+   */
+  private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+  private final long stepLimit;
+  private final boolean hasDeadline;
+  private final long deadline;
+
+  private final AtomicLong steps = new AtomicLong();
+  private volatile boolean cancelled = false;
+  private volatile boolean exhausted = false;
+
+  private SMGBudget(final long pStepLimit, final boolean pHasDeadline, final long pDeadline) {
+    stepLimit = pStepLimit;
+    hasDeadline = pHasDeadline;
+    deadline = pDeadline;
+  }
+
+  public static SMGBudget unlimited() {
+    return new SMGBudget(Long.MAX_VALUE, false, 0);
+  }
+
+  public static SMGBudget ofSteps(final long pSteps) {
+    return new SMGBudget(pSteps, false, 0);
+  }
+
+  public static SMGBudget ofTime(final long pTimeout, final TimeUnit pUnit) {
+    return new SMGBudget(Long.MAX_VALUE, true, System.nanoTime() + pUnit.toNanos(pTimeout));
+  }
+
+  public static SMGBudget of(final long pSteps, final long pTimeout, final TimeUnit pUnit) {
+    return new SMGBudget(pSteps, true, System.nanoTime() + pUnit.toNanos(pTimeout));
+  }
+
+  /**
+   * Consumes a single step of the budget.
+   *
+   * @return True if the step fits into the budget, false if the budget is exhausted and the caller should stop.
+   */
+  public boolean step() {
+    if (exhausted) {
+      return false;
+    }
+
+    long taken = steps.incrementAndGet();
+    if (cancelled || taken > stepLimit || (taken % DEADLINE_CHECK_INTERVAL == 0 && deadlinePassed())) {
+      exhausted = true;
+      return false;
+    }
+    return true;
+  }
+
+  private boolean deadlinePassed() {
+    return hasDeadline && System.nanoTime() - deadline >= 0;
+  }
+
+  /**
+   * Cancels all operations using this budget. They will stop at their next step.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  public boolean isExhausted() {
+    if (!exhausted && (cancelled || steps.get() > stepLimit || deadlinePassed())) {
+      exhausted = true;
+    }
+    return exhausted;
+  }
+
+  public long getStepsTaken() {
+    return steps.get();
+  }
+}
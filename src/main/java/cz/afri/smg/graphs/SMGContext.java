@@ -0,0 +1,130 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import cz.afri.smg.join.SMGJoinMetrics;
+
+/**
+ * Settings and shared state of a single analysis: the value namespace, the consistency check flags, the label
+ * interning table and the metrics sinks. SMGs created by {@link SMGFactory} with a context keep it in all their
+ * copies, and joins of such SMGs use the context of their first operand. Independent analyses with different
+ * contexts can therefore run in one JVM, also in parallel.
+ *
+ * A context is immutable: the with* methods return a new context sharing the value namespace and the interning
+ * table with the original one.
+ */
+public final class SMGContext {
+  private static volatile SMGContext defaultContext = new SMGContext();
+
+  private final SMGValueAllocator allocator;
+  private final Interner<String> labels;
+  private final boolean performChecks;
+  private final boolean performJoinChecks;
+  private final SMGJoinMetrics joinMetrics;
+
+  /**
+   * Creates a context with a fresh value namespace, without checks and without metrics.
+   */
+  public SMGContext() {
+    this(new SMGValueAllocator(), Interners.<String>newStrongInterner(), false, false, null);
+  }
+
+  private SMGContext(final SMGValueAllocator pAllocator, final Interner<String> pLabels, final boolean pChecks,
+                     final boolean pJoinChecks, final SMGJoinMetrics pJoinMetrics) {
+    allocator = pAllocator;
+    labels = pLabels;
+    performChecks = pChecks;
+    performJoinChecks = pJoinChecks;
+    joinMetrics = pJoinMetrics;
+  }
+
+  /**
+   * @return The context used by SMGs created without an explicit one
+   */
+  public static SMGContext getDefault() {
+    return defaultContext;
+  }
+
+  /**
+   * Replaces the context used by SMGs created without an explicit one. SMGs created before keep their context.
+   *
+   * @param pContext The new default context
+   */
+  public static void setDefault(final SMGContext pContext) {
+    defaultContext = pContext;
+  }
+
+  /**
+   * @param pChecks Whether the SMGs should perform additional consistency checks. It should be useful only
+   *                during debugging, when it should find bad external calls closer to their origin.
+   */
+  public SMGContext withChecks(final boolean pChecks) {
+    return new SMGContext(allocator, labels, pChecks, performJoinChecks, joinMetrics);
+  }
+
+  /**
+   * @param pJoinChecks Whether joins should verify the consistency of their partial results
+   */
+  public SMGContext withJoinChecks(final boolean pJoinChecks) {
+    return new SMGContext(allocator, labels, performChecks, pJoinChecks, joinMetrics);
+  }
+
+  /**
+   * @param pJoinMetrics Metrics reported by joins which are not given metrics explicitly, or null
+   */
+  public SMGContext withJoinMetrics(final SMGJoinMetrics pJoinMetrics) {
+    return new SMGContext(allocator, labels, performChecks, performJoinChecks, pJoinMetrics);
+  }
+
+  public SMGValueAllocator getValueAllocator() {
+    return allocator;
+  }
+
+  /**
+   * @return a fresh symbolic value from the namespace of this context
+   */
+  public Integer getNewValue() {
+    return allocator.getNewValue();
+  }
+
+  /**
+   * @return A canonical instance of the label, shared by all objects with this label in the context
+   */
+  public String intern(final String pLabel) {
+    return labels.intern(pLabel);
+  }
+
+  public boolean performChecks() {
+    return performChecks;
+  }
+
+  public boolean performJoinChecks() {
+    return performJoinChecks;
+  }
+
+  public SMGJoinMetrics getJoinMetrics() {
+    return joinMetrics;
+  }
+}
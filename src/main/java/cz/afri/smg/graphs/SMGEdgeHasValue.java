@@ -21,10 +21,29 @@
  */
 package cz.afri.smg.graphs;
 
+import java.util.Comparator;
+
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.types.CType;
 
 public class SMGEdgeHasValue extends SMGEdge {
+  /**
+   * Orders has-value edges by their offset and type. Two edges of one object are equal in this order if and only
+   * if they describe the same field.
+   */
+  public static final Comparator<SMGEdgeHasValue> FIELD_ORDER = new Comparator<SMGEdgeHasValue>() {
+    @Override
+    public int compare(final SMGEdgeHasValue pEdge1, final SMGEdgeHasValue pEdge2) {
+      if (pEdge1.getOffset() != pEdge2.getOffset()) {
+        return Integer.compare(pEdge1.getOffset(), pEdge2.getOffset());
+      }
+      if (pEdge1.getSizeInBytes() != pEdge2.getSizeInBytes()) {
+        return Integer.compare(pEdge1.getSizeInBytes(), pEdge2.getSizeInBytes());
+      }
+      return pEdge1.getType().getClass().getName().compareTo(pEdge2.getType().getClass().getName());
+    }
+  };
+
   private final CType type;
   private final int offset;
 
@@ -73,6 +73,10 @@ public class SMGEdgeHasValueFilter {
     return this;
   }
 
+  final SMGObject getObject() {
+    return object;
+  }
+
   public final boolean holdsFor(final SMGEdgeHasValue pEdge) {
     if (object != null && object != pEdge.getObject()) {
       return false;
@@ -0,0 +1,264 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import cz.afri.smg.graphs.SMGValues.SMGExplicitValue;
+import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
+import cz.afri.smg.graphs.SMGValues.SMGUnknownValue;
+
+/**
+ * Explicit values of symbolic values. Explicit values fitting into a long are kept in a primitive open
+ * addressing table, so that lookups need no key wrappers. The rare larger ones go to a side table.
+ *
+ * Next to each long, the table keeps the value object handed out by {@link #get(int)}, so lookups allocate
+ * nothing. The object is created once when the value is stored, or not at all when the caller stores one.
+ */
+final class SMGExplicitValueTable {
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int HASH_MULTIPLIER = 0x9E3779B9;
+  private static final int LONG_HALF = 32;
+
+  private int[] keys;
+  private long[] values;
+  private SMGKnownExpValue[] objects;
+  private boolean[] used;
+  private int size = 0;
+  private final Map<Integer, SMGKnownExpValue> overflow;
+
+  public SMGExplicitValueTable() {
+    keys = new int[INITIAL_CAPACITY];
+    values = new long[INITIAL_CAPACITY];
+    objects = new SMGKnownExpValue[INITIAL_CAPACITY];
+    used = new boolean[INITIAL_CAPACITY];
+    overflow = new HashMap<>();
+  }
+
+  public SMGExplicitValueTable(final SMGExplicitValueTable pOrigin) {
+    keys = pOrigin.keys.clone();
+    values = pOrigin.values.clone();
+    objects = pOrigin.objects.clone();
+    used = pOrigin.used.clone();
+    size = pOrigin.size;
+    overflow = new HashMap<>(pOrigin.overflow);
+  }
+
+  private int home(final int pKey) {
+    int mask = keys.length - 1;
+    return ((pKey * HASH_MULTIPLIER) >>> Integer.numberOfLeadingZeros(mask)) & mask;
+  }
+
+  private int slot(final int pKey) {
+    int mask = keys.length - 1;
+    int slot = home(pKey);
+    while (used[slot] && keys[slot] != pKey) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  public boolean contains(final int pKey) {
+    return used[slot(pKey)] || overflow.containsKey(pKey);
+  }
+
+  /**
+   * @return The explicit value of the symbolic value {@link pKey}, or unknown value if there is none
+   */
+  public SMGExplicitValue get(final int pKey) {
+    int slot = slot(pKey);
+    if (used[slot]) {
+      return objects[slot];
+    }
+    SMGKnownExpValue big = overflow.get(pKey);
+    if (big != null) {
+      return big;
+    }
+    return SMGUnknownValue.getInstance();
+  }
+
+  public void put(final int pKey, final BigInteger pValue) {
+    put(pKey, SMGKnownExpValue.valueOf(pValue));
+  }
+
+  public void put(final int pKey, final SMGKnownExpValue pValue) {
+    if (!pValue.fitsLong()) {
+      remove(pKey);
+      overflow.put(pKey, pValue);
+      return;
+    }
+
+    overflow.remove(pKey);
+    int slot = slot(pKey);
+    if (!used[slot]) {
+      used[slot] = true;
+      keys[slot] = pKey;
+      size++;
+    }
+    values[slot] = pValue.getAsLong();
+    objects[slot] = pValue;
+
+    if (2 * size > keys.length) {
+      grow();
+    }
+  }
+
+  public void remove(final int pKey) {
+    overflow.remove(pKey);
+    int slot = slot(pKey);
+    if (!used[slot]) {
+      return;
+    }
+    used[slot] = false;
+    objects[slot] = null;
+    size--;
+
+    // shift the following entries of the probe sequence back, so that lookups need no tombstones
+    int mask = keys.length - 1;
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (used[next]) {
+      int home = home(keys[next]);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        objects[hole] = objects[next];
+        used[hole] = true;
+        used[next] = false;
+        objects[next] = null;
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+  }
+
+  /**
+   * Renames the symbolic values. When several values are renamed to the same one, the explicit value of the
+   * value which is not renamed wins.
+   */
+  public void rename(final Map<Integer, Integer> pRenaming) {
+    SMGExplicitValueTable renamed = new SMGExplicitValueTable();
+    int[] removed = new int[size];
+    int removedCount = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        Integer newKey = pRenaming.get(keys[i]);
+        if (newKey != null) {
+          renamed.put(newKey, objects[i]);
+          removed[removedCount++] = keys[i];
+        }
+      }
+    }
+    for (Map.Entry<Integer, SMGKnownExpValue> entry : overflow.entrySet()) {
+      Integer newKey = pRenaming.get(entry.getKey());
+      if (newKey != null) {
+        renamed.put(newKey, entry.getValue());
+      }
+    }
+    overflow.keySet().removeAll(pRenaming.keySet());
+    for (int i = 0; i < removedCount; i++) {
+      remove(removed[i]);
+    }
+
+    for (int i = 0; i < renamed.keys.length; i++) {
+      if (renamed.used[i] && !contains(renamed.keys[i])) {
+        put(renamed.keys[i], renamed.objects[i]);
+      }
+    }
+    for (Map.Entry<Integer, SMGKnownExpValue> entry : renamed.overflow.entrySet()) {
+      if (!contains(entry.getKey())) {
+        put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  public int size() {
+    return size + overflow.size();
+  }
+
+  private void grow() {
+    int[] oldKeys = keys;
+    long[] oldValues = values;
+    SMGKnownExpValue[] oldObjects = objects;
+    boolean[] oldUsed = used;
+
+    keys = new int[oldKeys.length * 2];
+    values = new long[oldKeys.length * 2];
+    objects = new SMGKnownExpValue[oldKeys.length * 2];
+    used = new boolean[oldKeys.length * 2];
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int slot = slot(oldKeys[i]);
+        used[slot] = true;
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+        objects[slot] = oldObjects[i];
+      }
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    // a sum over the entries, so that it does not depend on the layout of the table
+    int hash = overflow.hashCode();
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        hash += keys[i] ^ (int) (values[i] ^ (values[i] >>> LONG_HALF));
+      }
+    }
+    return hash;
+  }
+
+  @Override
+  public boolean equals(final Object pOther) {
+    if (!(pOther instanceof SMGExplicitValueTable)) {
+      return false;
+    }
+    SMGExplicitValueTable other = (SMGExplicitValueTable) pOther;
+    if (size != other.size || !overflow.equals(other.overflow)) {
+      return false;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        int otherSlot = other.slot(keys[i]);
+        if (!other.used[otherSlot] || other.values[otherSlot] != values[i]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    Map<Integer, SMGKnownExpValue> map = new HashMap<>(overflow);
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        map.put(keys[i], objects[i]);
+      }
+    }
+    return map.toString();
+  }
+}
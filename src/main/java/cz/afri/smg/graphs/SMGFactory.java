@@ -27,6 +27,10 @@ public final class SMGFactory {
     return new CLangSMG();
   }
 
+  public static WritableSMG createWritableSMG(final SMGContext pContext) {
+    return new CLangSMG(pContext);
+  }
+
   public static WritableSMG createWritableCopy(final ReadableSMG pSMG) {
     if (pSMG instanceof CLangSMG) {
       return new CLangSMG((CLangSMG) pSMG);
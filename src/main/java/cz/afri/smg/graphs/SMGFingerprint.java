@@ -0,0 +1,244 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import cz.afri.smg.graphs.SMGValues.SMGExplicitValue;
+import cz.afri.smg.objects.SMGAbstractObject;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGRegion;
+
+/**
+ * A canonical description of a shape of an SMG. Two SMGs have equal fingerprints if they are isomorphic on the part
+ * reachable from global and stack variables, modulo the names of symbolic values and identities of objects.
+ *
+ * The fingerprint is computed by a breadth-first walk from the variables, visited in a fixed order (globals by name,
+ * stack frames from the bottom, locals by name) and following has-value edges ordered by offset and type. Objects
+ * and values receive canonical identifiers in the order they are reached, the null object and the null value always
+ * get identifier 0.
+ */
+public final class SMGFingerprint {
+  private final List<SMGObject> objects = new ArrayList<>();
+  private final List<Integer> values = new ArrayList<>();
+  private final Map<SMGObject, Integer> objectIds = new HashMap<>();
+  private final Map<Integer, Integer> valueIds = new HashMap<>();
+  private final Queue<SMGObject> workqueue = new ArrayDeque<>();
+  private final StringBuilder builder = new StringBuilder();
+
+  private final String canonicalForm;
+  private final boolean complete;
+
+  public SMGFingerprint(final ReadableSMG pSMG) {
+    objectId(pSMG.getNullObject());
+    valueId(pSMG, pSMG.getNullValue());
+
+    List<String> globalNames = new ArrayList<>(pSMG.getGlobalObjects().keySet());
+    Collections.sort(globalNames);
+    builder.append("G[");
+    for (String name : globalNames) {
+      appendLabel(name);
+      builder.append(objectId(pSMG.getGlobalObjects().get(name))).append(';');
+    }
+    builder.append(']');
+
+    Iterator<CLangStackFrame> frames = pSMG.getStackFrames().descendingIterator();
+    while (frames.hasNext()) {
+      CLangStackFrame frame = frames.next();
+      builder.append("F[");
+      appendLabel(frame.getFunctionDeclaration().getName());
+      List<String> localNames = new ArrayList<>(frame.getVariables().keySet());
+      Collections.sort(localNames);
+      for (String name : localNames) {
+        appendLabel(name);
+        builder.append(objectId(frame.getVariable(name))).append(';');
+      }
+      SMGRegion returnObject = frame.getReturnObject();
+      if (returnObject != null) {
+        builder.append("R").append(objectId(returnObject)).append(';');
+      }
+      builder.append(']');
+    }
+
+    while (!workqueue.isEmpty()) {
+      appendObject(pSMG, workqueue.remove());
+    }
+
+    for (Integer value : new ArrayList<>(values)) {
+      appendRelations(pSMG, value);
+    }
+
+    builder.append("L").append(pSMG.hasMemoryLeaks());
+
+    complete = objects.size() == pSMG.getObjects().size() && values.size() == pSMG.getValues().size();
+    canonicalForm = builder.toString();
+
+    for (SMGObject object : pSMG.getObjects()) {
+      if (!objectIds.containsKey(object)) {
+        objectIds.put(object, objects.size());
+        objects.add(object);
+      }
+    }
+    for (Integer value : pSMG.getValues()) {
+      if (!valueIds.containsKey(value)) {
+        valueIds.put(value, values.size());
+        values.add(value);
+      }
+    }
+  }
+
+  private void appendLabel(final String pLabel) {
+    builder.append(pLabel.length()).append(':').append(pLabel);
+  }
+
+  /**
+   * Concrete objects are described by their label. Abstract objects are described by their string form, which lists
+   * the parameters of their shape.
+   */
+  private static String objectLabel(final SMGObject pObject) {
+    if (pObject instanceof SMGAbstractObject) {
+      return pObject.toString();
+    }
+    return pObject.getLabel();
+  }
+
+  private int objectId(final SMGObject pObject) {
+    Integer id = objectIds.get(pObject);
+    if (id == null) {
+      id = objects.size();
+      objectIds.put(pObject, id);
+      objects.add(pObject);
+      workqueue.add(pObject);
+    }
+    return id;
+  }
+
+  private int valueId(final ReadableSMG pSMG, final Integer pValue) {
+    Integer id = valueIds.get(pValue);
+    if (id == null) {
+      id = values.size();
+      valueIds.put(pValue, id);
+      values.add(pValue);
+      if (pSMG.isPointer(pValue)) {
+        SMGEdgePointsTo pointer = pSMG.getPointer(pValue);
+        builder.append("P").append(id).append("->").append(objectId(pointer.getObject()));
+        builder.append('+').append(pointer.getOffset()).append(';');
+      }
+    }
+    return id;
+  }
+
+  private void appendObject(final ReadableSMG pSMG, final SMGObject pObject) {
+    builder.append("O").append(objectIds.get(pObject)).append('[');
+    appendLabel(objectLabel(pObject));
+    builder.append(pObject.getSize()).append(';');
+    builder.append(pSMG.isHeapObject(pObject)).append(';').append(pSMG.isObjectValid(pObject)).append(';');
+
+    // Fields of an object come sorted
+    for (SMGEdgeHasValue field : pSMG.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pObject))) {
+      builder.append(field.getOffset()).append(':').append(field.getType().getClass().getSimpleName());
+      builder.append(field.getSizeInBytes()).append('=');
+      builder.append(valueId(pSMG, field.getValue())).append(';');
+    }
+    builder.append(']');
+  }
+
+  private void appendRelations(final ReadableSMG pSMG, final Integer pValue) {
+    int id = valueIds.get(pValue);
+    List<Integer> neqs = new ArrayList<>();
+    for (Integer neq : pSMG.getNeqsForValue(pValue)) {
+      Integer neqId = valueIds.get(neq);
+      if (neqId != null && neqId > id) {
+        neqs.add(neqId);
+      }
+    }
+    Collections.sort(neqs);
+    for (Integer neqId : neqs) {
+      builder.append("N").append(id).append("!=").append(neqId).append(';');
+    }
+
+    SMGExplicitValue explicit = pSMG.getExplicit(pValue);
+    if (!explicit.isUnknown()) {
+      builder.append("E").append(id).append('=').append(explicit.getValue()).append(';');
+    }
+  }
+
+  /**
+   * @return True if every object and value of the SMG was reached from the variables, i.e. if the fingerprint
+   * describes the whole SMG and not only its reachable part.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * @return Objects of the SMG in the canonical order. Objects not reachable from variables come last, in
+   * no particular order.
+   */
+  public List<SMGObject> getObjects() {
+    return Collections.unmodifiableList(objects);
+  }
+
+  /**
+   * @return Values of the SMG in the canonical order. Values not reachable from variables come last, in
+   * no particular order.
+   */
+  public List<Integer> getValues() {
+    return Collections.unmodifiableList(values);
+  }
+
+  public int getObjectId(final SMGObject pObject) {
+    return objectIds.get(pObject);
+  }
+
+  public int getValueId(final Integer pValue) {
+    return valueIds.get(pValue);
+  }
+
+  @Override
+  public int hashCode() {
+    return canonicalForm.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object pOther) {
+    if (this == pOther) {
+      return true;
+    }
+    if (!(pOther instanceof SMGFingerprint)) {
+      return false;
+    }
+    return canonicalForm.equals(((SMGFingerprint) pOther).canonicalForm);
+  }
+
+  @Override
+  public String toString() {
+    return canonicalForm;
+  }
+}
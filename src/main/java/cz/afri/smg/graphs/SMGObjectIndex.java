@@ -0,0 +1,117 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.util.HashMap;
+
+import cz.afri.smg.objects.SMGObject;
+
+/**
+ * Index from objects to mutable per-object data, shared by copies of an SMG. A copy shares the data of all the
+ * objects with the original, and the data of an object is copied only when one of them first changes it, so
+ * copying an SMG costs a single map copy regardless of how much data the objects have.
+ *
+ * Each piece of data is tagged with the owner token of the index which created it, and only the data with the
+ * current token of the index may be changed in place. Copying gives the original a new token, so neither of
+ * them owns the shared data anymore.
+ *
+ * @param <V> Type of the per-object data
+ */
+final class SMGObjectIndex<V> {
+  /**
+   * Creates and copies the per-object data of an index.
+   */
+  interface Factory<V> {
+    V create();
+
+    V copy(V pData);
+  }
+
+  private static final class Entry<V> {
+    private final Object owner;
+    private final V data;
+
+    private Entry(final Object pOwner, final V pData) {
+      owner = pOwner;
+      data = pData;
+    }
+  }
+
+  private final Factory<V> factory;
+  private final HashMap<SMGObject, Entry<V>> entries;
+  private volatile Object owner = new Object();
+
+  public SMGObjectIndex(final Factory<V> pFactory) {
+    factory = pFactory;
+    entries = new HashMap<>();
+  }
+
+  public SMGObjectIndex(final SMGObjectIndex<V> pIndex) {
+    factory = pIndex.factory;
+    entries = new HashMap<>(pIndex.entries);
+    pIndex.owner = new Object();
+  }
+
+  /**
+   * @return Data of {@link pObject}, which must not be changed, or null if the object has none
+   */
+  public V get(final SMGObject pObject) {
+    Entry<V> entry = entries.get(pObject);
+    if (entry == null) {
+      return null;
+    }
+    return entry.data;
+  }
+
+  /**
+   * @return Data of {@link pObject} which may be changed in place, created if the object has none yet
+   */
+  public V getWritable(final SMGObject pObject) {
+    Object currentOwner = owner;
+    Entry<V> entry = entries.get(pObject);
+    if (entry == null) {
+      entry = new Entry<>(currentOwner, factory.create());
+      entries.put(pObject, entry);
+    } else if (entry.owner != currentOwner) {
+      entry = new Entry<>(currentOwner, factory.copy(entry.data));
+      entries.put(pObject, entry);
+    }
+    return entry.data;
+  }
+
+  /**
+   * Removes the data of {@link pObject}.
+   *
+   * @return The removed data, which must not be changed, or null if the object had none
+   */
+  public V remove(final SMGObject pObject) {
+    Entry<V> entry = entries.remove(pObject);
+    if (entry == null) {
+      return null;
+    }
+    return entry.data;
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+}
@@ -32,20 +32,19 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 
 import cz.afri.smg.graphs.SMGValues.SMGExplicitValue;
-import cz.afri.smg.graphs.SMGValues.SMGKnownSymValue;
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.objects.SMGObjectVisitor;
 import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.objects.dll.SMGDoublyLinkedList;
 import cz.afri.smg.objects.sll.SMGSingleLinkedList;
 import cz.afri.smg.objects.tree.SimpleBinaryTree;
 
 final class SMGObjectNode {
   private final String name;
   private final String definition;
-  private static int counter = 0;
 
-  public SMGObjectNode(final String pType, final String pDefinition) {
-    name = "node_" + pType + "_" + counter++;
+  public SMGObjectNode(final String pType, final String pDefinition, final int pIndex) {
+    name = "node_" + pType + "_" + pIndex;
     definition = pDefinition;
   }
 
@@ -66,9 +65,15 @@ final class SMGObjectNode {
 class SMGNodeDotVisitor extends SMGObjectVisitor {
   private final ReadableSMG smg;
   private SMGObjectNode node = null;
+  private int nodes;
 
-  public SMGNodeDotVisitor(final ReadableSMG pSmg) {
+  /**
+   * @param pSmg Plotted SMG
+   * @param pFirstIndex Index of the first node created by the visitor
+   */
+  public SMGNodeDotVisitor(final ReadableSMG pSmg, final int pFirstIndex) {
     smg = pSmg;
+    nodes = pFirstIndex;
   }
 
   private String defaultDefinition(final String pColor, final String pShape, final String pStyle,
@@ -87,7 +92,7 @@ class SMGNodeDotVisitor extends SMGObjectVisitor {
       color = "red"; style = "dotted";
     }
 
-    node = new SMGObjectNode("region", defaultDefinition(color, shape, style, pRegion));
+    node = new SMGObjectNode("region", defaultDefinition(color, shape, style, pRegion), nodes++);
   }
 
   @Override
@@ -96,7 +101,16 @@ class SMGNodeDotVisitor extends SMGObjectVisitor {
     String color = "blue";
 
     String style = "dashed";
-    node = new SMGObjectNode("sll", defaultDefinition(color, shape, style, pSll));
+    node = new SMGObjectNode("sll", defaultDefinition(color, shape, style, pSll), nodes++);
+  }
+
+  @Override
+  public void visit(final SMGDoublyLinkedList pDll) {
+    String shape = "rectangle";
+    String color = "blue";
+
+    String style = "dashed";
+    node = new SMGObjectNode("dll", defaultDefinition(color, shape, style, pDll), nodes++);
   }
 
   @Override
@@ -105,7 +119,7 @@ class SMGNodeDotVisitor extends SMGObjectVisitor {
     String color = "green";
 
     String style = "dashed";
-    node = new SMGObjectNode("tree", defaultDefinition(color, shape, style, pTree));
+    node = new SMGObjectNode("tree", defaultDefinition(color, shape, style, pTree), nodes++);
   }
 
   @Override
@@ -120,6 +134,13 @@ class SMGNodeDotVisitor extends SMGObjectVisitor {
   public SMGObjectNode getNode() {
     return node;
   }
+
+  /**
+   * @return Index of the next node the visitor would create
+   */
+  public int getNextIndex() {
+    return nodes;
+  }
 }
 
 public final class SMGPlotter {
@@ -131,9 +152,15 @@ public final class SMGPlotter {
   }
 
   private final HashMap <SMGObject, SMGObjectNode> objectIndex = new HashMap<>();
-  private static int nulls = 0;
+  private int nulls = 0;
   private int offset = 0;
 
+  /**
+   * Index of the next object node. Nodes are kept in {@link #objectIndex} across plots, so the index continues
+   * across plots too, keeping node names unique.
+   */
+  private int nextNode = 0;
+
   public SMGPlotter() { } /* utility class */
 
   public static String convertToValidDot(final String original) {
@@ -149,7 +176,7 @@ public final class SMGPlotter {
 
     addStackSubgraph(smg, sb);
 
-    SMGNodeDotVisitor visitor = new SMGNodeDotVisitor(smg);
+    SMGNodeDotVisitor visitor = new SMGNodeDotVisitor(smg, nextNode);
 
     for (SMGObject heapObject : smg.getHeapObjects()) {
       if (!objectIndex.containsKey(heapObject)) {
@@ -160,12 +187,13 @@ public final class SMGPlotter {
         sb.append(newLineWithOffset(objectIndex.get(heapObject).getDefinition()));
       }
     }
+    nextNode = visitor.getNextIndex();
 
     addGlobalObjectSubgraph(smg, sb);
 
     for (Integer value : smg.getValues()) {
       if (value != smg.getNullValue()) {
-        SMGExplicitValue explicitValue = smg.getExplicit(SMGKnownSymValue.valueOf(value));
+        SMGExplicitValue explicitValue = smg.getExplicit(value);
         String explicitValueString;
         if (explicitValue.isUnknown()) {
           explicitValueString = "";
@@ -261,9 +289,9 @@ public final class SMGPlotter {
     }
   }
 
-  private static String newNullLabel() {
-    SMGPlotter.nulls += 1;
-    return "value_null_" + SMGPlotter.nulls;
+  private String newNullLabel() {
+    nulls += 1;
+    return "value_null_" + nulls;
   }
 
   private String smgHVEdgeAsDot(final SMGEdgeHasValue pEdge) {
@@ -287,7 +315,7 @@ public final class SMGPlotter {
   }
 
   @SuppressWarnings("unused")
-  private static String neqRelationAsDot(final Integer v1, final Integer v2) {
+  private String neqRelationAsDot(final Integer v1, final Integer v2) {
     String targetNode;
     String returnString = "";
     if (v2.equals(0)) {
@@ -0,0 +1,93 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free source of fresh symbolic values. Each thread reserves a block of values from a shared atomic range
+ * and hands them out without further synchronization, so parallel joins and abstractions do not contend on a
+ * single counter. Values from one allocator are unique, but not necessarily increasing across threads.
+ *
+ * A separate allocator is a separate value namespace: values are only guaranteed to be unique among the values
+ * allocated by the same allocator, so SMGs using different namespaces must not be joined.
+ *
+ * Allocated values start at {@link #FIRST_VALUE}. The values below are left for {@link WritableSMG#compactValues()},
+ * so that a compacted SMG can receive fresh values without clashes.
+ */
+public final class SMGValueAllocator {
+  public static final int DEFAULT_BLOCK_SIZE = 256;
+
+  private static final int COMPACTED_VALUE_BITS = 20;
+
+  /**
+   * Compacted values are numbered densely from 0, so they stay below this bound unless an SMG has over a million
+   * values, which {@link WritableSMG#compactValues()} refuses. The rest of the positive range is left for
+   * allocation.
+   */
+  public static final int FIRST_VALUE = 1 << COMPACTED_VALUE_BITS;
+
+  private static final class Block {
+    private int next = 0;
+    private int end = 0;
+  }
+
+  private final AtomicInteger unreserved;
+  private final int blockSize;
+  private final ThreadLocal<Block> blocks = new ThreadLocal<Block>() {
+    @Override
+    protected Block initialValue() {
+      return new Block();
+    }
+  };
+
+  public SMGValueAllocator() {
+    this(DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * @param pBlockSize Number of values reserved by a thread at once
+   */
+  public SMGValueAllocator(final int pBlockSize) {
+    if (pBlockSize < 1) {
+      throw new IllegalArgumentException("Block size must be positive: " + pBlockSize);
+    }
+    blockSize = pBlockSize;
+    unreserved = new AtomicInteger(FIRST_VALUE);
+  }
+
+  /**
+   * @return a fresh symbolic value
+   */
+  public Integer getNewValue() {
+    Block block = blocks.get();
+    if (block.next == block.end) {
+      int start = unreserved.getAndAdd(blockSize);
+      if (start < FIRST_VALUE || start + blockSize < start) {
+        throw new IllegalStateException("Symbolic values exhausted");
+      }
+      block.next = start;
+      block.end = start + blockSize;
+    }
+    return Integer.valueOf(block.next++);
+  }
+}
@@ -23,12 +23,12 @@ package cz.afri.smg.graphs;
 
 
 public final class SMGValueFactory {
-  private static int counter = 0;
-
+  /**
+   * @return a fresh symbolic value from the namespace of the default context
+   */
   public static Integer getNewValue() {
-    counter++;
-    return Integer.valueOf(counter);
+    return SMGContext.getDefault().getNewValue();
   }
 
   private SMGValueFactory() { };
-}
\ No newline at end of file
+}
@@ -26,6 +26,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.math.BigInteger;
 
+import com.google.common.math.LongMath;
+
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.types.CType;
 
@@ -78,21 +80,36 @@ public class SMGValues {
   abstract static class SMGKnownValue {
 
     /**
-     * A symbolic value representing an explicit value.
+     * Bounds of the range of small values which valueOf() does not allocate.
+     */
+    static final int CACHE_LOW = -128;
+    static final int CACHE_HIGH = 1024;
+
+    /**
+     * A symbolic value representing an explicit value. Values fitting into a long are kept in
+     * {@link #longValue}, {@link #bigValue} is used only for the others and is null otherwise.
      */
-    private final BigInteger value;
+    private final long longValue;
+    private final BigInteger bigValue;
 
     private SMGKnownValue(final BigInteger pValue) {
       checkNotNull(pValue);
-      value = pValue;
+      if (pValue.bitLength() < Long.SIZE) {
+        longValue = pValue.longValue();
+        bigValue = null;
+      } else {
+        longValue = 0;
+        bigValue = pValue;
+      }
     }
 
     private SMGKnownValue(final long pValue) {
-      value = BigInteger.valueOf(pValue);
+      longValue = pValue;
+      bigValue = null;
     }
 
     private SMGKnownValue(final int pValue) {
-      value = BigInteger.valueOf(pValue);
+      this((long) pValue);
     }
 
     @Override
@@ -108,7 +125,10 @@ public class SMGValues {
 
       SMGKnownValue otherValue = (SMGKnownValue) pObj;
 
-      return value.equals(otherValue.value);
+      if (bigValue == null) {
+        return otherValue.bigValue == null && longValue == otherValue.longValue;
+      }
+      return bigValue.equals(otherValue.bigValue);
     }
 
     @Override
@@ -117,26 +137,47 @@ public class SMGValues {
 
       int result = 5;
 
-      int c = value.hashCode();
+      int c;
+      if (bigValue == null) {
+        c = (int) (longValue ^ (longValue >>> 32));
+      } else {
+        c = bigValue.hashCode();
+      }
 
       return result * 31 + c;
     }
 
+    final boolean fitsLong() {
+      return bigValue == null;
+    }
+
     public final BigInteger getValue() {
-      return value;
+      if (bigValue == null) {
+        return BigInteger.valueOf(longValue);
+      }
+      return bigValue;
     }
 
     public final int getAsInt() {
-      return value.intValue();
+      if (bigValue == null) {
+        return (int) longValue;
+      }
+      return bigValue.intValue();
     }
 
     public final long getAsLong() {
-      return value.longValue();
+      if (bigValue == null) {
+        return longValue;
+      }
+      return bigValue.longValue();
     }
 
     @Override
     public String toString() {
-      return value.toString();
+      if (bigValue == null) {
+        return Long.toString(longValue);
+      }
+      return bigValue.toString();
     }
 
     public boolean isUnknown() {
@@ -146,51 +187,52 @@ public class SMGValues {
 
   public static class SMGKnownSymValue  extends SMGKnownValue implements SMGSymbolicValue {
 
-    public static final SMGKnownSymValue ZERO = new SMGKnownSymValue(BigInteger.ZERO);
+    public static final SMGKnownSymValue ZERO = new SMGKnownSymValue(0);
 
-    public static final SMGKnownSymValue ONE = new SMGKnownSymValue(BigInteger.ONE);
+    public static final SMGKnownSymValue ONE = new SMGKnownSymValue(1);
 
-    public static final SMGKnownSymValue TRUE = new SMGKnownSymValue(BigInteger.valueOf(-1));
+    public static final SMGKnownSymValue TRUE = new SMGKnownSymValue(-1);
 
     public static final SMGKnownSymValue FALSE = ZERO;
 
+    private static final SMGKnownSymValue[] CACHE = new SMGKnownSymValue[CACHE_HIGH - CACHE_LOW];
+
+    static {
+      for (int i = CACHE_LOW; i < CACHE_HIGH; i++) {
+        CACHE[i - CACHE_LOW] = new SMGKnownSymValue(i);
+      }
+      CACHE[-CACHE_LOW] = ZERO;
+      CACHE[1 - CACHE_LOW] = ONE;
+      CACHE[-1 - CACHE_LOW] = TRUE;
+    }
+
     protected SMGKnownSymValue(final BigInteger pValue) {
       super(pValue);
     }
 
-    public static SMGKnownSymValue valueOf(final int pValue) {
+    protected SMGKnownSymValue(final long pValue) {
+      super(pValue);
+    }
 
-      if (pValue == 0) {
-        return ZERO;
-      } else if (pValue == 1) {
-        return ONE;
-      } else {
-        return new SMGKnownSymValue(BigInteger.valueOf(pValue));
-      }
+    public static SMGKnownSymValue valueOf(final int pValue) {
+      return valueOf((long) pValue);
     }
 
     public static SMGKnownSymValue valueOf(final long pValue) {
-
-      if (pValue == 0) {
-        return ZERO;
-      } else if (pValue == 1) {
-        return ONE;
-      } else {
-        return new SMGKnownSymValue(BigInteger.valueOf(pValue));
+      if (pValue >= CACHE_LOW && pValue < CACHE_HIGH) {
+        return CACHE[(int) pValue - CACHE_LOW];
       }
+      return new SMGKnownSymValue(pValue);
     }
 
     public static SMGKnownSymValue valueOf(final BigInteger pValue) {
 
       checkNotNull(pValue);
 
-      if (pValue.equals(BigInteger.ZERO)) {
-        return ZERO;
-      } else if (pValue.equals(BigInteger.ONE)) {
-        return ONE;
-      } else {
-        return new SMGKnownSymValue(pValue);
+      if (pValue.bitLength() < Long.SIZE) {
+        return valueOf(pValue.longValue());
       }
+      return new SMGKnownSymValue(pValue);
     }
 
     @Override
@@ -216,14 +258,28 @@ public class SMGValues {
 
   public static final class SMGKnownExpValue extends SMGKnownValue implements SMGExplicitValue {
 
-    public static final SMGKnownExpValue ONE = new SMGKnownExpValue(BigInteger.ONE);
+    public static final SMGKnownExpValue ONE = new SMGKnownExpValue(1);
+
+    public static final SMGKnownExpValue ZERO = new SMGKnownExpValue(0);
 
-    public static final SMGKnownExpValue ZERO = new SMGKnownExpValue(BigInteger.ZERO);
+    private static final SMGKnownExpValue[] CACHE = new SMGKnownExpValue[CACHE_HIGH - CACHE_LOW];
+
+    static {
+      for (int i = CACHE_LOW; i < CACHE_HIGH; i++) {
+        CACHE[i - CACHE_LOW] = new SMGKnownExpValue(i);
+      }
+      CACHE[-CACHE_LOW] = ZERO;
+      CACHE[1 - CACHE_LOW] = ONE;
+    }
 
     private SMGKnownExpValue(final BigInteger pValue) {
       super(pValue);
     }
 
+    private SMGKnownExpValue(final long pValue) {
+      super(pValue);
+    }
+
     @Override
     public boolean equals(final Object pObj) {
       if (!(pObj instanceof SMGKnownExpValue)) {
@@ -244,8 +300,19 @@ public class SMGValues {
       return result;
     }
 
+    /**
+     * @return True if both this value and {@link pRVal} are known values fitting into a long, i.e. if an
+     * operation on them can take the long fast path.
+     */
+    private boolean fitsLongWith(final SMGExplicitValue pRVal) {
+      return fitsLong() && pRVal instanceof SMGKnownExpValue && ((SMGKnownExpValue) pRVal).fitsLong();
+    }
+
     @Override
     public SMGExplicitValue negate() {
+      if (fitsLong() && getAsLong() != Long.MIN_VALUE) {
+        return valueOf(-getAsLong());
+      }
       return valueOf(getValue().negate());
     }
 
@@ -256,6 +323,9 @@ public class SMGValues {
         return SMGUnknownValue.getInstance();
       }
 
+      if (fitsLongWith(pRVal)) {
+        return valueOf(getAsLong() ^ pRVal.getAsLong());
+      }
       return valueOf(getValue().xor(pRVal.getValue()));
     }
 
@@ -266,6 +336,9 @@ public class SMGValues {
         return SMGUnknownValue.getInstance();
       }
 
+      if (fitsLongWith(pRVal)) {
+        return valueOf(getAsLong() | pRVal.getAsLong());
+      }
       return valueOf(getValue().or(pRVal.getValue()));
     }
 
@@ -276,6 +349,9 @@ public class SMGValues {
         return SMGUnknownValue.getInstance();
       }
 
+      if (fitsLongWith(pRVal)) {
+        return valueOf(getAsLong() & pRVal.getAsLong());
+      }
       return valueOf(getValue().and(pRVal.getValue()));
     }
 
@@ -286,7 +362,14 @@ public class SMGValues {
         return SMGUnknownValue.getInstance();
       }
 
-      return valueOf(getValue().shiftLeft(pRVal.getAsInt()));
+      int shift = pRVal.getAsInt();
+      if (fitsLong() && shift >= 0 && shift < Long.SIZE) {
+        long shifted = getAsLong() << shift;
+        if (shifted >> shift == getAsLong()) {
+          return valueOf(shifted);
+        }
+      }
+      return valueOf(getValue().shiftLeft(shift));
     }
 
     @Override
@@ -296,6 +379,14 @@ public class SMGValues {
         return SMGUnknownValue.getInstance();
       }
 
+      if (fitsLongWith(pRVal)) {
+        try {
+          return valueOf(LongMath.checkedMultiply(getAsLong(), pRVal.getAsLong()));
+        } catch (ArithmeticException e) {
+          // overflow, fall back to BigInteger
+          return valueOf(getValue().multiply(pRVal.getValue()));
+        }
+      }
       return valueOf(getValue().multiply(pRVal.getValue()));
     }
 
@@ -306,6 +397,11 @@ public class SMGValues {
         return SMGUnknownValue.getInstance();
       }
 
+      // Long.MIN_VALUE / -1 overflows, division by zero throws from BigInteger as before
+      if (fitsLongWith(pRVal) && pRVal.getAsLong() != 0 &&
+          (getAsLong() != Long.MIN_VALUE || pRVal.getAsLong() != -1)) {
+        return valueOf(getAsLong() / pRVal.getAsLong());
+      }
       return valueOf(getValue().divide(pRVal.getValue()));
     }
 
@@ -316,6 +412,14 @@ public class SMGValues {
         return SMGUnknownValue.getInstance();
       }
 
+      if (fitsLongWith(pRVal)) {
+        try {
+          return valueOf(LongMath.checkedSubtract(getAsLong(), pRVal.getAsLong()));
+        } catch (ArithmeticException e) {
+          // overflow, fall back to BigInteger
+          return valueOf(getValue().subtract(pRVal.getValue()));
+        }
+      }
       return valueOf(getValue().subtract(pRVal.getValue()));
     }
 
@@ -326,42 +430,36 @@ public class SMGValues {
         return SMGUnknownValue.getInstance();
       }
 
+      if (fitsLongWith(pRVal)) {
+        try {
+          return valueOf(LongMath.checkedAdd(getAsLong(), pRVal.getAsLong()));
+        } catch (ArithmeticException e) {
+          // overflow, fall back to BigInteger
+          return valueOf(getValue().add(pRVal.getValue()));
+        }
+      }
       return valueOf(getValue().add(pRVal.getValue()));
     }
 
     public static SMGKnownExpValue valueOf(final int pValue) {
-
-      if (pValue == 0) {
-        return ZERO;
-      } else if (pValue == 1) {
-        return ONE;
-      } else {
-        return new SMGKnownExpValue(BigInteger.valueOf(pValue));
-      }
+      return valueOf((long) pValue);
     }
 
     public static SMGKnownExpValue valueOf(final long pValue) {
-
-      if (pValue == 0) {
-        return ZERO;
-      } else if (pValue == 1) {
-        return ONE;
-      } else {
-        return new SMGKnownExpValue(BigInteger.valueOf(pValue));
+      if (pValue >= CACHE_LOW && pValue < CACHE_HIGH) {
+        return CACHE[(int) pValue - CACHE_LOW];
       }
+      return new SMGKnownExpValue(pValue);
     }
 
     public static SMGKnownExpValue valueOf(final BigInteger pValue) {
 
       checkNotNull(pValue);
 
-      if (pValue.equals(BigInteger.ZERO)) {
-        return ZERO;
-      } else if (pValue.equals(BigInteger.ONE)) {
-        return ONE;
-      } else {
-        return new SMGKnownExpValue(pValue);
+      if (pValue.bitLength() < Long.SIZE) {
+        return valueOf(pValue.longValue());
       }
+      return new SMGKnownExpValue(pValue);
     }
   }
 
@@ -21,6 +21,7 @@
  */
 package cz.afri.smg.graphs;
 
+import java.util.Map;
 import java.util.Set;
 
 import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
@@ -183,6 +184,29 @@ public interface WritableSMG extends ReadableSMG {
    */
   void mergeValues(int pOp1, int pOp2);
 
+  /**
+   * Replaces the values merged by {@link #mergeValues(int, int)} everywhere in the SMG. This happens
+   * automatically before the SMG is next modified or copied. Reads do not normalize the SMG and see it as it was
+   * before the merges, so an SMG with merged values must be normalized before it is handed out for reading.
+   */
+  void normalize();
+
+  /**
+   * Renames symbolic values in the SMG. Values not present in the mapping keep their names.
+   *
+   * @param pRenaming
+   *          mapping from old values to new values
+   */
+  void renameValues(Map<Integer, Integer> pRenaming);
+
+  /**
+   * Renumbers the values of the SMG densely: the values get the numbers 0..n-1 in the canonical order given by
+   * {@link SMGFingerprint}, so that SMGs with the same shape end up with identical values.
+   *
+   * @return mapping from old values to new values
+   */
+  Map<Integer, Integer> compactValues();
+
   /**
    * Clears an explicit value for a symbolic value
    *
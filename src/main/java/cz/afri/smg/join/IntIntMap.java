@@ -0,0 +1,163 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+/**
+ * A hash map from primitive ints to primitive ints, using open addressing with linear probing. Entries cannot be
+ * removed, which is all the join needs and keeps probing simple.
+ */
+final class IntIntMap {
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+  private int[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int size = 0;
+
+  public IntIntMap() {
+    keys = new int[INITIAL_CAPACITY];
+    values = new int[INITIAL_CAPACITY];
+    used = new boolean[INITIAL_CAPACITY];
+  }
+
+  public IntIntMap(final IntIntMap pOrigin) {
+    keys = pOrigin.keys.clone();
+    values = pOrigin.values.clone();
+    used = pOrigin.used.clone();
+    size = pOrigin.size;
+  }
+
+  private int slot(final int pKey) {
+    int mask = keys.length - 1;
+    int slot = ((pKey * HASH_MULTIPLIER) >>> Integer.numberOfLeadingZeros(mask)) & mask;
+    while (used[slot] && keys[slot] != pKey) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  public boolean containsKey(final int pKey) {
+    return used[slot(pKey)];
+  }
+
+  /**
+   * @return The value mapped to {@link pKey}, or null if there is none
+   */
+  public Integer get(final int pKey) {
+    int slot = slot(pKey);
+    if (used[slot]) {
+      return values[slot];
+    }
+    return null;
+  }
+
+  public int get(final int pKey, final int pDefault) {
+    int slot = slot(pKey);
+    if (used[slot]) {
+      return values[slot];
+    }
+    return pDefault;
+  }
+
+  public void put(final int pKey, final int pValue) {
+    int slot = slot(pKey);
+    if (!used[slot]) {
+      used[slot] = true;
+      keys[slot] = pKey;
+      size++;
+    }
+    values[slot] = pValue;
+
+    if (2 * size > keys.length) {
+      grow();
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void grow() {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+
+    keys = new int[oldKeys.length * 2];
+    values = new int[oldKeys.length * 2];
+    used = new boolean[oldKeys.length * 2];
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int slot = slot(oldKeys[i]);
+        used[slot] = true;
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        hash += keys[i] ^ values[i];
+      }
+    }
+    return hash;
+  }
+
+  @Override
+  public boolean equals(final Object pOther) {
+    if (!(pOther instanceof IntIntMap)) {
+      return false;
+    }
+    IntIntMap other = (IntIntMap) pOther;
+    if (size != other.size) {
+      return false;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        int slot = other.slot(keys[i]);
+        if (!other.used[slot] || other.values[slot] != values[i]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("{");
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        if (builder.length() > 1) {
+          builder.append(", ");
+        }
+        builder.append(keys[i]).append('=').append(values[i]);
+      }
+    }
+    return builder.append('}').toString();
+  }
+}
@@ -22,35 +22,104 @@
 package cz.afri.smg.join;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import cz.afri.smg.graphs.CLangStackFrame;
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGContext;
 import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGValues.SMGExplicitValue;
+import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
+import cz.afri.smg.graphs.SMGValues.SMGKnownSymValue;
 import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.join.SMGJoinMetrics.Failure;
+import cz.afri.smg.join.SMGJoinMetrics.Phase;
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.objects.SMGRegion;
 import cz.afri.smg.types.CType;
 
 public final class SMGJoin {
-  public static void performChecks(final boolean pOn) {
-    SMGJoinSubSMGs.performChecks(pOn);
-  }
-
   private boolean defined = false;
   private SMGJoinStatus status = SMGJoinStatus.EQUAL;
   private final WritableSMG smg;
 
+  /**
+   * @deprecated Use a context with join checks, see {@link SMGContext#withJoinChecks(boolean)}. This method
+   * changes the default context, so it only affects joins of SMGs created afterwards without an explicit context.
+   */
+  @Deprecated
+  public static void performChecks(final boolean pOn) {
+    SMGContext.setDefault(SMGContext.getDefault().withJoinChecks(pOn));
+  }
+
   public SMGJoin(final ReadableSMG pSMG1, final ReadableSMG pSMG2) {
-    ReadableSMG opSMG1 = SMGFactory.createWritableCopy(pSMG1);
-    ReadableSMG opSMG2 = SMGFactory.createWritableCopy(pSMG2);
-    smg = SMGFactory.createWritableSMG();
+    this(pSMG1, pSMG2, null, SMGBudget.unlimited());
+  }
+
+  public SMGJoin(final ReadableSMG pSMG1, final ReadableSMG pSMG2, final ExecutorService pExecutor) {
+    this(pSMG1, pSMG2, pExecutor, SMGBudget.unlimited());
+  }
+
+  public SMGJoin(final ReadableSMG pSMG1, final ReadableSMG pSMG2, final SMGBudget pBudget) {
+    this(pSMG1, pSMG2, null, pBudget);
+  }
+
+  public SMGJoin(final ReadableSMG pSMG1, final ReadableSMG pSMG2, final ExecutorService pExecutor,
+                 final SMGBudget pBudget) {
+    this(pSMG1, pSMG2, pExecutor, pBudget, null);
+  }
+
+  /**
+   * Joins two SMGs. If an executor is given, sub-SMGs reachable from disjoint groups of variables are joined
+   * concurrently using the executor. If the budget runs out before the join is finished, the join is undefined
+   * and its status is {@link SMGJoinStatus#INCOMPLETE}.
+   *
+   * @param pSMG1 First SMG to join
+   * @param pSMG2 Second SMG to join
+   * @param pExecutor Executor for joining independent sub-SMGs, or null for a sequential join
+   * @param pBudget Budget limiting the work done by the join
+   * @param pMetrics Metrics to report the progress of the join to, or null for the metrics of the context of the
+   *                 first SMG
+   */
+  public SMGJoin(final ReadableSMG pSMG1, final ReadableSMG pSMG2, final ExecutorService pExecutor,
+                 final SMGBudget pBudget, final SMGJoinMetrics pMetrics) {
+    SMGContext context = pSMG1.getContext();
+    smg = SMGFactory.createWritableSMG(context);
+    SMGJoinMetrics metrics = pMetrics;
+    if (metrics == null) {
+      metrics = context.getJoinMetrics();
+    }
+    SMGJoinRun run = new SMGJoinRun(pBudget, metrics, context.performJoinChecks());
+    if (!run.step()) {
+      status = SMGJoinStatus.INCOMPLETE;
+      run.failed(Failure.BUDGET_EXHAUSTED);
+      return;
+    }
+
+    long copyStart = run.startPhase();
+    WritableSMG opSMG1 = SMGFactory.createWritableCopy(pSMG1);
+    WritableSMG opSMG2 = SMGFactory.createWritableCopy(pSMG2);
+    run.finishPhase(Phase.COPY, copyStart);
 
     SMGNodeMapping mapping1 = new SMGNodeMapping();
     SMGNodeMapping mapping2 = new SMGNodeMapping();
@@ -73,12 +142,14 @@ public final class SMGJoin {
         // does not, then one SMG will have that global and the other one won't.
         // TODO: We could actually just add that object, as that should not influence the result of
         // the join. For now, we will treat this situation as unjoinable.
+        run.failed(Failure.MISSING_GLOBAL);
         return;
       }
       SMGRegion finalObject = smg.addGlobalVariable(CType.createTypeWithLength(globalInSMG1.getSize()),
                                                     globalInSMG1.getLabel());
       mapping1.map(globalInSMG1, finalObject);
       mapping2.map(globalInSMG2, finalObject);
+      run.objectMapped();
     }
 
     Iterator<CLangStackFrame> smg1stackIterator = stackInSmg1.descendingIterator();
@@ -96,6 +167,7 @@ public final class SMGJoin {
 
       for (String localVar : localVars) {
         if ((!frameInSMG1.containsVariable(localVar)) || (!frameInSMG2.containsVariable(localVar))) {
+          run.failed(Failure.MISSING_LOCAL);
           return;
         }
         SMGRegion localInSMG1 = frameInSMG1.getVariable(localVar);
@@ -105,19 +177,15 @@ public final class SMGJoin {
 
         mapping1.map(localInSMG1, finalObject);
         mapping2.map(localInSMG2, finalObject);
+        run.objectMapped();
       }
     }
 
+    List<SMGJoinRoot> roots = new ArrayList<>();
     for (Entry<String, SMGRegion> entry : globalsInSmg1.entrySet()) {
       SMGObject globalInSMG1 = entry.getValue();
       SMGObject globalInSMG2 = globalsInSmg2.get(entry.getKey());
-      SMGObject destinationGlobal = mapping1.get(globalInSMG1);
-      SMGJoinSubSMGs jss = new SMGJoinSubSMGs(status, opSMG1, opSMG2, smg, mapping1, mapping2, globalInSMG1,
-                                              globalInSMG2, destinationGlobal);
-      if (!jss.isDefined()) {
-        return;
-      }
-      status = jss.getStatus();
+      roots.add(new SMGJoinRoot(globalInSMG1, globalInSMG2, mapping1.get(globalInSMG1)));
     }
 
     smg1stackIterator = stackInSmg1.iterator();
@@ -130,19 +198,120 @@ public final class SMGJoin {
       for (String localVar : frameInSMG1.getVariables().keySet()) {
         SMGObject localInSMG1 = frameInSMG1.getVariable(localVar);
         SMGObject localInSMG2 = frameInSMG2.getVariable(localVar);
-        SMGObject destinationLocal = mapping1.get(localInSMG1);
-        SMGJoinSubSMGs jss = new SMGJoinSubSMGs(status, opSMG1, opSMG2, smg, mapping1, mapping2, localInSMG1,
-                                                localInSMG2, destinationLocal);
-        if (!jss.isDefined()) {
-          return;
+        roots.add(new SMGJoinRoot(localInSMG1, localInSMG2, mapping1.get(localInSMG1)));
+      }
+    }
+
+    if (pExecutor == null) {
+      defined = joinRoots(opSMG1, opSMG2, smg, mapping1, mapping2, roots, run);
+    } else {
+      defined = joinRootsInParallel(opSMG1, opSMG2, mapping1, mapping2, roots, pExecutor, run);
+    }
+
+    if (!defined && run.isExhausted()) {
+      status = SMGJoinStatus.INCOMPLETE;
+      run.failed(Failure.BUDGET_EXHAUSTED);
+    }
+  }
+
+  private boolean joinRoots(final ReadableSMG pSMG1, final ReadableSMG pSMG2, final WritableSMG pDestSMG,
+                            final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
+                            final List<SMGJoinRoot> pRoots, final SMGJoinRun pRun) {
+    for (SMGJoinRoot root : pRoots) {
+      SMGJoinSubSMGs jss = new SMGJoinSubSMGs(status, pSMG1, pSMG2, pDestSMG, pMapping1, pMapping2,
+                                              root.getObject1(), root.getObject2(), root.getDestObject(), pRun);
+      if (!jss.isDefined()) {
+        return false;
+      }
+      status = jss.getStatus();
+    }
+    return true;
+  }
+
+  /**
+   * Joins groups of roots which share no reachable nodes concurrently. Each group is joined into its own fragment
+   * with its own copy of the mappings, and the fragments are merged into the destination SMG afterwards.
+   */
+  private boolean joinRootsInParallel(final ReadableSMG pSMG1, final ReadableSMG pSMG2,
+                                      final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
+                                      final List<SMGJoinRoot> pRoots, final ExecutorService pExecutor,
+                                      final SMGJoinRun pRun) {
+    List<List<SMGJoinRoot>> groups = SMGJoinRoot.partition(pSMG1, pSMG2, pRoots);
+    if (groups.size() < 2) {
+      return joinRoots(pSMG1, pSMG2, smg, pMapping1, pMapping2, pRoots, pRun);
+    }
+
+    List<Future<SMGJoin>> fragments = new ArrayList<>();
+    for (final List<SMGJoinRoot> group : groups) {
+      fragments.add(pExecutor.submit(new Callable<SMGJoin>() {
+        @Override
+        public SMGJoin call() {
+          SMGJoin fragment = new SMGJoin(false, SMGJoinStatus.EQUAL, SMGFactory.createWritableSMG(smg.getContext()));
+          fragment.defined = fragment.joinRoots(pSMG1, pSMG2, fragment.smg, new SMGNodeMapping(pMapping1),
+                                                new SMGNodeMapping(pMapping2), group, pRun.fork());
+          return fragment;
         }
-        status = jss.getStatus();
+      }));
+    }
+
+    boolean allDefined = true;
+    for (Future<SMGJoin> future : fragments) {
+      SMGJoin fragment = getFragment(future);
+      if (allDefined && fragment.isDefined()) {
+        status = SMGJoinStatus.updateStatus(status, fragment.getStatus());
+        mergeFragment(fragment.smg);
+      } else {
+        allDefined = false;
       }
     }
+    return allDefined;
+  }
 
+  private static SMGJoin getFragment(final Future<SMGJoin> pFuture) {
+    try {
+      return Uninterruptibles.getUninterruptibly(pFuture);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
 
+  private void mergeFragment(final ReadableSMG pFragment) {
+    for (SMGObject object : pFragment.getHeapObjects()) {
+      if (object.notNull()) {
+        smg.addHeapObject(object);
+        if (object instanceof SMGRegion && !pFragment.isObjectValid(object)) {
+          smg.setValidity((SMGRegion) object, false);
+        }
+      }
+    }
+    for (Integer value : pFragment.getValues()) {
+      if (value != pFragment.getNullValue()) {
+        smg.addValue(value);
+        SMGExplicitValue explicit = pFragment.getExplicit(value);
+        if (!explicit.isUnknown()) {
+          smg.putExplicit(SMGKnownSymValue.valueOf(value), (SMGKnownExpValue) explicit);
+        }
+      }
+    }
+    for (SMGEdgePointsTo pt : pFragment.getPTEdges()) {
+      if (pt.getValue() != pFragment.getNullValue()) {
+        smg.addPointsToEdge(pt);
+      }
+    }
+    for (SMGEdgeHasValue hv : pFragment.getHVEdges()) {
+      smg.addHasValueEdge(hv);
+    }
+    for (Integer value : pFragment.getValues()) {
+      for (Integer neq : pFragment.getNeqsForValue(value)) {
+        smg.addNeqRelation(value, neq);
+      }
+    }
+  }
 
-    defined = true;
+  SMGJoin(final boolean pDefined, final SMGJoinStatus pStatus, final WritableSMG pSMG) {
+    defined = pDefined;
+    status = pStatus;
+    smg = pSMG;
   }
 
   public boolean isDefined() {
@@ -158,9 +327,15 @@ public final class SMGJoin {
   }
 }
 
+/**
+ * A mapping of objects and values of an input SMG to the destination SMG. Besides the mapping itself, it keeps
+ * a reverse index of the mapped objects and values, so all queries are answered in constant time.
+ */
 class SMGNodeMapping {
   private final Map<SMGObject, SMGObject> objectMap = new HashMap<>();
-  private final Map<Integer, Integer> valueMap = new HashMap<>();
+  private final Multiset<SMGObject> objectTargets = HashMultiset.create();
+  private final IntIntMap valueMap;
+  private final IntIntMap valueTargets;
 
   @Override
   public int hashCode() {
@@ -177,14 +352,22 @@ class SMGNodeMapping {
     return Objects.equals(objectMap, other.objectMap) && Objects.equals(valueMap, other.valueMap);
   }
 
-  public SMGNodeMapping() { }
+  public SMGNodeMapping() {
+    valueMap = new IntIntMap();
+    valueTargets = new IntIntMap();
+  }
 
   public SMGNodeMapping(final SMGNodeMapping origin) {
     objectMap.putAll(origin.objectMap);
-    valueMap.putAll(origin.valueMap);
+    objectTargets.addAll(origin.objectTargets);
+    valueMap = new IntIntMap(origin.valueMap);
+    valueTargets = new IntIntMap(origin.valueTargets);
   }
 
   public Integer get(final Integer i) {
+    if (i == null) {
+      return null;
+    }
     return valueMap.get(i);
   }
 
@@ -193,15 +376,24 @@ class SMGNodeMapping {
   }
 
   public void map(final SMGObject key, final SMGObject value) {
-    objectMap.put(key, value);
+    SMGObject previous = objectMap.put(key, value);
+    if (previous != null) {
+      objectTargets.remove(previous);
+    }
+    objectTargets.add(value);
   }
 
   public void map(final Integer key, final Integer value) {
+    Integer previous = valueMap.get(key);
+    if (previous != null) {
+      valueTargets.put(previous, valueTargets.get(previous, 0) - 1);
+    }
     valueMap.put(key, value);
+    valueTargets.put(value, valueTargets.get(value, 0) + 1);
   }
 
   public boolean containsKey(final Integer key) {
-    return valueMap.containsKey(key);
+    return key != null && valueMap.containsKey(key);
   }
 
   public boolean containsKey(final SMGObject key) {
@@ -209,6 +401,10 @@ class SMGNodeMapping {
   }
 
   public boolean containsValue(final SMGObject value) {
-    return objectMap.containsValue(value);
+    return objectTargets.contains(value);
+  }
+
+  public boolean containsValue(final Integer value) {
+    return value != null && valueTargets.get(value, 0) > 0;
   }
 }
@@ -0,0 +1,145 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.google.common.collect.ImmutableList;
+
+import cz.afri.smg.graphs.ReadableSMG;
+
+/**
+ * Joins a whole collection of states at once.
+ *
+ * The collection is reduced by a tree of pairwise joins, evaluated in parallel on a {@link ForkJoinPool}. States
+ * which cannot be joined with each other end up in separate groups: the result is a list of groups of mutually
+ * joinable states, each with its own joint SMG and aggregate status. The join is defined if all states ended up in
+ * a single group.
+ */
+public final class SMGJoinAll {
+  private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool();
+
+  private final List<SMGJoinGroup> groups;
+  private final SMGJoinStatus status;
+
+  public SMGJoinAll(final Collection<? extends ReadableSMG> pStates) {
+    this(pStates, DEFAULT_POOL);
+  }
+
+  public SMGJoinAll(final Collection<? extends ReadableSMG> pStates, final ForkJoinPool pPool) {
+    if (pStates.isEmpty()) {
+      throw new IllegalArgumentException("SMGJoinAll needs at least one state to join");
+    }
+
+    List<ReadableSMG> states = ImmutableList.copyOf(pStates);
+    groups = Collections.unmodifiableList(pPool.invoke(new JoinTask(states, 0, states.size())));
+
+    SMGJoinStatus aggregate = SMGJoinStatus.EQUAL;
+    for (SMGJoinGroup group : groups) {
+      aggregate = SMGJoinStatus.updateStatus(aggregate, group.getStatus());
+    }
+    status = aggregate;
+  }
+
+  /**
+   * Merges two lists of groups: every group from the second list is joined with the first joinable group of the
+   * first list, or appended if there is no such group.
+   */
+  private static List<SMGJoinGroup> mergeGroups(final List<SMGJoinGroup> pLeft, final List<SMGJoinGroup> pRight) {
+    List<SMGJoinGroup> merged = new ArrayList<>(pLeft);
+    for (SMGJoinGroup group : pRight) {
+      SMGJoinGroup joint = null;
+      int index = 0;
+      while (joint == null && index < merged.size()) {
+        joint = merged.get(index).join(group);
+        index++;
+      }
+
+      if (joint == null) {
+        merged.add(group);
+      } else {
+        merged.set(index - 1, joint);
+      }
+    }
+    return merged;
+  }
+
+  private static final class JoinTask extends RecursiveTask<List<SMGJoinGroup>> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<ReadableSMG> states;
+    private final int from;
+    private final int to;
+
+    JoinTask(final List<ReadableSMG> pStates, final int pFrom, final int pTo) {
+      states = pStates;
+      from = pFrom;
+      to = pTo;
+    }
+
+    @Override
+    protected List<SMGJoinGroup> compute() {
+      if (to - from == 1) {
+        List<SMGJoinGroup> single = new ArrayList<>();
+        single.add(new SMGJoinGroup(states.get(from), from));
+        return single;
+      }
+
+      int middle = (from + to) >>> 1;
+      JoinTask left = new JoinTask(states, from, middle);
+      JoinTask right = new JoinTask(states, middle, to);
+      left.fork();
+      List<SMGJoinGroup> rightGroups = right.compute();
+      return mergeGroups(left.join(), rightGroups);
+    }
+  }
+
+  public boolean isDefined() {
+    return groups.size() == 1;
+  }
+
+  public SMGJoinStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * @return SMG joint from all states. Throws {@link IllegalStateException} if the states were not joinable.
+   */
+  public ReadableSMG getJointSMG() {
+    if (!isDefined()) {
+      throw new IllegalStateException("States were not joinable into a single SMG");
+    }
+    return groups.get(0).getJointSMG();
+  }
+
+  /**
+   * @return groups of mutually joinable states
+   */
+  public List<SMGJoinGroup> getGroups() {
+    return groups;
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import cz.afri.smg.graphs.CLangStackFrame;
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGFingerprint;
+import cz.afri.smg.graphs.SMGValues.SMGExplicitValue;
+import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
+import cz.afri.smg.graphs.SMGValues.SMGKnownSymValue;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.types.CType;
+
+/**
+ * Memoizes results of {@link SMGJoin}. Joins are looked up by fingerprints of both operands, so a join of two
+ * SMGs is computed only once even when the analysis reaches the same pair of shapes repeatedly with different
+ * objects and value names.
+ *
+ * Each returned joint SMG is a private copy with fresh objects and symbolic values, so callers may freely modify it.
+ * SMGs with parts not reachable from variables are joined directly and never cached.
+ */
+public final class SMGJoinCache {
+  public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+  private final Cache<JoinKey, SMGJoin> cache;
+
+  public SMGJoinCache() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public SMGJoinCache(final long pMaximumSize) {
+    cache = CacheBuilder.newBuilder().maximumSize(pMaximumSize).recordStats().build();
+  }
+
+  public SMGJoinCache(final long pMaximumSize, final long pExpireAfterAccess, final TimeUnit pUnit) {
+    cache = CacheBuilder.newBuilder().maximumSize(pMaximumSize).expireAfterAccess(pExpireAfterAccess, pUnit)
+                        .recordStats().build();
+  }
+
+  /**
+   * Joins two SMGs, reusing a previously computed result for SMGs of the same shapes if there is one.
+   *
+   * @param pSMG1 First SMG to join
+   * @param pSMG2 Second SMG to join
+   * @return A join equivalent to <code>new SMGJoin(pSMG1, pSMG2)</code>
+   */
+  public SMGJoin join(final ReadableSMG pSMG1, final ReadableSMG pSMG2) {
+    SMGFingerprint first = new SMGFingerprint(pSMG1);
+    SMGFingerprint second = new SMGFingerprint(pSMG2);
+    if (!first.isComplete() || !second.isComplete()) {
+      // Parts not reachable from variables have no canonical identifiers, so such SMGs are never cached
+      return new SMGJoin(pSMG1, pSMG2);
+    }
+
+    JoinKey key = new JoinKey(first, second);
+    SMGJoin cached = cache.getIfPresent(key);
+    if (cached == null) {
+      SMGJoin join = new SMGJoin(pSMG1, pSMG2);
+      cache.put(key, new SMGJoin(join.isDefined(), join.getStatus(),
+                                 SMGFactory.createWritableCopy(join.getJointSMG())));
+      return join;
+    }
+    return new SMGJoin(cached.isDefined(), cached.getStatus(), rebuild(cached.getJointSMG()));
+  }
+
+  /**
+   * Copies a cached joint SMG. All objects and values of a joint SMG are created by the join, so the copy gets
+   * fresh ones: regions are duplicated and values are allocated anew. Abstract objects are immutable and shared.
+   */
+  private static WritableSMG rebuild(final ReadableSMG pSMG) {
+    WritableSMG copy = SMGFactory.createWritableSMG(pSMG.getContext());
+    Map<SMGObject, SMGObject> objects = new HashMap<>();
+    objects.put(pSMG.getNullObject(), copy.getNullObject());
+
+    for (SMGRegion global : pSMG.getGlobalObjects().values()) {
+      objects.put(global, copy.addGlobalVariable(CType.createTypeWithLength(global.getSize()), global.getLabel()));
+    }
+    Iterator<CLangStackFrame> frames = pSMG.getStackFrames().descendingIterator();
+    while (frames.hasNext()) {
+      CLangStackFrame frame = frames.next();
+      copy.addStackFrame(frame.getFunctionDeclaration());
+      for (SMGRegion local : frame.getVariables().values()) {
+        objects.put(local, copy.addLocalVariable(CType.createTypeWithLength(local.getSize()), local.getLabel()));
+      }
+      if (frame.getReturnObject() != null) {
+        objects.put(frame.getReturnObject(), copy.getStackReturnObject(0));
+      }
+    }
+    for (SMGObject object : pSMG.getHeapObjects()) {
+      if (object.notNull()) {
+        SMGObject newObject = object;
+        if (object instanceof SMGRegion) {
+          newObject = new SMGRegion((SMGRegion) object);
+        }
+        copy.addHeapObject(newObject);
+        if (newObject instanceof SMGRegion && !pSMG.isObjectValid(object)) {
+          copy.setValidity((SMGRegion) newObject, false);
+        }
+        objects.put(object, newObject);
+      }
+    }
+
+    Map<Integer, Integer> values = new HashMap<>();
+    values.put(pSMG.getNullValue(), copy.getNullValue());
+    for (Integer value : pSMG.getValues()) {
+      if (value != pSMG.getNullValue()) {
+        Integer newValue = copy.getContext().getNewValue();
+        copy.addValue(newValue);
+        values.put(value, newValue);
+        SMGExplicitValue explicit = pSMG.getExplicit(value);
+        if (!explicit.isUnknown()) {
+          copy.putExplicit(SMGKnownSymValue.valueOf(newValue), (SMGKnownExpValue) explicit);
+        }
+      }
+    }
+    for (Integer value : pSMG.getValues()) {
+      for (Integer neq : pSMG.getNeqsForValue(value)) {
+        copy.addNeqRelation(values.get(value), values.get(neq));
+      }
+    }
+
+    for (SMGEdgePointsTo pt : pSMG.getPTEdges()) {
+      if (pt.getValue() != pSMG.getNullValue()) {
+        copy.addPointsToEdge(new SMGEdgePointsTo(values.get(pt.getValue()), objects.get(pt.getObject()),
+                                                 pt.getOffset()));
+      }
+    }
+    for (SMGEdgeHasValue hv : pSMG.getHVEdges()) {
+      copy.addHasValueEdge(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), objects.get(hv.getObject()),
+                                               values.get(hv.getValue())));
+    }
+    if (pSMG.hasMemoryLeaks()) {
+      copy.setMemoryLeak();
+    }
+    return copy;
+  }
+
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private static final class JoinKey {
+    private final SMGFingerprint first;
+    private final SMGFingerprint second;
+
+    private JoinKey(final SMGFingerprint pFirst, final SMGFingerprint pSecond) {
+      first = pFirst;
+      second = pSecond;
+    }
+
+    @Override
+    public int hashCode() {
+      final int prime = 31;
+      return prime * first.hashCode() + second.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object pOther) {
+      if (!(pOther instanceof JoinKey)) {
+        return false;
+      }
+      JoinKey other = (JoinKey) pOther;
+      return first.equals(other.first) && second.equals(other.second);
+    }
+  }
+}
@@ -33,7 +33,6 @@ import cz.afri.smg.graphs.ReadableSMG;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
 import cz.afri.smg.graphs.SMGFactory;
-import cz.afri.smg.graphs.SMGValueFactory;
 import cz.afri.smg.graphs.WritableSMG;
 import cz.afri.smg.objects.SMGObject;
 
@@ -101,7 +100,7 @@ class SMGJoinFields {
             filterForSMG2.filterByType(edge.getType());
             if (!pSMG2.getHVEdges(filterForSMG2).iterator().hasNext()) {
               returnSet.add(new SMGEdgeHasValue(edge.getType(), edge.getOffset(), pObj2,
-                                                SMGValueFactory.getNewValue()));
+                                                pSMG2.getContext().getNewValue()));
             }
         }
 
@@ -0,0 +1,106 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import cz.afri.smg.graphs.ReadableSMG;
+
+/**
+ * A set of states which were successfully joined into a single SMG by {@link SMGJoinAll}.
+ */
+public final class SMGJoinGroup {
+  private final ReadableSMG jointSMG;
+  private final SMGJoinStatus status;
+  private final List<Integer> members;
+
+  /**
+   * @param pSMG the single member of the group
+   * @param pIndex index of the member in the joined collection
+   */
+  SMGJoinGroup(final ReadableSMG pSMG, final int pIndex) {
+    jointSMG = pSMG;
+    status = SMGJoinStatus.EQUAL;
+    members = Collections.singletonList(pIndex);
+  }
+
+  private SMGJoinGroup(final ReadableSMG pSMG, final SMGJoinStatus pStatus, final List<Integer> pMembers) {
+    jointSMG = pSMG;
+    status = pStatus;
+    members = Collections.unmodifiableList(pMembers);
+  }
+
+  /**
+   * Tries to join this group with another one.
+   *
+   * @param pOther group to join with
+   * @return a group containing members of both groups, or null if the joint SMGs are not joinable
+   */
+  SMGJoinGroup join(final SMGJoinGroup pOther) {
+    SMGJoin join = new SMGJoin(jointSMG, pOther.jointSMG);
+    if (!join.isDefined()) {
+      return null;
+    }
+
+    SMGJoinStatus newStatus = SMGJoinStatus.updateStatus(status, pOther.status);
+    newStatus = SMGJoinStatus.updateStatus(newStatus, join.getStatus());
+    List<Integer> newMembers = new ArrayList<>(members);
+    newMembers.addAll(pOther.members);
+    Collections.sort(newMembers);
+    return new SMGJoinGroup(join.getJointSMG(), newStatus, newMembers);
+  }
+
+  /**
+   * @return SMG joint from all members of the group. For a single-member group, this is the member itself.
+   */
+  public ReadableSMG getJointSMG() {
+    return jointSMG;
+  }
+
+  /**
+   * @return combination of statuses of all joins performed to build the group
+   */
+  public SMGJoinStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * @return number of input states joined into the group
+   */
+  public int size() {
+    return members.size();
+  }
+
+  /**
+   * @return indices of the input states joined into the group, in the order of the joined collection
+   */
+  public List<Integer> getMembers() {
+    return members;
+  }
+
+  @Override
+  public String toString() {
+    return "SMGJoinGroup [members=" + members + ", status=" + status + "]";
+  }
+}
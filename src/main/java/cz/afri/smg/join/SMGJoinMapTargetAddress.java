@@ -23,7 +23,6 @@ package cz.afri.smg.join;
 
 import cz.afri.smg.graphs.ReadableSMG;
 import cz.afri.smg.graphs.SMGEdgePointsTo;
-import cz.afri.smg.graphs.SMGValueFactory;
 import cz.afri.smg.graphs.WritableSMG;
 import cz.afri.smg.objects.SMGObject;
 
@@ -36,6 +35,13 @@ final class SMGJoinMapTargetAddress {
   public SMGJoinMapTargetAddress(final ReadableSMG pSMG1, final ReadableSMG pSMG2, final WritableSMG destSMG,
                                  final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
                                  final Integer pAddress1, final Integer pAddress2) {
+    this(pSMG1, pSMG2, destSMG, pMapping1, pMapping2, pAddress1, pAddress2, SMGJoinRun.unlimited());
+  }
+
+  @SuppressWarnings("checkstyle:parameternumber")
+  public SMGJoinMapTargetAddress(final ReadableSMG pSMG1, final ReadableSMG pSMG2, final WritableSMG destSMG,
+                                 final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
+                                 final Integer pAddress1, final Integer pAddress2, final SMGJoinRun pRun) {
     smg = destSMG;
     mapping1 = pMapping1;
     mapping2 = pMapping2;
@@ -47,21 +53,18 @@ final class SMGJoinMapTargetAddress {
       target = pMapping1.get(pt.getObject());
     }
 
-    // TODO: Ugly, refactor
-    Iterable<SMGEdgePointsTo> edges = smg.getPTEdges();
-    for (SMGEdgePointsTo edge : edges) {
-      if ((edge.getObject() == target) &&
-          (edge.getOffset() == pt.getOffset())) {
-        value = edge.getValue();
-        return;
-      }
+    Integer address = smg.getAddress(target, pt.getOffset());
+    if (address != null) {
+      value = address;
+      return;
     }
 
-    value = SMGValueFactory.getNewValue();
+    value = smg.getContext().getNewValue();
     smg.addValue(value);
     smg.addPointsToEdge(new SMGEdgePointsTo(value, target, pt.getOffset()));
     mapping1.map(pAddress1, value);
     mapping2.map(pAddress2, value);
+    pRun.valueMapped();
   }
 
   public WritableSMG getSMG() {
@@ -21,15 +21,13 @@
  */
 package cz.afri.smg.join;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
 
 import cz.afri.smg.graphs.ReadableSMG;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.join.SMGJoinMetrics.Failure;
 import cz.afri.smg.objects.SMGAbstractObject;
 import cz.afri.smg.objects.SMGObject;
 
@@ -81,24 +79,19 @@ final class SMGJoinMatchObjects {
                                                final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
                                                final ReadableSMG pSMG1, final ReadableSMG pSMG2) {
 
-    List<SMGEdgeHasValue> fields = new ArrayList<>();
-
-    Iterables.addAll(fields, pSMG1.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pObj1)));
-    Iterables.addAll(fields, pSMG2.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pObj2)));
-
-    //TODO: We go through some fields twice, fix
-    for (SMGEdgeHasValue hv : fields) {
-      SMGEdgeHasValueFilter filter1 = SMGEdgeHasValueFilter.objectFilter(pObj1);
-      filter1.filterByType(hv.getType()).filterAtOffset(hv.getOffset());
-      Iterable<SMGEdgeHasValue> hv1 = pSMG1.getHVEdges(filter1);
-
-      SMGEdgeHasValueFilter filter2 = SMGEdgeHasValueFilter.objectFilter(pObj2);
-      filter2.filterByType(hv.getType()).filterAtOffset(hv.getOffset());
-      Iterable<SMGEdgeHasValue> hv2 = pSMG2.getHVEdges(filter2);
-
-      if (hv1.iterator().hasNext() && hv2.iterator().hasNext()) {
-        Integer v1 = Iterators.getOnlyElement(hv1.iterator()).getValue();
-        Integer v2 = Iterators.getOnlyElement(hv2.iterator()).getValue();
+    // Fields of an object come sorted, so a single pass over both objects finds the fields present in both
+    PeekingIterator<SMGEdgeHasValue> fields1 = getFields(pSMG1, pObj1);
+    PeekingIterator<SMGEdgeHasValue> fields2 = getFields(pSMG2, pObj2);
+
+    while (fields1.hasNext() && fields2.hasNext()) {
+      int comparison = SMGEdgeHasValue.FIELD_ORDER.compare(fields1.peek(), fields2.peek());
+      if (comparison < 0) {
+        fields1.next();
+      } else if (comparison > 0) {
+        fields2.next();
+      } else {
+        Integer v1 = fields1.next().getValue();
+        Integer v2 = fields2.next().getValue();
         if (pMapping1.containsKey(v1) && pMapping2.containsKey(v2) && !(pMapping1.get(v1).equals(pMapping2.get(v2)))) {
           return true;
         }
@@ -108,6 +101,10 @@ final class SMGJoinMatchObjects {
     return false;
   }
 
+  private static PeekingIterator<SMGEdgeHasValue> getFields(final ReadableSMG pSMG, final SMGObject pObject) {
+    return Iterators.peekingIterator(pSMG.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pObject)).iterator());
+  }
+
   private static boolean checkMatchingAbstractions(final SMGObject pObj1, final SMGObject pObj2) {
     if (pObj1.isAbstract() && pObj2.isAbstract()) {
       SMGAbstractObject pAbstract1 = (SMGAbstractObject) pObj1;
@@ -126,6 +123,13 @@ final class SMGJoinMatchObjects {
   public SMGJoinMatchObjects(final SMGJoinStatus pStatus, final ReadableSMG pSMG1, final ReadableSMG pSMG2,
                              final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
                              final SMGObject pObj1, final SMGObject pObj2) {
+    this(pStatus, pSMG1, pSMG2, pMapping1, pMapping2, pObj1, pObj2, SMGJoinRun.unlimited());
+  }
+
+  @SuppressWarnings("checkstyle:parameternumber")
+  public SMGJoinMatchObjects(final SMGJoinStatus pStatus, final ReadableSMG pSMG1, final ReadableSMG pSMG2,
+                             final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
+                             final SMGObject pObj1, final SMGObject pObj2, final SMGJoinRun pRun) {
     if ((!pSMG1.getObjects().contains(pObj1)) || (!pSMG2.getObjects().contains(pObj2))) {
       throw new IllegalArgumentException();
     }
@@ -135,22 +139,27 @@ final class SMGJoinMatchObjects {
     }
 
     if (SMGJoinMatchObjects.checkMatchingMapping(pObj1, pObj2, pMapping1, pMapping2, pSMG1, pSMG2)) {
+      pRun.failed(Failure.MAPPING_MISMATCH);
       return;
     }
 
     if (SMGJoinMatchObjects.checkConsistentMapping(pObj1, pObj2, pMapping1, pMapping2, pSMG1, pSMG2)) {
+      pRun.failed(Failure.INCONSISTENT_MAPPING);
       return;
     }
 
     if (SMGJoinMatchObjects.checkConsistentObjects(pObj1, pObj2, pSMG1, pSMG2)) {
+      pRun.failed(Failure.INCONSISTENT_OBJECTS);
       return;
     }
 
     if (SMGJoinMatchObjects.checkMatchingAbstractions(pObj1, pObj2)) {
+      pRun.failed(Failure.ABSTRACTION_MISMATCH);
       return;
     }
 
     if (SMGJoinMatchObjects.checkConsistentFields(pObj1, pObj2, pMapping1, pMapping2, pSMG1, pSMG2)) {
+      pRun.failed(Failure.INCONSISTENT_FIELDS);
       return;
     }
 
@@ -0,0 +1,75 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+/**
+ * Receives measurements from joins of SMGs. Metrics are opt-in: a join given no metrics does not read the clock
+ * nor count anything.
+ *
+ * A single metrics object may be shared by joins running in parallel, so implementations need to be thread-safe.
+ */
+public interface SMGJoinMetrics {
+  /**
+   * Phases of a join. The phases nest recursively (joining values may need joining target objects, which needs
+   * joining their values...), so the time of a phase includes the time of the phases nested in it.
+   */
+  enum Phase {
+    COPY,
+    JOIN_FIELDS,
+    JOIN_VALUES,
+    JOIN_TARGET_OBJECTS,
+    MATCH_OBJECTS,
+    MAP_TARGET_ADDRESS
+  }
+
+  /**
+   * Reasons for which a join, or its part, fails.
+   */
+  enum Failure {
+    MISSING_GLOBAL,
+    MISSING_LOCAL,
+    MAPPING_MISMATCH,
+    INCONSISTENT_MAPPING,
+    INCONSISTENT_OBJECTS,
+    ABSTRACTION_MISMATCH,
+    INCONSISTENT_FIELDS,
+    OFFSET_MISMATCH,
+    VALUE_ALREADY_MAPPED,
+    MIXED_POINTERS,
+    BUDGET_EXHAUSTED
+  }
+
+  void phaseFinished(Phase pPhase, long pNanos);
+
+  /**
+   * Called whenever a join of sub-SMGs starts.
+   *
+   * @param pDepth Recursion depth of the join of sub-SMGs, starting at 1 for joins of variables
+   */
+  void subSMGsEntered(int pDepth);
+
+  void objectMapped();
+
+  void valueMapped();
+
+  void failed(Failure pFailure);
+}
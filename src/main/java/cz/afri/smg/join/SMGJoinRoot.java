@@ -0,0 +1,158 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.objects.SMGObject;
+
+/**
+ * A pair of corresponding variable objects in the joined SMGs, together with the object representing the
+ * variable in the destination SMG.
+ */
+final class SMGJoinRoot {
+  private final SMGObject object1;
+  private final SMGObject object2;
+  private final SMGObject destObject;
+
+  SMGJoinRoot(final SMGObject pObject1, final SMGObject pObject2, final SMGObject pDestObject) {
+    object1 = pObject1;
+    object2 = pObject2;
+    destObject = pDestObject;
+  }
+
+  public SMGObject getObject1() {
+    return object1;
+  }
+
+  public SMGObject getObject2() {
+    return object2;
+  }
+
+  public SMGObject getDestObject() {
+    return destObject;
+  }
+
+  /**
+   * Partitions roots into groups such that no object or value (except null) is reachable from roots of two
+   * different groups, in either of the SMGs. Roots keep their relative order within a group.
+   */
+  public static List<List<SMGJoinRoot>> partition(final ReadableSMG pSMG1, final ReadableSMG pSMG2,
+                                                  final List<SMGJoinRoot> pRoots) {
+    int[] parents = new int[pRoots.size()];
+    for (int i = 0; i < parents.length; i++) {
+      parents[i] = i;
+    }
+
+    List<SMGObject> roots1 = new ArrayList<>();
+    List<SMGObject> roots2 = new ArrayList<>();
+    for (SMGJoinRoot root : pRoots) {
+      roots1.add(root.object1);
+      roots2.add(root.object2);
+    }
+    unionReachable(pSMG1, roots1, parents);
+    unionReachable(pSMG2, roots2, parents);
+
+    Map<Integer, List<SMGJoinRoot>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < parents.length; i++) {
+      int representative = find(parents, i);
+      if (!groups.containsKey(representative)) {
+        groups.put(representative, new ArrayList<SMGJoinRoot>());
+      }
+      groups.get(representative).add(pRoots.get(i));
+    }
+    return new ArrayList<>(groups.values());
+  }
+
+  private static void unionReachable(final ReadableSMG pSMG, final List<SMGObject> pRoots, final int[] pParents) {
+    Map<SMGObject, Integer> objectOwners = new HashMap<>();
+    Map<Integer, Integer> valueOwners = new HashMap<>();
+    Queue<SMGObject> workqueue = new ArrayDeque<>();
+
+    for (int i = 0; i < pRoots.size(); i++) {
+      objectOwners.put(pRoots.get(i), i);
+    }
+
+    for (int i = 0; i < pRoots.size(); i++) {
+      workqueue.add(pRoots.get(i));
+      while (!workqueue.isEmpty()) {
+        SMGObject object = workqueue.remove();
+        for (SMGEdgeHasValue hv : pSMG.getHVEdges(SMGEdgeHasValueFilter.objectFilter(object))) {
+          Integer value = hv.getValue();
+          if (value == pSMG.getNullValue()) {
+            continue;
+          }
+          Integer valueOwner = valueOwners.get(value);
+          if (valueOwner != null) {
+            union(pParents, i, valueOwner);
+            continue;
+          }
+          valueOwners.put(value, i);
+          if (!pSMG.isPointer(value)) {
+            continue;
+          }
+          SMGObject target = pSMG.getPointer(value).getObject();
+          Integer targetOwner = objectOwners.get(target);
+          if (targetOwner != null) {
+            union(pParents, i, targetOwner);
+          } else if (target.notNull()) {
+            objectOwners.put(target, i);
+            workqueue.add(target);
+          }
+        }
+      }
+    }
+  }
+
+  private static int find(final int[] pParents, final int pElement) {
+    int root = pElement;
+    while (pParents[root] != root) {
+      root = pParents[root];
+    }
+    int element = pElement;
+    while (pParents[element] != root) {
+      int next = pParents[element];
+      pParents[element] = root;
+      element = next;
+    }
+    return root;
+  }
+
+  private static void union(final int[] pParents, final int pFirst, final int pSecond) {
+    int firstRoot = find(pParents, pFirst);
+    int secondRoot = find(pParents, pSecond);
+    if (firstRoot < secondRoot) {
+      pParents[secondRoot] = firstRoot;
+    } else {
+      pParents[firstRoot] = secondRoot;
+    }
+  }
+}
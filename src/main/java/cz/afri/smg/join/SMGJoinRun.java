@@ -0,0 +1,113 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.join.SMGJoinMetrics.Failure;
+import cz.afri.smg.join.SMGJoinMetrics.Phase;
+
+/**
+ * State shared by all the partial joins performed within a single join of two SMGs: the budget, the optional
+ * metrics, the check flag of the context and the current recursion depth. Parallel workers of a join each use
+ * their own {@link #fork()}.
+ */
+final class SMGJoinRun {
+  private final SMGBudget budget;
+  private final SMGJoinMetrics metrics;
+  private final boolean performChecks;
+  private int depth = 0;
+
+  SMGJoinRun(final SMGBudget pBudget) {
+    this(pBudget, null, false);
+  }
+
+  SMGJoinRun(final SMGBudget pBudget, final SMGJoinMetrics pMetrics, final boolean pPerformChecks) {
+    budget = pBudget;
+    metrics = pMetrics;
+    performChecks = pPerformChecks;
+  }
+
+  public static SMGJoinRun unlimited() {
+    return new SMGJoinRun(SMGBudget.unlimited());
+  }
+
+  public SMGJoinRun fork() {
+    return new SMGJoinRun(budget, metrics, performChecks);
+  }
+
+  public boolean performChecks() {
+    return performChecks;
+  }
+
+  public boolean step() {
+    return budget.step();
+  }
+
+  public boolean isExhausted() {
+    return budget.isExhausted();
+  }
+
+  /**
+   * @return Start time of a phase, to be passed to {@link #finishPhase(Phase, long)}
+   */
+  public long startPhase() {
+    if (metrics == null) {
+      return 0;
+    }
+    return System.nanoTime();
+  }
+
+  public void finishPhase(final Phase pPhase, final long pStart) {
+    if (metrics != null) {
+      metrics.phaseFinished(pPhase, System.nanoTime() - pStart);
+    }
+  }
+
+  public void enterSubSMGs() {
+    depth++;
+    if (metrics != null) {
+      metrics.subSMGsEntered(depth);
+    }
+  }
+
+  public void exitSubSMGs() {
+    depth--;
+  }
+
+  public void objectMapped() {
+    if (metrics != null) {
+      metrics.objectMapped();
+    }
+  }
+
+  public void valueMapped() {
+    if (metrics != null) {
+      metrics.valueMapped();
+    }
+  }
+
+  public void failed(final Failure pFailure) {
+    if (metrics != null) {
+      metrics.failed(pFailure);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe {@link SMGJoinMetrics} which accumulates the measurements in counters.
+ */
+public final class SMGJoinStatistics implements SMGJoinMetrics {
+  private final Map<Phase, AtomicLong> phaseCalls = new EnumMap<>(Phase.class);
+  private final Map<Phase, AtomicLong> phaseNanos = new EnumMap<>(Phase.class);
+  private final Map<Failure, AtomicLong> failures = new EnumMap<>(Failure.class);
+  private final AtomicLong subSMGJoins = new AtomicLong();
+  private final AtomicInteger maxDepth = new AtomicInteger();
+  private final AtomicLong objectsMapped = new AtomicLong();
+  private final AtomicLong valuesMapped = new AtomicLong();
+
+  public SMGJoinStatistics() {
+    for (Phase phase : Phase.values()) {
+      phaseCalls.put(phase, new AtomicLong());
+      phaseNanos.put(phase, new AtomicLong());
+    }
+    for (Failure failure : Failure.values()) {
+      failures.put(failure, new AtomicLong());
+    }
+  }
+
+  @Override
+  public void phaseFinished(final Phase pPhase, final long pNanos) {
+    phaseCalls.get(pPhase).incrementAndGet();
+    phaseNanos.get(pPhase).addAndGet(pNanos);
+  }
+
+  @Override
+  public void subSMGsEntered(final int pDepth) {
+    subSMGJoins.incrementAndGet();
+    int max = maxDepth.get();
+    while (pDepth > max && !maxDepth.compareAndSet(max, pDepth)) {
+      max = maxDepth.get();
+    }
+  }
+
+  @Override
+  public void objectMapped() {
+    objectsMapped.incrementAndGet();
+  }
+
+  @Override
+  public void valueMapped() {
+    valuesMapped.incrementAndGet();
+  }
+
+  @Override
+  public void failed(final Failure pFailure) {
+    failures.get(pFailure).incrementAndGet();
+  }
+
+  public long getCalls(final Phase pPhase) {
+    return phaseCalls.get(pPhase).get();
+  }
+
+  public long getTime(final Phase pPhase, final TimeUnit pUnit) {
+    return pUnit.convert(phaseNanos.get(pPhase).get(), TimeUnit.NANOSECONDS);
+  }
+
+  public long getFailures(final Failure pFailure) {
+    return failures.get(pFailure).get();
+  }
+
+  public long getSubSMGJoins() {
+    return subSMGJoins.get();
+  }
+
+  public int getMaxDepth() {
+    return maxDepth.get();
+  }
+
+  public long getObjectsMapped() {
+    return objectsMapped.get();
+  }
+
+  public long getValuesMapped() {
+    return valuesMapped.get();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("SMGJoinStatistics[");
+    for (Phase phase : Phase.values()) {
+      builder.append(phase).append('=').append(getCalls(phase)).append('/');
+      builder.append(getTime(phase, TimeUnit.MICROSECONDS)).append("us, ");
+    }
+    builder.append("subSMGJoins=").append(getSubSMGJoins()).append(", maxDepth=").append(getMaxDepth());
+    builder.append(", objects=").append(getObjectsMapped()).append(", values=").append(getValuesMapped());
+    for (Failure failure : Failure.values()) {
+      if (getFailures(failure) > 0) {
+        builder.append(", ").append(failure).append('=').append(getFailures(failure));
+      }
+    }
+    return builder.append(']').toString();
+  }
+}
@@ -29,7 +29,9 @@ public enum SMGJoinStatus {
   INCOMPLETE;
 
   public static SMGJoinStatus updateStatus(final SMGJoinStatus pStatus1, final SMGJoinStatus pStatus2) {
-    if (pStatus1 == SMGJoinStatus.EQUAL) {
+    if (pStatus1 == SMGJoinStatus.INCOMPLETE || pStatus2 == SMGJoinStatus.INCOMPLETE) {
+      return SMGJoinStatus.INCOMPLETE;
+    } else if (pStatus1 == SMGJoinStatus.EQUAL) {
       return pStatus2;
     } else if (pStatus2 == SMGJoinStatus.EQUAL) {
       return pStatus1;
@@ -29,15 +29,11 @@ import cz.afri.smg.graphs.ReadableSMG;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
 import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.join.SMGJoinMetrics.Phase;
 import cz.afri.smg.objects.SMGObject;
 
 
 final class SMGJoinSubSMGs {
-  private static boolean performChecks = false;
-  public static void performChecks(final boolean pValue) {
-    performChecks = pValue;
-  }
-
   private SMGJoinStatus status;
   private boolean defined = false;
 
@@ -52,13 +48,36 @@ final class SMGJoinSubSMGs {
   public SMGJoinSubSMGs(final SMGJoinStatus initialStatus, final ReadableSMG pSMG1, final ReadableSMG pSMG2,
                         final WritableSMG pDestSMG, final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
                         final SMGObject pObj1, final SMGObject pObj2, final SMGObject pNewObject) {
+    this(initialStatus, pSMG1, pSMG2, pDestSMG, pMapping1, pMapping2, pObj1, pObj2, pNewObject,
+         SMGJoinRun.unlimited());
+  }
 
+  @SuppressWarnings("checkstyle:parameternumber")
+  public SMGJoinSubSMGs(final SMGJoinStatus initialStatus, final ReadableSMG pSMG1, final ReadableSMG pSMG2,
+                        final WritableSMG pDestSMG, final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
+                        final SMGObject pObj1, final SMGObject pObj2, final SMGObject pNewObject,
+                        final SMGJoinRun pRun) {
+    pRun.enterSubSMGs();
+    try {
+      joinSubSMGs(initialStatus, pSMG1, pSMG2, pDestSMG, pMapping1, pMapping2, pObj1, pObj2, pNewObject, pRun);
+    } finally {
+      pRun.exitSubSMGs();
+    }
+  }
+
+  @SuppressWarnings("checkstyle:parameternumber")
+  private void joinSubSMGs(final SMGJoinStatus initialStatus, final ReadableSMG pSMG1, final ReadableSMG pSMG2,
+                           final WritableSMG pDestSMG, final SMGNodeMapping pMapping1,
+                           final SMGNodeMapping pMapping2, final SMGObject pObj1, final SMGObject pObj2,
+                           final SMGObject pNewObject, final SMGJoinRun pRun) {
+    long fieldsStart = pRun.startPhase();
     SMGJoinFields joinFields = new SMGJoinFields(pSMG1, pSMG2, pObj1, pObj2);
+    pRun.finishPhase(Phase.JOIN_FIELDS, fieldsStart);
 
     inputSMG1 = joinFields.getSMG1();
     inputSMG2 = joinFields.getSMG2();
 
-    if (SMGJoinSubSMGs.performChecks) {
+    if (pRun.performChecks()) {
       SMGJoinFields.checkResultConsistency(inputSMG1, inputSMG2, pObj1, pObj2);
     }
 
@@ -80,12 +99,19 @@ final class SMGJoinSubSMGs {
     Set<SMGEdgeHasValue> edgesOnObject1 = Sets.newHashSet(inputSMG1.getHVEdges(filterOnSMG1));
 
     for (SMGEdgeHasValue hvIn1 : edgesOnObject1) {
+      if (!pRun.step()) {
+        status = SMGJoinStatus.INCOMPLETE;
+        return;
+      }
+
       filterOnSMG2.filterAtOffset(hvIn1.getOffset());
       filterOnSMG2.filterByType(hvIn1.getType());
-      SMGEdgeHasValue hvIn2 = inputSMG2.getUniqueHV(filterOnSMG2, performChecks);
+      SMGEdgeHasValue hvIn2 = inputSMG2.getUniqueHV(filterOnSMG2, pRun.performChecks());
 
+      long valuesStart = pRun.startPhase();
       SMGJoinValues joinValues = new SMGJoinValues(status, inputSMG1, inputSMG2, destSMG,
-          mapping1, mapping2, hvIn1.getValue(), hvIn2.getValue() /*, ldiff */);
+          mapping1, mapping2, hvIn1.getValue(), hvIn2.getValue() /*, ldiff */, pRun);
+      pRun.finishPhase(Phase.JOIN_VALUES, valuesStart);
 
       if (!joinValues.isDefined()) {
         return;
@@ -24,6 +24,8 @@ package cz.afri.smg.join;
 import cz.afri.smg.graphs.ReadableSMG;
 import cz.afri.smg.graphs.SMGEdgePointsTo;
 import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.join.SMGJoinMetrics.Failure;
+import cz.afri.smg.join.SMGJoinMetrics.Phase;
 import cz.afri.smg.objects.SMGObject;
 
 final class SMGJoinTargetObjects {
@@ -36,12 +38,14 @@ final class SMGJoinTargetObjects {
   private Integer value;
   private SMGNodeMapping mapping1;
   private SMGNodeMapping mapping2;
+  private final SMGJoinRun run;
 
   private static boolean matchOffsets(final SMGJoinTargetObjects pJto, final SMGEdgePointsTo pt1,
                                       final SMGEdgePointsTo pt2) {
     if (pt1.getOffset() != pt2.getOffset()) {
       pJto.defined = false;
       pJto.recoverable = true;
+      pJto.run.failed(Failure.OFFSET_MISMATCH);
       return true;
     }
 
@@ -53,9 +57,11 @@ final class SMGJoinTargetObjects {
     if ((!pObj1.notNull()) && (!pObj2.notNull()) ||
         (pJto.mapping1.containsKey(pObj1) && pJto.mapping2.containsKey(pObj2) &&
          pJto.mapping1.get(pObj1) == pJto.mapping2.get(pObj2))) {
+      long start = pJto.run.startPhase();
       SMGJoinMapTargetAddress mta = new SMGJoinMapTargetAddress(pJto.inputSMG1, pJto.inputSMG2, pJto.destSMG,
                                                         pJto.mapping1, pJto.mapping2,
-                                                        pAddress1, pAddress2);
+                                                        pAddress1, pAddress2, pJto.run);
+      pJto.run.finishPhase(Phase.MAP_TARGET_ADDRESS, start);
       pJto.defined = true;
       pJto.destSMG = mta.getSMG();
       pJto.mapping1 = mta.getMapping1();
@@ -69,8 +75,10 @@ final class SMGJoinTargetObjects {
 
   private static boolean checkObjectMatch(final SMGJoinTargetObjects pJto, final SMGObject pObj1,
                                           final SMGObject pObj2) {
+    long start = pJto.run.startPhase();
     SMGJoinMatchObjects mo = new SMGJoinMatchObjects(pJto.status, pJto.inputSMG1, pJto.inputSMG2, pJto.mapping1,
-                                                     pJto.mapping2, pObj1, pObj2);
+                                                     pJto.mapping2, pObj1, pObj2, pJto.run);
+    pJto.run.finishPhase(Phase.MATCH_OBJECTS, start);
     if (!mo.isDefined()) {
       pJto.defined = false;
       pJto.recoverable = true;
@@ -86,7 +94,15 @@ final class SMGJoinTargetObjects {
                               final ReadableSMG pSMG1, final ReadableSMG pSMG2, final WritableSMG pDestSMG,
                               final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
                               final Integer pAddress1, final Integer pAddress2) {
+    this(pStatus, pSMG1, pSMG2, pDestSMG, pMapping1, pMapping2, pAddress1, pAddress2, SMGJoinRun.unlimited());
+  }
 
+  @SuppressWarnings("checkstyle:parameternumber")
+  public SMGJoinTargetObjects(final SMGJoinStatus pStatus,
+                              final ReadableSMG pSMG1, final ReadableSMG pSMG2, final WritableSMG pDestSMG,
+                              final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
+                              final Integer pAddress1, final Integer pAddress2, final SMGJoinRun pRun) {
+    run = pRun;
     inputSMG1 = pSMG1;
     inputSMG2 = pSMG2;
     mapping1 = pMapping1;
@@ -124,9 +140,12 @@ final class SMGJoinTargetObjects {
 
     mapping1.map(target1, newObject);
     mapping2.map(target2, newObject);
+    run.objectMapped();
 
+    long start = run.startPhase();
     SMGJoinMapTargetAddress mta = new SMGJoinMapTargetAddress(inputSMG1, inputSMG2, destSMG, mapping1, mapping2,
-                                                              pAddress1, pAddress2);
+                                                              pAddress1, pAddress2, run);
+    run.finishPhase(Phase.MAP_TARGET_ADDRESS, start);
     destSMG = mta.getSMG();
     mapping1 = mta.getMapping1();
     mapping2 = mta.getMapping2();
@@ -134,7 +153,7 @@ final class SMGJoinTargetObjects {
 
     SMGJoinSubSMGs jss = new SMGJoinSubSMGs(status, inputSMG1, inputSMG2, destSMG,
                                             mapping1, mapping2,
-                                            target1, target2, newObject);
+                                            target1, target2, newObject, run);
     if (jss.isDefined()) {
       defined = true;
       status = jss.getStatus();
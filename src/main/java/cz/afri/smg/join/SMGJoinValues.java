@@ -22,11 +22,12 @@
 package cz.afri.smg.join;
 
 import cz.afri.smg.graphs.ReadableSMG;
-import cz.afri.smg.graphs.SMGValueFactory;
 import cz.afri.smg.graphs.SMGValues.SMGExplicitValue;
 import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
 import cz.afri.smg.graphs.SMGValues.SMGKnownSymValue;
 import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.join.SMGJoinMetrics.Failure;
+import cz.afri.smg.join.SMGJoinMetrics.Phase;
 
 final class SMGJoinValues {
   private SMGJoinStatus status;
@@ -37,6 +38,7 @@ final class SMGJoinValues {
   private SMGNodeMapping mapping1;
   private SMGNodeMapping mapping2;
   private boolean defined = false;
+  private final SMGJoinRun run;
 
   @SuppressWarnings("unused")
   private static boolean joinValuesIdentical(final SMGJoinValues pJV, final Integer pV1, final Integer pV2) {
@@ -62,15 +64,17 @@ final class SMGJoinValues {
   private static boolean joinValuesNonPointers(final SMGJoinValues pJV, final Integer pV1, final Integer pV2) {
     if ((!pJV.inputSMG1.isPointer(pV1)) && (!pJV.inputSMG2.isPointer(pV2))) {
       if (pJV.mapping1.containsKey(pV1) || pJV.mapping2.containsKey(pV2)) {
+        pJV.run.failed(Failure.VALUE_ALREADY_MAPPED);
         return true;
       }
-      SMGExplicitValue exp1 = pJV.inputSMG1.getExplicit(SMGKnownSymValue.valueOf(pV1));
-      SMGExplicitValue exp2 = pJV.inputSMG2.getExplicit(SMGKnownSymValue.valueOf(pV2));
+      SMGExplicitValue exp1 = pJV.inputSMG1.getExplicit(pV1);
+      SMGExplicitValue exp2 = pJV.inputSMG2.getExplicit(pV2);
 
-      Integer newValue = SMGValueFactory.getNewValue();
+      Integer newValue = pJV.destSMG.getContext().getNewValue();
       pJV.destSMG.addValue(newValue);
       pJV.mapping1.map(pV1, newValue);
       pJV.mapping2.map(pV2, newValue);
+      pJV.run.valueMapped();
       pJV.defined = true;
       pJV.value = newValue;
 
@@ -93,14 +97,20 @@ final class SMGJoinValues {
   }
 
   private static boolean joinValuesMixedPointers(final SMGJoinValues pJV, final Integer pV1, final Integer pV2) {
-    return ((!pJV.inputSMG1.isPointer(pV1)) || (!pJV.inputSMG2.isPointer(pV2)));
+    if ((!pJV.inputSMG1.isPointer(pV1)) || (!pJV.inputSMG2.isPointer(pV2))) {
+      pJV.run.failed(Failure.MIXED_POINTERS);
+      return true;
+    }
+    return false;
   }
 
   private static boolean joinValuesPointers(final SMGJoinValues pJV, final Integer pV1, final Integer pV2) {
+    long start = pJV.run.startPhase();
     SMGJoinTargetObjects jto = new SMGJoinTargetObjects(pJV.status,
                                                         pJV.inputSMG1, pJV.inputSMG2, pJV.destSMG,
                                                         pJV.mapping1, pJV.mapping2,
-                                                        pV1, pV2);
+                                                        pV1, pV2, pJV.run);
+    pJV.run.finishPhase(Phase.JOIN_TARGET_OBJECTS, start);
     if (jto.isDefined()) {
       pJV.status = jto.getStatus();
       pJV.inputSMG1 = jto.getInputSMG1();
@@ -124,6 +134,14 @@ final class SMGJoinValues {
   public SMGJoinValues(final SMGJoinStatus pStatus, final ReadableSMG pSMG1, final ReadableSMG pSMG2,
                        final WritableSMG pDestSMG, final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
                         final Integer pValue1, final Integer pValue2) {
+    this(pStatus, pSMG1, pSMG2, pDestSMG, pMapping1, pMapping2, pValue1, pValue2, SMGJoinRun.unlimited());
+  }
+
+  @SuppressWarnings("checkstyle:parameternumber")
+  public SMGJoinValues(final SMGJoinStatus pStatus, final ReadableSMG pSMG1, final ReadableSMG pSMG2,
+                       final WritableSMG pDestSMG, final SMGNodeMapping pMapping1, final SMGNodeMapping pMapping2,
+                       final Integer pValue1, final Integer pValue2, final SMGJoinRun pRun) {
+    run = pRun;
     mapping1 = pMapping1;
     mapping2 = pMapping2;
     status = pStatus;
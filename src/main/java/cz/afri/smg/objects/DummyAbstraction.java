@@ -29,6 +29,11 @@ public class DummyAbstraction extends SMGAbstractObject {
     super(pPrototype);
   }
 
+  @Override
+  public final String toString() {
+    return "DUMMY(size=" + getSize() + ")";
+  }
+
   @Override
   public final boolean matchGenericShape(final SMGAbstractObject pOther) {
     return pOther instanceof DummyAbstraction;
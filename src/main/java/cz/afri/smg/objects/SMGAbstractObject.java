@@ -23,10 +23,13 @@ package cz.afri.smg.objects;
 
 import java.util.Set;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 
 import cz.afri.smg.abstraction.SMGConcretisation;
+import cz.afri.smg.abstraction.SMGConcretisationResult;
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
 
 public abstract class SMGAbstractObject extends SMGObject {
 
@@ -55,5 +58,53 @@ public abstract class SMGAbstractObject extends SMGObject {
     return concretisation.execute(pSmg);
   }
 
+  /**
+   * Concretises the object as far as the budget allows. Every case of the concretisation takes a step of the
+   * budget.
+   *
+   * @param pSmg SMG containing the object
+   * @param pBudget Budget limiting the work done
+   * @return SMGs with the object concretised, incomplete if the budget ran out before all the cases were computed
+   */
+  public final SMGConcretisationResult concretise(final ReadableSMG pSmg, final SMGBudget pBudget) {
+    SMGConcretisation concretisation = createConcretisation();
+    if (concretisation == null) {
+      return new SMGConcretisationResult(Sets.newHashSet(pSmg), true);
+    }
+    return concretisation.execute(pSmg, pBudget);
+  }
+
+  /**
+   * Concretises the object lazily around the field at {@link pOffset}. The resulting SMGs are computed one at a
+   * time as the caller iterates over them, so a caller interested only in the first feasible case pays for a
+   * single copy of the SMG.
+   *
+   * @param pSmg SMG containing the object
+   * @param pOffset Offset of the accessed field, as used by the pointers to the object
+   * @return Lazily evaluated SMGs with the object concretised
+   */
+  public final Iterable<ReadableSMG> concretiseAt(final ReadableSMG pSmg, final int pOffset) {
+    return concretiseAt(pSmg, pOffset, SMGBudget.unlimited());
+  }
+
+  /**
+   * Concretises the object lazily around the field at {@link pOffset} as far as the budget allows. Every case
+   * computed during the iteration takes a step of the budget. When the budget runs out, the iteration ends early,
+   * which the caller recognizes by the budget being exhausted.
+   *
+   * @param pSmg SMG containing the object
+   * @param pOffset Offset of the accessed field, as used by the pointers to the object
+   * @param pBudget Budget limiting the work done
+   * @return Lazily evaluated SMGs with the object concretised
+   */
+  public final Iterable<ReadableSMG> concretiseAt(final ReadableSMG pSmg, final int pOffset,
+                                                  final SMGBudget pBudget) {
+    SMGConcretisation concretisation = createConcretisation();
+    if (concretisation == null) {
+      return ImmutableSet.of(pSmg);
+    }
+    return concretisation.execute(pSmg, pOffset).limitedBy(pBudget);
+  }
+
   protected abstract SMGConcretisation createConcretisation();
 }
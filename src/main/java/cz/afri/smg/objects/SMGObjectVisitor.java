@@ -21,6 +21,7 @@
  */
 package cz.afri.smg.objects;
 
+import cz.afri.smg.objects.dll.SMGDoublyLinkedList;
 import cz.afri.smg.objects.sll.SMGSingleLinkedList;
 import cz.afri.smg.objects.tree.SimpleBinaryTree;
 
@@ -51,5 +52,10 @@ public abstract class SMGObjectVisitor {
     visitDefault(pObject);
   }
 
+  @SuppressWarnings("checkstyle:designforextension")
+  public void visit(final SMGDoublyLinkedList pObject) {
+    visitDefault(pObject);
+  }
+
 
 }
\ No newline at end of file
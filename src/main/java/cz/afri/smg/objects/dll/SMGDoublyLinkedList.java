@@ -0,0 +1,162 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import cz.afri.smg.abstraction.SMGConcretisation;
+import cz.afri.smg.objects.SMGAbstractObject;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGObjectVisitor;
+import cz.afri.smg.objects.SMGRegion;
+
+/**
+ * Abstract segment of a doubly-linked list. The segment has a next pointer at {@link #getNextOffset()} leading to
+ * the successor of its last node and a prev pointer at {@link #getPrevOffset()} leading to the predecessor of its
+ * first node. The links between the nodes point to {@link #getHeadOffset()} of the nodes. The length is a lower
+ * bound: a segment of length N stands for N or more nodes (N+).
+ *
+ * Pointers into the segment address either its first or its last node. Offsets of pointers to the last node are
+ * shifted by the size of the node, see {@link #getLastNodeOffset(int)}.
+ */
+public final class SMGDoublyLinkedList extends SMGAbstractObject {
+  private final int length;
+
+  private final int nextOffset;
+  private final int prevOffset;
+  private final int headOffset;
+
+  public SMGDoublyLinkedList(final SMGRegion pPrototype, final int pNextOffset, final int pPrevOffset,
+                             final int pHeadOffset, final int pLength) {
+    super(pPrototype.getSize(), "DLL");
+    nextOffset = pNextOffset;
+    prevOffset = pPrevOffset;
+    headOffset = pHeadOffset;
+    length = pLength;
+  }
+
+  public SMGDoublyLinkedList(final SMGDoublyLinkedList pOriginal) {
+    this(pOriginal, pOriginal.length);
+  }
+
+  /**
+   * Creates a segment of the same shape as {@link pOriginal}, with a different length.
+   */
+  public SMGDoublyLinkedList(final SMGDoublyLinkedList pOriginal, final int pLength) {
+    super(pOriginal);
+    nextOffset = pOriginal.nextOffset;
+    prevOffset = pOriginal.prevOffset;
+    headOffset = pOriginal.headOffset;
+    length = pLength;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public int getNextOffset() {
+    return nextOffset;
+  }
+
+  public int getPrevOffset() {
+    return prevOffset;
+  }
+
+  public int getHeadOffset() {
+    return headOffset;
+  }
+
+  /**
+   * @param pOffset Offset in the last node of the segment
+   * @return Offset of a pointer to the last node of the segment
+   */
+  public int getLastNodeOffset(final int pOffset) {
+    return getSize() + pOffset;
+  }
+
+  /**
+   * @param pOffset Offset of a pointer to the segment
+   * @return True if the pointer addresses the last node of the segment, false if it addresses the first one
+   */
+  public boolean isLastNodeOffset(final int pOffset) {
+    return pOffset >= getSize();
+  }
+
+  @Override
+  public String toString() {
+    return "DLL(size=" + getSize() + ", next=" + nextOffset + ", prev=" + prevOffset + ", head=" + headOffset +
+           ", len=" + length + ")";
+  }
+
+  @Override
+  public void accept(final SMGObjectVisitor visitor) {
+    visitor.visit(this);
+  }
+
+  @Override
+  public boolean matchGenericShape(final SMGAbstractObject pOther) {
+    return pOther instanceof SMGDoublyLinkedList;
+  }
+
+  @Override
+  public boolean matchSpecificShape(final SMGAbstractObject pOther) {
+    if (!matchGenericShape(pOther)) {
+      return false;
+    }
+    SMGDoublyLinkedList otherDll = (SMGDoublyLinkedList) pOther;
+    return (nextOffset == otherDll.nextOffset) && (prevOffset == otherDll.prevOffset) &&
+           (headOffset == otherDll.headOffset) && (getSize() == otherDll.getSize());
+  }
+
+  @Override
+  protected SMGConcretisation createConcretisation() {
+    return new SMGDoublyLinkedListConcretisation(this);
+  }
+
+  @Override
+  public boolean isMoreGeneral(final SMGObject pOther) {
+    if (!pOther.isAbstract()) {
+      return true;
+    }
+
+    if (!matchSpecificShape((SMGAbstractObject) pOther)) {
+      throw new IllegalArgumentException("isMoreGeneral called on incompatible abstract objects");
+    }
+    return length < ((SMGDoublyLinkedList) pOther).length;
+  }
+
+  @Override
+  public SMGDoublyLinkedList join(final SMGObject pOther) {
+    if (!pOther.isAbstract()) {
+      return new SMGDoublyLinkedList(this);
+    }
+
+    if (matchSpecificShape((SMGAbstractObject) pOther)) {
+      SMGDoublyLinkedList otherDll = (SMGDoublyLinkedList) pOther;
+      if (getLength() < otherDll.getLength()) {
+        return new SMGDoublyLinkedList(this);
+      } else {
+        return new SMGDoublyLinkedList(otherDll);
+      }
+    }
+
+    throw new UnsupportedOperationException("join() called on incompatible abstract objects");
+  }
+}
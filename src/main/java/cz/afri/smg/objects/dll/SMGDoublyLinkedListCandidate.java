@@ -0,0 +1,178 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import cz.afri.smg.abstraction.SMGAbstractionCandidate;
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.types.CPointerType;
+import cz.afri.smg.types.CType;
+
+class SMGDoublyLinkedListCandidate implements SMGAbstractionCandidate {
+  /** Every node merged into the segment takes its object, its address and both its links with it. */
+  private static final int REMOVED_PER_NODE = 4;
+
+  private final List<SMGObject> nodes;
+  private final Set<SMGObject> objects;
+  private final int nextOffset;
+  private final int prevOffset;
+  private final int headOffset;
+  private final Set<Integer> internalValues;
+
+  /**
+   * @param pNodes Nodes of the segment, from the first to the last one
+   * @param pNextOffset Offset of the next pointer in the nodes
+   * @param pPrevOffset Offset of the prev pointer in the nodes
+   * @param pHeadOffset Offset the links between the nodes point to
+   * @param pInternalValues Addresses of the nodes which are only stored in the links between the nodes, and
+   *                        disappear with them
+   */
+  public SMGDoublyLinkedListCandidate(final List<SMGObject> pNodes, final int pNextOffset, final int pPrevOffset,
+                                      final int pHeadOffset, final Set<Integer> pInternalValues) {
+    if (pNodes.size() < 2) {
+      throw new IllegalArgumentException("A DLL candidate needs at least two nodes");
+    }
+    nodes = ImmutableList.copyOf(pNodes);
+    objects = ImmutableSet.copyOf(pNodes);
+    nextOffset = pNextOffset;
+    prevOffset = pPrevOffset;
+    headOffset = pHeadOffset;
+    internalValues = ImmutableSet.copyOf(pInternalValues);
+  }
+
+  @Override
+  public final int getScore() {
+    return (nodes.size() - 1) * REMOVED_PER_NODE;
+  }
+
+  @Override
+  public final ReadableSMG execute(final ReadableSMG pSMG) {
+    WritableSMG newSMG = SMGFactory.createWritableCopy(pSMG);
+    apply(newSMG);
+    return newSMG;
+  }
+
+  private static SMGEdgeHasValue getLink(final ReadableSMG pSMG, final SMGObject pNode, final int pOffset) {
+    SMGEdgeHasValueFilter filter = SMGEdgeHasValueFilter.objectFilter(pNode).filterAtOffset(pOffset);
+    for (SMGEdgeHasValue hv : pSMG.getHVEdges(filter)) {
+      if (hv.getType() instanceof CPointerType) {
+        return hv;
+      }
+    }
+    return null;
+  }
+
+  private static SMGEdgeHasValue createLink(final WritableSMG pSMG, final SMGEdgeHasValue pOriginal,
+                                            final SMGObject pObject, final int pOffset) {
+    if (pOriginal == null) {
+      return new SMGEdgeHasValue(CPointerType.getVoidPointer(), pOffset, pObject, pSMG.getNullValue());
+    }
+    CType type = pOriginal.getType();
+    return new SMGEdgeHasValue(type, pOffset, pObject, pOriginal.getValue());
+  }
+
+  @Override
+  public final void apply(final WritableSMG pSMG) {
+    SMGObject first = nodes.get(0);
+    SMGObject last = nodes.get(nodes.size() - 1);
+    SMGDoublyLinkedList dll = new SMGDoublyLinkedList((SMGRegion) first, nextOffset, prevOffset, headOffset,
+                                                      nodes.size());
+    pSMG.addHeapObject(dll);
+
+    SMGEdgeHasValue next = createLink(pSMG, getLink(pSMG, last, nextOffset), dll, nextOffset);
+    SMGEdgeHasValue prev = createLink(pSMG, getLink(pSMG, first, prevOffset), dll, prevOffset);
+    List<SMGEdgePointsTo> toFirst = new ArrayList<>();
+    Iterables.addAll(toFirst, pSMG.getPTEdges(first));
+    List<SMGEdgePointsTo> toLast = new ArrayList<>();
+    Iterables.addAll(toLast, pSMG.getPTEdges(last));
+
+    // Removes the links between the nodes along with the nodes
+    for (SMGObject node : nodes) {
+      pSMG.removeHeapObject(node);
+    }
+    for (Integer value : internalValues) {
+      pSMG.removeValue(value);
+    }
+
+    for (SMGEdgePointsTo pt : toFirst) {
+      if (!internalValues.contains(pt.getValue())) {
+        pSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), dll, pt.getOffset()));
+      }
+    }
+    for (SMGEdgePointsTo pt : toLast) {
+      if (!internalValues.contains(pt.getValue())) {
+        pSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), dll, dll.getLastNodeOffset(pt.getOffset())));
+      }
+    }
+    pSMG.addHasValueEdge(next);
+    pSMG.addHasValueEdge(prev);
+  }
+
+  @Override
+  public final Set<SMGObject> getObjects() {
+    return objects;
+  }
+
+  public final List<SMGObject> getNodes() {
+    return nodes;
+  }
+
+  public final SMGObject getStart() {
+    return nodes.get(0);
+  }
+
+  public final int getLength() {
+    return nodes.size();
+  }
+
+  public final int getNextOffset() {
+    return nextOffset;
+  }
+
+  public final int getPrevOffset() {
+    return prevOffset;
+  }
+
+  public final int getHeadOffset() {
+    return headOffset;
+  }
+
+  @Override
+  public final String toString() {
+    return "DLL CANDIDATE(start=" + getStart() + ", next=" + nextOffset + ", prev=" + prevOffset + ", head=" +
+           headOffset + ", length=" + nodes.size() + ")";
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
+
+import cz.afri.smg.abstraction.SMGConcretisation;
+import cz.afri.smg.abstraction.SMGConcretisationCases;
+import cz.afri.smg.abstraction.SMGConcretisationResult;
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.types.CPointerType;
+
+class SMGDoublyLinkedListConcretisation implements SMGConcretisation {
+  /** A concretised end node, and possibly an empty segment. */
+  private static final int CASES = 2;
+
+  private final SMGDoublyLinkedList dll;
+
+  public SMGDoublyLinkedListConcretisation(final SMGDoublyLinkedList pDll) {
+    dll = pDll;
+  }
+
+  @Override
+  public final Set<ReadableSMG> execute(final ReadableSMG pSMG) {
+    return Sets.newHashSet(execute(pSMG, dll.getHeadOffset()));
+  }
+
+  @Override
+  public final SMGConcretisationResult execute(final ReadableSMG pSMG, final SMGBudget pBudget) {
+    return execute(pSMG, dll.getHeadOffset()).compute(pBudget);
+  }
+
+  /**
+   * Concretises the last node of the segment if {@link pOffset} addresses it, the first node otherwise.
+   */
+  @Override
+  public final SMGConcretisationCases execute(final ReadableSMG pSMG, final int pOffset) {
+    final boolean last = dll.isLastNodeOffset(pOffset);
+    return new SMGConcretisationCases(CASES) {
+      @Override
+      protected ReadableSMG computeCase(final int pCase) {
+        if (pCase == 0) {
+          return materialise(pSMG, last);
+        }
+        // A DLL of length 0+ may also be empty, in which case its neighbours are linked to each other directly
+        if (dll.getLength() == 0 && mayBeEmpty(pSMG)) {
+          return removeDll(pSMG);
+        }
+        return null;
+      }
+    };
+  }
+
+  /**
+   * Replaces the DLL by a concrete node followed (or preceded, for the last node) by a shorter DLL.
+   */
+  private WritableSMG materialise(final ReadableSMG pSMG, final boolean pLast) {
+    WritableSMG newSMG = SMGFactory.createWritableCopy(pSMG);
+    List<SMGEdgePointsTo> pointers = new ArrayList<>();
+    Iterables.addAll(pointers, newSMG.getPTEdges(dll));
+    List<SMGEdgeHasValue> links = new ArrayList<>();
+    Iterables.addAll(links, newSMG.getHVEdges(SMGEdgeHasValueFilter.objectFilter(dll)));
+
+    SMGDoublyLinkedList shorter = new SMGDoublyLinkedList(dll, Math.max(dll.getLength() - 1, 0));
+    SMGRegion region = new SMGRegion(dll.getSize(), dll.getLabel() + "_element");
+    newSMG.removeHeapObject(dll);
+    newSMG.addHeapObject(shorter);
+    newSMG.addHeapObject(region);
+
+    // The outer link of the concretised node moves to the region, the links towards the DLL are created below
+    int outerLink = dll.getPrevOffset();
+    int innerLink = dll.getNextOffset();
+    int shorterOffset = dll.getHeadOffset();
+    if (pLast) {
+      outerLink = dll.getNextOffset();
+      innerLink = dll.getPrevOffset();
+      shorterOffset = dll.getLastNodeOffset(dll.getHeadOffset());
+    }
+
+    for (SMGEdgePointsTo pt : pointers) {
+      if (dll.isLastNodeOffset(pt.getOffset()) != pLast) {
+        newSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), shorter, pt.getOffset()));
+      } else if (pLast) {
+        newSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), region, pt.getOffset() - dll.getSize()));
+      } else {
+        newSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), region, pt.getOffset()));
+      }
+    }
+    for (SMGEdgeHasValue hv : links) {
+      if (hv.getOffset() == outerLink) {
+        newSMG.addHasValueEdge(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), region, hv.getValue()));
+      } else {
+        newSMG.addHasValueEdge(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), shorter, hv.getValue()));
+      }
+    }
+
+    // Link the new node and the shorter DLL in both directions
+    Integer toShorter = newSMG.getContext().getNewValue();
+    newSMG.addValue(toShorter);
+    newSMG.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), innerLink, region, toShorter));
+    newSMG.addPointsToEdge(new SMGEdgePointsTo(toShorter, shorter, shorterOffset));
+
+    Integer toRegion = newSMG.getContext().getNewValue();
+    newSMG.addValue(toRegion);
+    newSMG.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), outerLink, shorter, toRegion));
+    newSMG.addPointsToEdge(new SMGEdgePointsTo(toRegion, region, dll.getHeadOffset()));
+
+    return newSMG;
+  }
+
+  private Integer findLinkValue(final ReadableSMG pSMG, final int pOffset) {
+    SMGEdgeHasValueFilter filter = SMGEdgeHasValueFilter.objectFilter(dll).filterAtOffset(pOffset);
+    for (SMGEdgeHasValue hv : pSMG.getHVEdges(filter)) {
+      if (hv.getType() instanceof CPointerType) {
+        return hv.getValue();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * An empty segment would make the pointers to its first node equal to its successor and the pointers to its
+   * last node equal to its predecessor, which is infeasible if any of them is known to differ.
+   */
+  private boolean mayBeEmpty(final ReadableSMG pSMG) {
+    Integer nextValue = findLinkValue(pSMG, dll.getNextOffset());
+    Integer prevValue = findLinkValue(pSMG, dll.getPrevOffset());
+    for (SMGEdgePointsTo pt : pSMG.getPTEdges(dll)) {
+      Integer target = nextValue;
+      if (dll.isLastNodeOffset(pt.getOffset())) {
+        target = prevValue;
+      }
+      if (target != null && pSMG.haveNeqRelation(pt.getValue(), target)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Integer getLinkValue(final WritableSMG pSMG, final int pOffset) {
+    Integer value = findLinkValue(pSMG, pOffset);
+    if (value != null) {
+      return value;
+    }
+    value = pSMG.getContext().getNewValue();
+    pSMG.addValue(value);
+    return value;
+  }
+
+  private WritableSMG removeDll(final ReadableSMG pSMG) {
+    WritableSMG newSMG = SMGFactory.createWritableCopy(pSMG);
+
+    Integer nextValue = getLinkValue(newSMG, dll.getNextOffset());
+    Integer prevValue = getLinkValue(newSMG, dll.getPrevOffset());
+    List<SMGEdgePointsTo> pointers = new ArrayList<>();
+    Iterables.addAll(pointers, newSMG.getPTEdges(dll));
+
+    newSMG.removeHeapObject(dll);
+
+    // Pointers to the first node now lead past the segment, pointers to the last one before it
+    for (SMGEdgePointsTo pt : pointers) {
+      if (dll.isLastNodeOffset(pt.getOffset())) {
+        newSMG.mergeValues(prevValue, pt.getValue());
+      } else {
+        newSMG.mergeValues(nextValue, pt.getValue());
+      }
+    }
+    newSMG.normalize();
+
+    return newSMG;
+  }
+
+  public final SMGDoublyLinkedList getDll() {
+    return dll;
+  }
+}
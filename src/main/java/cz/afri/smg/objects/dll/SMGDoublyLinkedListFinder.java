@@ -0,0 +1,335 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import cz.afri.smg.abstraction.SMGAbstractionCandidate;
+import cz.afri.smg.abstraction.SMGAbstractionFinder;
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGRegion;
+
+/**
+ * Finds segments of doubly-linked lists: sequences of equally sized heap regions, where each node points to the
+ * next one with a pointer at one offset, and the next node points back with a pointer at another offset. Nodes
+ * inside a segment may only be pointed to by their neighbours, the first and the last node may be pointed to from
+ * anywhere.
+ */
+public class SMGDoublyLinkedListFinder implements SMGAbstractionFinder {
+  private static final int THRESHOLD_DEFAULT = 10;
+
+  private ReadableSMG smg;
+  private Map<Integer, Integer> inboundPointers = new HashMap<>();
+  private Map<SMGObject, Map<Binding, SMGObject>> successors = new HashMap<>();
+  private Set<SMGObject> visited = new HashSet<>();
+  private Set<SMGAbstractionCandidate> candidates = new HashSet<>();
+
+  private final int seqLengthThreshold;
+
+  public SMGDoublyLinkedListFinder() {
+    seqLengthThreshold = THRESHOLD_DEFAULT;
+  }
+
+  public SMGDoublyLinkedListFinder(final int pSeqLengthThreshold) {
+    seqLengthThreshold = pSeqLengthThreshold;
+  }
+
+  /**
+   * Offsets of the next and prev pointers in the nodes, and the offset the pointers lead to.
+   */
+  private static final class Binding {
+    private final int next;
+    private final int prev;
+    private final int head;
+
+    private Binding(final int pNext, final int pPrev, final int pHead) {
+      next = pNext;
+      prev = pPrev;
+      head = pHead;
+    }
+
+    private Binding reversed() {
+      return new Binding(prev, next, head);
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:magicnumber")
+    public int hashCode() {
+      int result = 17;
+      result = 31 * result + next;
+      result = 31 * result + prev;
+      result = 31 * result + head;
+      return result;
+    }
+
+    @Override
+    public boolean equals(final Object pObj) {
+      if (!(pObj instanceof Binding)) {
+        return false;
+      }
+      Binding other = (Binding) pObj;
+      return next == other.next && prev == other.prev && head == other.head;
+    }
+  }
+
+  @Override
+  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg) {
+    return traverse(pSmg, pSmg.getHeapObjects());
+  }
+
+  @Override
+  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg, final Set<SMGObject> pScope) {
+    return traverse(pSmg, pScope, SMGBudget.unlimited());
+  }
+
+  @Override
+  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg, final Set<SMGObject> pScope,
+                                                     final SMGBudget pBudget) {
+    smg = pSmg;
+    successors.clear();
+    visited.clear();
+    candidates.clear();
+
+    buildInboundPointers();
+
+    Set<SMGObject> heap = smg.getHeapObjects();
+    for (SMGObject object : pScope) {
+      if (pBudget.isExhausted()) {
+        break;
+      }
+      if (!heap.contains(object)) {
+        continue;
+      }
+      for (Binding binding : getSuccessors(object).keySet()) {
+        if (!visited.contains(object)) {
+          traverseList(findFirst(object, binding), binding);
+        }
+      }
+    }
+
+    return Collections.unmodifiableSet(new HashSet<>(candidates));
+  }
+
+  /**
+   * Counts the Has-Value edges of every value in a single sweep over the edges.
+   */
+  private void buildInboundPointers() {
+    inboundPointers.clear();
+    for (SMGEdgeHasValue hv : smg.getHVEdges()) {
+      Integer count = inboundPointers.get(hv.getValue());
+      if (count == null) {
+        inboundPointers.put(hv.getValue(), 1);
+      } else {
+        inboundPointers.put(hv.getValue(), count + 1);
+      }
+    }
+  }
+
+  private int getInboundPointers(final int pValue) {
+    Integer count = inboundPointers.get(pValue);
+    if (count == null) {
+      return 0;
+    }
+    return count;
+  }
+
+  private SMGEdgePointsTo getTarget(final SMGEdgeHasValue pEdge) {
+    if (!smg.isPointer(pEdge.getValue())) {
+      return null;
+    }
+    return smg.getPointer(pEdge.getValue());
+  }
+
+  private SMGEdgeHasValue getLink(final SMGObject pNode, final int pOffset) {
+    SMGEdgeHasValueFilter filter = SMGEdgeHasValueFilter.objectFilter(pNode).filterAtOffset(pOffset);
+    for (SMGEdgeHasValue hv : smg.getHVEdges(filter)) {
+      if (smg.isPointer(hv.getValue())) {
+        return hv;
+      }
+    }
+    return null;
+  }
+
+  private boolean isNode(final SMGObject pObject) {
+    return pObject instanceof SMGRegion && smg.isHeapObject(pObject);
+  }
+
+  /**
+   * @return The objects linked with {@link pNode} in both directions, for every pair of link offsets
+   */
+  private Map<Binding, SMGObject> getSuccessors(final SMGObject pNode) {
+    Map<Binding, SMGObject> nodeSuccessors = successors.get(pNode);
+    if (nodeSuccessors != null) {
+      return nodeSuccessors;
+    }
+
+    nodeSuccessors = new HashMap<>();
+    successors.put(pNode, nodeSuccessors);
+    if (!isNode(pNode)) {
+      return nodeSuccessors;
+    }
+
+    for (SMGEdgeHasValue link : smg.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pNode))) {
+      SMGEdgePointsTo target = getTarget(link);
+      if (target == null) {
+        continue;
+      }
+      SMGObject successor = target.getObject();
+      if (successor == pNode || !isNode(successor) || successor.getSize() != pNode.getSize()) {
+        continue;
+      }
+      for (SMGEdgeHasValue backLink : smg.getHVEdges(SMGEdgeHasValueFilter.objectFilter(successor))) {
+        SMGEdgePointsTo backTarget = getTarget(backLink);
+        if (backTarget != null && backLink.getOffset() != link.getOffset() && backTarget.getObject() == pNode &&
+            backTarget.getOffset() == target.getOffset()) {
+          nodeSuccessors.put(new Binding(link.getOffset(), backLink.getOffset(), target.getOffset()), successor);
+        }
+      }
+    }
+    return nodeSuccessors;
+  }
+
+  private SMGObject getPredecessor(final SMGObject pNode, final Binding pBinding) {
+    SMGEdgeHasValue link = getLink(pNode, pBinding.prev);
+    if (link == null) {
+      return null;
+    }
+    SMGObject predecessor = smg.getPointer(link.getValue()).getObject();
+    if (getSuccessors(predecessor).get(pBinding) == pNode) {
+      return predecessor;
+    }
+    return null;
+  }
+
+  /**
+   * Walks back from an object to the first node of its list. For a cyclic list, the object itself is returned.
+   */
+  private SMGObject findFirst(final SMGObject pObject, final Binding pBinding) {
+    Set<SMGObject> seen = new HashSet<>();
+    seen.add(pObject);
+    SMGObject first = pObject;
+    SMGObject predecessor = getPredecessor(first, pBinding);
+    while (predecessor != null && !visited.contains(predecessor) && seen.add(predecessor)) {
+      first = predecessor;
+      predecessor = getPredecessor(first, pBinding);
+    }
+    return first;
+  }
+
+  /**
+   * @return True if the node is only pointed to by its neighbours in the list, so that it can be inside a segment
+   */
+  private boolean isInner(final SMGObject pNode) {
+    int inbound = 0;
+    for (SMGEdgePointsTo pt : smg.getPTEdges(pNode)) {
+      inbound += getInboundPointers(pt.getValue());
+    }
+    return inbound == 2;
+  }
+
+  /**
+   * Walks the list forward from its first node, splitting it into segments at the nodes pointed to from outside.
+   */
+  private void traverseList(final SMGObject pFirst, final Binding pBinding) {
+    List<SMGObject> segment = new ArrayList<>();
+    segment.add(pFirst);
+    visited.add(pFirst);
+
+    SMGObject node = pFirst;
+    SMGObject successor = getSuccessors(node).get(pBinding);
+    while (successor != null && !visited.contains(successor)) {
+      if (segment.size() > 1 && !isInner(node)) {
+        addCandidate(segment, pBinding);
+        segment = new ArrayList<>();
+      }
+      segment.add(successor);
+      visited.add(successor);
+      node = successor;
+      successor = getSuccessors(node).get(pBinding);
+    }
+    addCandidate(segment, pBinding);
+  }
+
+  private void countInternalLink(final Map<Integer, Integer> pCounts, final SMGObject pNode, final int pOffset) {
+    SMGEdgeHasValue link = getLink(pNode, pOffset);
+    Integer count = pCounts.get(link.getValue());
+    if (count == null) {
+      pCounts.put(link.getValue(), 1);
+    } else {
+      pCounts.put(link.getValue(), count + 1);
+    }
+  }
+
+  private void addCandidate(final List<SMGObject> pSegment, final Binding pBinding) {
+    if (pSegment.size() < 2 || pSegment.size() <= seqLengthThreshold) {
+      return;
+    }
+
+    Map<Integer, Integer> internalLinks = new HashMap<>();
+    for (int i = 1; i < pSegment.size(); i++) {
+      countInternalLink(internalLinks, pSegment.get(i - 1), pBinding.next);
+      countInternalLink(internalLinks, pSegment.get(i), pBinding.prev);
+    }
+
+    Set<Integer> internalValues = new HashSet<>();
+    boolean[] pointedFromOutside = new boolean[pSegment.size()];
+    for (int i = 0; i < pSegment.size(); i++) {
+      for (SMGEdgePointsTo pt : smg.getPTEdges(pSegment.get(i))) {
+        Integer internal = internalLinks.get(pt.getValue());
+        if (internal != null && internal == getInboundPointers(pt.getValue())) {
+          internalValues.add(pt.getValue());
+        } else {
+          pointedFromOutside[i] = true;
+        }
+      }
+    }
+
+    // Orient the segment so that it is entered through its first node. When both or neither ends are pointed to,
+    // the orientation with the next pointer before the prev pointer is preferred, so that the result does not
+    // depend on the direction of the walk.
+    boolean reverse = pBinding.next > pBinding.prev;
+    if (pointedFromOutside[0] != pointedFromOutside[pSegment.size() - 1]) {
+      reverse = !pointedFromOutside[0];
+    }
+
+    List<SMGObject> nodes = pSegment;
+    Binding binding = pBinding;
+    if (reverse) {
+      nodes = new ArrayList<>(pSegment);
+      Collections.reverse(nodes);
+      binding = pBinding.reversed();
+    }
+    candidates.add(new SMGDoublyLinkedListCandidate(nodes, binding.next, binding.prev, binding.head,
+                                                    internalValues));
+  }
+}
@@ -27,11 +27,15 @@ import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.objects.SMGObjectVisitor;
 import cz.afri.smg.objects.SMGRegion;
 
+/**
+ * Abstract segment of a singly-linked list. The length is a lower bound: a segment of length N stands for N or
+ * more nodes (N+). Segments are immutable, concretisation replaces them by new, shorter ones.
+ */
 public final class SMGSingleLinkedList extends SMGAbstractObject {
-  private int length;
+  private final int length;
 
   // TODO: Binding is likely to be more complicated later
-  private int bindingOffset;
+  private final int bindingOffset;
 
   public SMGSingleLinkedList(final SMGRegion pPrototype, final int pOffset, final int pLength) {
     super(pPrototype.getSize(), "SLL");
@@ -40,9 +44,16 @@ public final class SMGSingleLinkedList extends SMGAbstractObject {
   }
 
   public SMGSingleLinkedList(final SMGSingleLinkedList pOriginal) {
+    this(pOriginal, pOriginal.length);
+  }
+
+  /**
+   * Creates a segment of the same shape as {@link pOriginal}, with a different minimal length.
+   */
+  public SMGSingleLinkedList(final SMGSingleLinkedList pOriginal, final int pLength) {
     super(pOriginal);
     bindingOffset = pOriginal.bindingOffset;
-    length = pOriginal.length;
+    length = pLength;
   }
 
   // TODO: Abstract interface???
@@ -54,11 +65,6 @@ public final class SMGSingleLinkedList extends SMGAbstractObject {
     return bindingOffset;
   }
 
-  public int addLength(final int pLen) {
-    length += pLen;
-    return length;
-  }
-
   @Override
   public String toString() {
     return "SLL(size=" + getSize() + ", bindingOffset=" + bindingOffset + ", len=" + length + ")";
@@ -21,8 +21,13 @@
  */
 package cz.afri.smg.objects.sll;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Iterables;
 
 import cz.afri.smg.abstraction.SMGAbstractionCandidate;
 import cz.afri.smg.graphs.ReadableSMG;
@@ -35,48 +40,47 @@ import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.objects.SMGRegion;
 import cz.afri.smg.types.CPointerType;
 import cz.afri.smg.types.CType;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 class SMGSingleLinkedListCandidate implements SMGAbstractionCandidate {
+  /** Every node merged into the segment takes its object, its next pointer and its address with it. */
+  private static final int REMOVED_PER_NODE = 3;
+
   private final SMGObject start;
   private final int offset;
   private int length;
+  private Set<SMGObject> objects = new HashSet<>();
 
   public SMGSingleLinkedListCandidate(final SMGObject pStart, final int pOffset, final int pLength) {
     start = pStart;
     offset = pOffset;
     length = pLength;
+    objects.add(pStart);
   }
 
   @Override
   public final int getScore() {
-    return 0;
+    return (length - 1) * REMOVED_PER_NODE;
   }
 
-  @SuppressFBWarnings(value = "WMI_WRONG_MAP_ITERATOR", justification = "We need to iterate over keys here")
   @Override
   public final ReadableSMG execute(final ReadableSMG pSMG) {
-    // TMP: This will result in a new SMG
     WritableSMG newSMG = SMGFactory.createWritableCopy(pSMG);
+    apply(newSMG);
+    return newSMG;
+  }
 
-    // TMP: Create an appropriate SLL and add it to new SMG
+  @Override
+  public final void apply(final WritableSMG pSMG) {
+    // TMP: Create an appropriate SLL and add it to the SMG
     SMGSingleLinkedList sll = new SMGSingleLinkedList((SMGRegion) start, offset, length);
-    newSMG.addHeapObject(sll);
-
-    Map<SMGEdgePointsTo, SMGEdgePointsTo> toReplace = new HashMap<>();
-
-    // TMP: Replace all edges pointing to starting element with ones leading to the SLL
-    //TODO: Better filtering of the pointers!!!
-    for (SMGEdgePointsTo pt : newSMG.getPTEdges()) {
-      if (pt.getObject().equals(start)) {
-        SMGEdgePointsTo newPt = new SMGEdgePointsTo(pt.getValue(), sll, pt.getOffset());
-        toReplace.put(pt, newPt);
-      }
-    }
-
-    for (SMGEdgePointsTo pt : toReplace.keySet()) {
-      newSMG.removePointsToEdge(pt.getValue());
-      newSMG.addPointsToEdge(toReplace.get(pt));
+    pSMG.addHeapObject(sll);
+
+    // Replace all edges pointing to starting element with ones leading to the SLL
+    List<SMGEdgePointsTo> toReplace = new ArrayList<>();
+    Iterables.addAll(toReplace, pSMG.getPTEdges(start));
+    for (SMGEdgePointsTo pt : toReplace) {
+      pSMG.removePointsToEdge(pt.getValue());
+      pSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), sll, pt.getOffset()));
     }
 
     SMGObject node = start;
@@ -84,12 +88,12 @@ class SMGSingleLinkedListCandidate implements SMGAbstractionCandidate {
     SMGEdgeHasValue edgeToFollow = null;
     for (int i = 0; i < length; i++) {
       if (value != null) {
-        newSMG.removePointsToEdge(value);
-        newSMG.removeValue(value);
+        pSMG.removePointsToEdge(value);
+        pSMG.removeValue(value);
       }
 
       SMGEdgeHasValueFilter filter = SMGEdgeHasValueFilter.objectFilter(node).filterAtOffset(offset);
-      Iterable<SMGEdgeHasValue> outboundEdges = newSMG.getHVEdges(filter);
+      Iterable<SMGEdgeHasValue> outboundEdges = pSMG.getHVEdges(filter);
       edgeToFollow = null;
       for (SMGEdgeHasValue outbound : outboundEdges) {
         CType fieldType = outbound.getType();
@@ -98,17 +102,15 @@ class SMGSingleLinkedListCandidate implements SMGAbstractionCandidate {
         }
       }
       if (edgeToFollow == null) {
-        edgeToFollow = new SMGEdgeHasValue(CPointerType.getVoidPointer(), offset, node, newSMG.getNullValue());
+        edgeToFollow = new SMGEdgeHasValue(CPointerType.getVoidPointer(), offset, node, pSMG.getNullValue());
       }
 
       value = edgeToFollow.getValue();
-      newSMG.removeHeapObject(node);
-      node = newSMG.getPointer(value).getObject();
+      pSMG.removeHeapObject(node);
+      node = pSMG.getPointer(value).getObject();
     }
     SMGEdgeHasValue newOutbound = new SMGEdgeHasValue(edgeToFollow.getType(), offset, sll, value);
-    newSMG.addHasValueEdge(newOutbound);
-
-    return newSMG;
+    pSMG.addHasValueEdge(newOutbound);
   }
 
   public final int getOffset() {
@@ -123,6 +125,29 @@ class SMGSingleLinkedListCandidate implements SMGAbstractionCandidate {
     length += pLength;
   }
 
+  /**
+   * Appends the list segment described by another candidate, which starts at the successor of this
+   * candidate's last node. The other candidate must not be used afterwards, its object set may be taken over.
+   *
+   * @param pOther Candidate to absorb
+   */
+  public final void absorb(final SMGSingleLinkedListCandidate pOther) {
+    length += pOther.length;
+    if (pOther.objects.size() > objects.size()) {
+      // Merge the smaller set into the larger one, so that chaining a list is linear in its length
+      Set<SMGObject> own = objects;
+      objects = pOther.objects;
+      objects.addAll(own);
+    } else {
+      objects.addAll(pOther.objects);
+    }
+  }
+
+  @Override
+  public final Set<SMGObject> getObjects() {
+    return Collections.unmodifiableSet(objects);
+  }
+
   public final boolean isCompatibleWith(final SMGSingleLinkedListCandidate pOther) {
     return (offset == pOther.offset) && (start.getSize() == pOther.start.getSize());
   }
@@ -20,27 +20,29 @@
 
 package cz.afri.smg.objects.sll;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
 import cz.afri.smg.abstraction.SMGConcretisation;
+import cz.afri.smg.abstraction.SMGConcretisationCases;
+import cz.afri.smg.abstraction.SMGConcretisationResult;
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
 import cz.afri.smg.graphs.SMGEdgePointsTo;
 import cz.afri.smg.graphs.SMGFactory;
-import cz.afri.smg.graphs.SMGValueFactory;
 import cz.afri.smg.graphs.WritableSMG;
 import cz.afri.smg.objects.SMGRegion;
 import cz.afri.smg.types.CPointerType;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 class SMGSingleLinkedListConcretisation implements SMGConcretisation {
+  /** A concretised first item, and possibly an empty segment. */
+  private static final int CASES = 2;
 
   private final SMGSingleLinkedList sll;
 
@@ -48,86 +50,130 @@ class SMGSingleLinkedListConcretisation implements SMGConcretisation {
     sll = pSll;
   }
 
-  @SuppressFBWarnings(value = "WMI_WRONG_MAP_ITERATOR", justification = "We need to iterate over keys here")
   @Override
   public final Set<ReadableSMG> execute(final ReadableSMG pSMG) {
-    Set<ReadableSMG> resultSet = new HashSet<>();
+    return Sets.newHashSet(execute(pSMG, sll.getOffset()));
+  }
+
+  @Override
+  public final SMGConcretisationResult execute(final ReadableSMG pSMG, final SMGBudget pBudget) {
+    return execute(pSMG, sll.getOffset()).compute(pBudget);
+  }
+
+  /**
+   * Only the first item of the segment is addressable, so it is the one concretised regardless of the offset.
+   */
+  @Override
+  public final SMGConcretisationCases execute(final ReadableSMG pSMG, final int pOffset) {
+    return new SMGConcretisationCases(CASES) {
+      @Override
+      protected ReadableSMG computeCase(final int pCase) {
+        if (pCase == 0) {
+          return materialiseFirst(pSMG);
+        }
+        // For SLL of length 0+, there is a case, when it had length 0 and can be
+        // removed though
+        if (sll.getLength() == 0 && mayBeEmpty(pSMG)) {
+          return removeSll(pSMG);
+        }
+        return null;
+      }
+    };
+  }
 
+  /**
+   * @return Value of the next pointer of the last list item, or null if the segment has no next pointer
+   */
+  private Integer getSuccessor(final ReadableSMG pSMG) {
+    SMGEdgeHasValueFilter filter = SMGEdgeHasValueFilter.objectFilter(sll).filterAtOffset(sll.getOffset())
+        .filterByType(CPointerType.getVoidPointer());
+    if (Iterables.isEmpty(pSMG.getHVEdges(filter))) {
+      return null;
+    }
+    return pSMG.getUniqueHV(filter, false).getValue();
+  }
+
+  /**
+   * An empty segment would make the pointers to it equal to its successor, which is infeasible if any of them
+   * is known to differ from the successor.
+   */
+  private boolean mayBeEmpty(final ReadableSMG pSMG) {
+    Integer successor = getSuccessor(pSMG);
+    if (successor == null) {
+      return true;
+    }
+    for (SMGEdgePointsTo pt : pSMG.getPTEdges(sll)) {
+      if (pSMG.haveNeqRelation(pt.getValue(), successor)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Replaces the segment by a new concrete region followed by a new segment one item shorter. The segment itself
+   * may be shared with other SMGs, so it is left untouched.
+   */
+  private WritableSMG materialiseFirst(final ReadableSMG pSMG) {
     WritableSMG newSMG = SMGFactory.createWritableCopy(pSMG);
 
-    // Create new concrete object
+    List<SMGEdgePointsTo> pointers = new ArrayList<>();
+    Iterables.addAll(pointers, newSMG.getPTEdges(sll));
+    List<SMGEdgeHasValue> fields = new ArrayList<>();
+    Iterables.addAll(fields, newSMG.getHVEdges(SMGEdgeHasValueFilter.objectFilter(sll)));
+    newSMG.removeHeapObject(sll);
+
+    // Create new concrete object and the shortened SLL
     SMGRegion region = new SMGRegion(sll.getSize(), sll.getLabel() + "_element");
     newSMG.addHeapObject(region);
+    SMGSingleLinkedList shorter = new SMGSingleLinkedList(sll, Math.max(sll.getLength() - 1, 0));
+    newSMG.addHeapObject(shorter);
 
-    // Replace all edges pointing to SLL with ones pointing to new region
-    Map<SMGEdgePointsTo, SMGEdgePointsTo> toReplace = new HashMap<>();
-    for (SMGEdgePointsTo pt : newSMG.getPTEdges()) {
-      if (pt.getObject().equals(sll)) {
-        SMGEdgePointsTo newPt = new SMGEdgePointsTo(pt.getValue(), region, sll.getOffset());
-        toReplace.put(pt, newPt);
-      }
+    // Pointers to SLL now point to new region, the next pointer of the last item stays with the SLL
+    for (SMGEdgePointsTo pt : pointers) {
+      newSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), region, sll.getOffset()));
     }
-
-    for (SMGEdgePointsTo pt : toReplace.keySet()) {
-      newSMG.removePointsToEdge(pt.getValue());
-      newSMG.addPointsToEdge(toReplace.get(pt));
+    for (SMGEdgeHasValue hv : fields) {
+      newSMG.addHasValueEdge(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), shorter, hv.getValue()));
     }
 
     // Create new connection between new region and SLL
-    Integer newValue = SMGValueFactory.getNewValue();
+    Integer newValue = newSMG.getContext().getNewValue();
     newSMG.addValue(newValue);
     SMGEdgeHasValue newValueHv = new SMGEdgeHasValue(new CPointerType(), sll.getOffset(), region, newValue);
     newSMG.addHasValueEdge(newValueHv);
-    SMGEdgePointsTo newValuePt = new SMGEdgePointsTo(newValue, sll, sll.getOffset());
+    SMGEdgePointsTo newValuePt = new SMGEdgePointsTo(newValue, shorter, sll.getOffset());
     newSMG.addPointsToEdge(newValuePt);
 
-    if (sll.getLength() > 0) {
-      // Shorten SLL
-      sll.addLength(-1);
-    } else {
-      // For SLL of length 0+, there is a case, when it had length 0 and can be
-      // removed though
-      WritableSMG newSMGWithoutSll = SMGFactory.createWritableCopy(pSMG);
-
-      Integer value;
-      if (Iterables.isEmpty(newSMGWithoutSll.getHVEdges(SMGEdgeHasValueFilter.objectFilter(sll)
-          .filterAtOffset(sll.getOffset()).filterByType(CPointerType.getVoidPointer())))) {
-        // Create new value
-        value = SMGValueFactory.getNewValue();
-        newSMGWithoutSll.addValue(value);
-      } else {
-        // Get outbound edge at binding offset (next pointer of last list item)
-        value = newSMGWithoutSll.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(sll).filterAtOffset(sll.getOffset())
-            .filterByType(CPointerType.getVoidPointer()), false).getValue();
-      }
+    return newSMG;
+  }
 
-      for (SMGEdgePointsTo pt : newSMGWithoutSll.getPTEdges()) {
-        if (pt.getObject().equals(sll)) {
-          SMGEdgeHasValueFilter filter = new SMGEdgeHasValueFilter().filterHavingValue(pt.getValue());
-          SMGEdgeHasValue oldHv = newSMGWithoutSll.getUniqueHV(filter, false);
-          SMGEdgeHasValue newHv = new SMGEdgeHasValue(CPointerType.getVoidPointer(), sll.getOffset(), oldHv.getObject(),
-              value);
-          newSMGWithoutSll.addHasValueEdge(newHv);
-          newSMGWithoutSll.removeHasValueEdge(oldHv);
-          newSMGWithoutSll.removePointsToEdge(oldHv.getValue());
-          newSMGWithoutSll.removeValue(oldHv.getValue());
-        }
-      }
+  private WritableSMG removeSll(final ReadableSMG pSMG) {
+    WritableSMG newSMGWithoutSll = SMGFactory.createWritableCopy(pSMG);
 
-      // Remove SLL and all appropriate edges
-      SMGEdgeHasValueFilter filter = SMGEdgeHasValueFilter.objectFilter(sll);
-      Set<SMGEdgeHasValue> toRemove = Sets.newHashSet(newSMGWithoutSll.getHVEdges(filter));
-      for (SMGEdgeHasValue hv : toRemove) {
-        newSMGWithoutSll.removeHasValueEdge(hv);
-      }
-      newSMGWithoutSll.removeHeapObject(sll);
+    Integer value = getSuccessor(newSMGWithoutSll);
+    if (value == null) {
+      // Create new value
+      value = newSMGWithoutSll.getContext().getNewValue();
+      newSMGWithoutSll.addValue(value);
+    }
 
-      resultSet.add(newSMGWithoutSll);
+    List<SMGEdgePointsTo> pointers = new ArrayList<>();
+    Iterables.addAll(pointers, newSMGWithoutSll.getPTEdges(sll));
+    for (SMGEdgePointsTo pt : pointers) {
+      SMGEdgeHasValueFilter filter = new SMGEdgeHasValueFilter().filterHavingValue(pt.getValue());
+      SMGEdgeHasValue oldHv = newSMGWithoutSll.getUniqueHV(filter, false);
+      SMGEdgeHasValue newHv = new SMGEdgeHasValue(oldHv.getType(), oldHv.getOffset(), oldHv.getObject(), value);
+      newSMGWithoutSll.addHasValueEdge(newHv);
+      newSMGWithoutSll.removeHasValueEdge(oldHv);
+      newSMGWithoutSll.removePointsToEdge(oldHv.getValue());
+      newSMGWithoutSll.removeValue(oldHv.getValue());
     }
 
-    resultSet.add(newSMG);
+    // Remove SLL and all appropriate edges
+    newSMGWithoutSll.removeHeapObject(sll);
 
-    return resultSet;
+    return newSMGWithoutSll;
   }
 
   public final SMGSingleLinkedList getSll() {
@@ -21,20 +21,21 @@
  */
 package cz.afri.smg.objects.sll;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
-import com.google.common.collect.Iterables;
-
 import cz.afri.smg.abstraction.SMGAbstractionCandidate;
 import cz.afri.smg.abstraction.SMGAbstractionFinder;
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
-import cz.afri.smg.graphs.SMGEdgePointsTo;
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.types.CPointerType;
 
@@ -56,12 +57,30 @@ public class SMGSingleLinkedListFinder implements SMGAbstractionFinder {
 
   @Override
   public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg) {
+    return traverse(pSmg, pSmg.getHeapObjects());
+  }
+
+  @Override
+  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg, final Set<SMGObject> pScope) {
+    return traverse(pSmg, pScope, SMGBudget.unlimited());
+  }
+
+  @Override
+  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg, final Set<SMGObject> pScope,
+                                                     final SMGBudget pBudget) {
     smg = pSmg;
+    candidates.clear();
 
     buildInboundPointers();
 
-    for (SMGObject object : smg.getHeapObjects()) {
-      startTraversal(object);
+    Set<SMGObject> heap = smg.getHeapObjects();
+    for (SMGObject object : pScope) {
+      if (pBudget.isExhausted()) {
+        break;
+      }
+      if (heap.contains(object)) {
+        startTraversal(object);
+      }
     }
 
     Set<SMGAbstractionCandidate> returnSet = new HashSet<>();
@@ -75,40 +94,84 @@ public class SMGSingleLinkedListFinder implements SMGAbstractionFinder {
     return Collections.unmodifiableSet(returnSet);
   }
 
+  /**
+   * Counts the Has-Value edges of every value in a single sweep over the edges.
+   */
   private void buildInboundPointers() {
-    for (SMGEdgePointsTo pt : smg.getPTEdges()) {
-      int pointer = pt.getValue();
-      Iterable<SMGEdgeHasValue> hvEdges = smg.getHVEdges(new SMGEdgeHasValueFilter().filterHavingValue(pointer));
-      inboundPointers.put(pointer, Iterables.size(hvEdges));
+    inboundPointers.clear();
+    for (SMGEdgeHasValue hv : smg.getHVEdges()) {
+      Integer count = inboundPointers.get(hv.getValue());
+      if (count == null) {
+        inboundPointers.put(hv.getValue(), 1);
+      } else {
+        inboundPointers.put(hv.getValue(), count + 1);
+      }
     }
   }
 
+  /**
+   * Traversal state of a single object: its remaining fields and the candidate started from the field followed
+   * last, which is chained with the successor once the successor is processed.
+   */
+  private static final class Frame {
+    private final SMGObject object;
+    private final Iterator<SMGEdgeHasValue> fields;
+    private SMGSingleLinkedListCandidate pending = null;
+    private int pendingValue;
+
+    private Frame(final SMGObject pObject, final Iterator<SMGEdgeHasValue> pFields) {
+      object = pObject;
+      fields = pFields;
+    }
+  }
+
+  private Frame enter(final SMGObject pObject) {
+    candidates.put(pObject, new HashMap<Integer, SMGSingleLinkedListCandidate>());
+    return new Frame(pObject, smg.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pObject)).iterator());
+  }
+
+  /**
+   * Depth-first traversal from an object, following every pointer field. A candidate started in a field is
+   * chained with the successor after the successor has been processed. The traversal uses an explicit stack, so
+   * lists of any length can be processed.
+   */
   private void startTraversal(final SMGObject pObject) {
     if (candidates.containsKey(pObject)) {
-      // Processed already in continueTraversal
+      // Processed already while traversing from another object
       return;
     }
-    candidates.put(pObject, new HashMap<Integer, SMGSingleLinkedListCandidate>());
-    for (SMGEdgeHasValue hv : smg.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pObject))) {
-      if (smg.isPointer(hv.getValue())) {
-        SMGSingleLinkedListCandidate candidate = new SMGSingleLinkedListCandidate(pObject, hv.getOffset(), 1);
-        candidates.get(pObject).put(hv.getOffset(), candidate);
-        continueTraversal(hv.getValue(), candidate);
+
+    Deque<Frame> stack = new ArrayDeque<>();
+    stack.push(enter(pObject));
+    while (!stack.isEmpty()) {
+      Frame frame = stack.peek();
+      if (frame.pending != null) {
+        continueTraversal(frame.pendingValue, frame.pending);
+        frame.pending = null;
+      } else if (!frame.fields.hasNext()) {
+        stack.pop();
+      } else {
+        SMGEdgeHasValue hv = frame.fields.next();
+        if (smg.isPointer(hv.getValue())) {
+          SMGSingleLinkedListCandidate candidate = new SMGSingleLinkedListCandidate(frame.object, hv.getOffset(), 1);
+          candidates.get(frame.object).put(hv.getOffset(), candidate);
+          frame.pending = candidate;
+          frame.pendingValue = hv.getValue();
+          SMGObject successor = smg.getPointer(hv.getValue()).getObject();
+          if (!candidates.containsKey(successor)) {
+            stack.push(enter(successor));
+          }
+        }
       }
     }
   }
 
   private void continueTraversal(final int pValue, final SMGSingleLinkedListCandidate pCandidate) {
-    SMGEdgePointsTo pt = smg.getPointer(pValue);
-    SMGObject object = pt.getObject();
-    if (!candidates.containsKey(object)) {
-      startTraversal(object);
-    }
-
     if (inboundPointers.get(pValue) > 1) {
       return;
     }
 
+    SMGObject object = smg.getPointer(pValue).getObject();
     Map<Integer, SMGSingleLinkedListCandidate> objectCandidates = candidates.get(object);
     Integer offset = pCandidate.getOffset();
 
@@ -123,7 +186,7 @@ public class SMGSingleLinkedListFinder implements SMGAbstractionFinder {
       SMGSingleLinkedListCandidate myCandidate = objectCandidates.get(offset);
       if (pCandidate.isCompatibleWith(myCandidate)) {
         objectCandidates.remove(offset);
-        pCandidate.addLength(myCandidate.getLength());
+        pCandidate.absorb(myCandidate);
       }
     }
   }
@@ -31,15 +31,24 @@ import cz.afri.smg.objects.SMGRegion;
 public class SimpleBinaryTree extends SMGAbstractObject {
   public SimpleBinaryTree(final SMGRegion pPrototype, final int lOffset, final int rOffset, final int pDepth) {
     super(pPrototype.getSize(), "Simple Binary Tree");
+    leftOffset = lOffset;
+    rightOffset = rOffset;
     depth = pDepth;
   }
 
+  private final int leftOffset;
+  private final int rightOffset;
   private final int depth;
 
   public final int getDepth() {
     return depth;
   }
 
+  @Override
+  public final String toString() {
+    return "TREE(size=" + getSize() + ", left=" + leftOffset + ", right=" + rightOffset + ", depth=" + depth + ")";
+  }
+
   @Override
   public final boolean matchGenericShape(final SMGAbstractObject pOther) {
     // TODO Auto-generated method stub
@@ -22,7 +22,14 @@
 package cz.afri.smg.objects.tree;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Iterables;
 
 import cz.afri.smg.abstraction.SMGAbstractionCandidate;
 import cz.afri.smg.graphs.ReadableSMG;
@@ -37,16 +44,23 @@ import cz.afri.smg.types.CPointerType;
 
 
 class SimpleBinaryTreeCandidate implements SMGAbstractionCandidate {
+  /** Every node merged into the tree takes its object, its address and both child pointers with it. */
+  private static final int REMOVED_PER_NODE = 4;
+
   private final TreeBinding binding;
   private int depth;
   private final SMGObject root;
   private Boolean suitable = null;
+  private final Set<SMGObject> objects = new HashSet<>();
 
   public SimpleBinaryTreeCandidate(final SMGObject pRoot, final int pLowOffset, final int pHighOffset,
                                    final int pDepth) {
     root = pRoot;
     depth = pDepth;
     binding = new TreeBinding(pLowOffset, pHighOffset, root.getSize());
+    if (root.notNull()) {
+      objects.add(root);
+    }
   }
 
   @Override
@@ -57,8 +71,7 @@ class SimpleBinaryTreeCandidate implements SMGAbstractionCandidate {
 
   @Override
   public final int getScore() {
-    // TODO Auto-generated method stub
-    return 0;
+    return (objects.size() - 1) * REMOVED_PER_NODE;
   }
 
   private void cleanSubtreeAtOffset(final WritableSMG pSMG, final Deque<SMGObject> pStack, final SMGObject pOrigin,
@@ -88,21 +101,27 @@ class SimpleBinaryTreeCandidate implements SMGAbstractionCandidate {
   @Override
   public final ReadableSMG execute(final ReadableSMG pSMG) {
     WritableSMG newSMG = SMGFactory.createWritableCopy(pSMG);
+    apply(newSMG);
+    return newSMG;
+  }
+
+  @Override
+  public final void apply(final WritableSMG pSMG) {
     SimpleBinaryTree tree = new SimpleBinaryTree(new SMGRegion(root.getSize(), "TREE"), binding.getLowerOffset(),
     		                                     binding.getHigherOffset(), depth);
-    newSMG.addHeapObject(tree);
-    newSMG.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), binding.getLowerOffset(), tree,
-    		                                   newSMG.getNullValue()));
-    newSMG.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), binding.getHigherOffset(), tree,
-    		                                   newSMG.getNullValue()));
-    for (SMGEdgePointsTo pt : pSMG.getPTEdges()) {
-      if (pt.getObject().equals(root)) {
-        newSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), tree, pt.getOffset()));
-      }
+    List<SMGEdgePointsTo> toRoot = new ArrayList<>();
+    Iterables.addAll(toRoot, pSMG.getPTEdges(root));
+
+    pSMG.addHeapObject(tree);
+    pSMG.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), binding.getLowerOffset(), tree,
+    		                                   pSMG.getNullValue()));
+    pSMG.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), binding.getHigherOffset(), tree,
+    		                                   pSMG.getNullValue()));
+    for (SMGEdgePointsTo pt : toRoot) {
+      pSMG.addPointsToEdge(new SMGEdgePointsTo(pt.getValue(), tree, pt.getOffset()));
     }
 
-    cleanAbstractedObjects(newSMG);
-    return newSMG;
+    cleanAbstractedObjects(pSMG);
   }
 
   public final TreeBinding getBinding() {
@@ -140,6 +159,13 @@ class SimpleBinaryTreeCandidate implements SMGAbstractionCandidate {
     } else {
       depth = depth + pTwo.getDepth();
     }
+    objects.addAll(pOne.objects);
+    objects.addAll(pTwo.objects);
+  }
+
+  @Override
+  public final Set<SMGObject> getObjects() {
+    return Collections.unmodifiableSet(objects);
   }
 }
 
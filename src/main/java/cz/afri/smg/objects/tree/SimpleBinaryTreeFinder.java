@@ -29,13 +29,14 @@ import java.util.Set;
 import cz.afri.smg.abstraction.SMGAbstractionCandidate;
 import cz.afri.smg.abstraction.SMGAbstractionFinder;
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.types.CPointerType;
 
 
-class SimpleBinaryTreeFinder implements SMGAbstractionFinder {
+public class SimpleBinaryTreeFinder implements SMGAbstractionFinder {
 
   private ReadableSMG smg;
   private Map<SMGObject, Map<TreeBinding, SimpleBinaryTreeCandidate>> bindings = new HashMap<>();
@@ -45,6 +46,13 @@ class SimpleBinaryTreeFinder implements SMGAbstractionFinder {
     return "SimpleBinaryTreeFinder";
   }
 
+  private Map<TreeBinding, SimpleBinaryTreeCandidate> getBindings(final SMGObject pObject) {
+    if (!bindings.containsKey(pObject)) {
+      collectObviousBindingsOnObject(pObject);
+    }
+    return bindings.get(pObject);
+  }
+
   private void collectObviousBindingsOnObject(final SMGObject pObject) {
     Iterable<SMGEdgeHasValue> outerEdges = smg.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pObject));
     Iterable<SMGEdgeHasValue> innerEdges = smg.getHVEdges(SMGEdgeHasValueFilter.objectFilter(pObject));
@@ -67,12 +75,6 @@ class SimpleBinaryTreeFinder implements SMGAbstractionFinder {
     }
   }
 
-  private void collectObviousBindings() {
-    for (SMGObject object : smg.getHeapObjects()) {
-      collectObviousBindingsOnObject(object);
-    }
-  }
-
   private SMGObject getSuccessorOnOffset(final SMGObject pNode, final int pOffset) {
     SMGEdgeHasValueFilter filter = SMGEdgeHasValueFilter.objectFilter(pNode).filterAtOffset(pOffset);
     Iterable<SMGEdgeHasValue> edgesOnOffset = smg.getHVEdges(filter);
@@ -94,7 +96,7 @@ class SimpleBinaryTreeFinder implements SMGAbstractionFinder {
       return candidate;
     }
 
-    Map<TreeBinding, SimpleBinaryTreeCandidate> myCandidates = bindings.get(pNode);
+    Map<TreeBinding, SimpleBinaryTreeCandidate> myCandidates = getBindings(pNode);
     if (!myCandidates.containsKey(binding)) {
       myCandidates.put(binding, new SimpleBinaryTreeCandidate(pNode, binding.getLowerOffset(),
                                                               binding.getHigherOffset(), 1));
@@ -117,7 +119,7 @@ class SimpleBinaryTreeFinder implements SMGAbstractionFinder {
   }
 
   private void processNode(final SMGObject pObject) {
-    for (SimpleBinaryTreeCandidate candidate : bindings.get(pObject).values()) {
+    for (SimpleBinaryTreeCandidate candidate : getBindings(pObject).values()) {
       if (candidate.isProcessed()) {
         continue;
       }
@@ -126,17 +128,30 @@ class SimpleBinaryTreeFinder implements SMGAbstractionFinder {
     }
   }
 
-  private void processAllNodes() {
-    for (SMGObject object : smg.getHeapObjects()) {
-      processNode(object);
-    }
+  @Override
+  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg) {
+    return traverse(pSmg, pSmg.getHeapObjects());
   }
 
   @Override
-  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg) {
+  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg, final Set<SMGObject> pScope) {
+    return traverse(pSmg, pScope, SMGBudget.unlimited());
+  }
+
+  @Override
+  public final Set<SMGAbstractionCandidate> traverse(final ReadableSMG pSmg, final Set<SMGObject> pScope,
+                                                     final SMGBudget pBudget) {
     smg = pSmg;
-    collectObviousBindings();
-    processAllNodes();
+    bindings.clear();
+    Set<SMGObject> heap = smg.getHeapObjects();
+    for (SMGObject object : pScope) {
+      if (pBudget.isExhausted()) {
+        break;
+      }
+      if (heap.contains(object)) {
+        processNode(object);
+      }
+    }
     Set<SMGAbstractionCandidate> found = new HashSet<>();
     for (Map<TreeBinding, SimpleBinaryTreeCandidate> map : bindings.values()) {
       for (SimpleBinaryTreeCandidate candidate : map.values()) {
@@ -0,0 +1,173 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+import cz.afri.smg.abstraction.SMGAbstractionCache;
+import cz.afri.smg.abstraction.SMGAbstractionFinder;
+import cz.afri.smg.abstraction.SMGAbstractionManager;
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGFingerprint;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.objects.sll.SMGSingleLinkedList;
+import cz.afri.smg.objects.sll.SMGSingleLinkedListFinder;
+import cz.afri.smg.objects.sll.TestHelpers;
+
+public class SMGAbstractionCacheTest {
+  private static final int SIZE16 = 16;
+  private static final int OFFSET8 = 8;
+  private static final int ITEMS = 20;
+
+  private SMGAbstractionCache cache;
+
+  @Before
+  public final void setUp() {
+    cache = new SMGAbstractionCache();
+  }
+
+  private static WritableSMG createSMG(final int pItems) {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    TestHelpers.createGlobalList(smg, pItems, SIZE16, OFFSET8, "pointer");
+    return smg;
+  }
+
+  private SMGAbstractionManager createManager(final ReadableSMG pSMG) {
+    List<SMGAbstractionFinder> finders = ImmutableList.<SMGAbstractionFinder>of(new SMGSingleLinkedListFinder());
+    return new SMGAbstractionManager(pSMG, finders, null, cache);
+  }
+
+  @Test
+  public final void hitTest() {
+    ReadableSMG first = createManager(createSMG(ITEMS)).execute();
+
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    SMGEdgeHasValue root = TestHelpers.createGlobalList(smg, ITEMS, SIZE16, OFFSET8, "pointer");
+    SMGAbstractionManager manager = createManager(smg);
+    ReadableSMG second = manager.execute();
+
+    Assert.assertEquals(1, cache.getStats().missCount());
+    Assert.assertEquals(1, cache.getStats().hitCount());
+    Assert.assertTrue(manager.isComplete());
+    Assert.assertEquals(new SMGFingerprint(first), new SMGFingerprint(second));
+
+    // The result is made of the objects and values of the caller
+    SMGObject global = root.getObject();
+    Assert.assertSame(global, second.getObjectForVisibleVariable("pointer"));
+    Assert.assertTrue(second.getValues().contains(root.getValue()));
+    Assert.assertTrue(second.getPointer(root.getValue()).getObject() instanceof SMGSingleLinkedList);
+    Assert.assertEquals(Sets.newHashSet(first.getNullValue()),
+                        Sets.intersection(first.getValues(), second.getValues()));
+
+    // The original SMG is kept intact
+    Assert.assertEquals(ITEMS + 1, smg.getHeapObjects().size());
+  }
+
+  @Test
+  public final void replayOnCallerObjectsTest() {
+    WritableSMG firstSMG = createSMG(ITEMS);
+    TestHelpers.createGlobalList(firstSMG, 1, SIZE16, OFFSET8, "other");
+    ReadableSMG first = createManager(firstSMG).execute();
+
+    WritableSMG smg = createSMG(ITEMS);
+    SMGEdgeHasValue other = TestHelpers.createGlobalList(smg, 1, SIZE16, OFFSET8, "other");
+    SMGObject otherNode = smg.getPointer(other.getValue()).getObject();
+    ReadableSMG second = createManager(smg).execute();
+
+    Assert.assertEquals(1, cache.getStats().hitCount());
+    Assert.assertSame(other.getObject(), second.getObjectForVisibleVariable("other"));
+    Assert.assertSame(otherNode, second.getPointer(other.getValue()).getObject());
+    Assert.assertTrue(second.getHeapObjects().contains(otherNode));
+    for (SMGObject object : first.getHeapObjects()) {
+      if (object instanceof SMGRegion) {
+        Assert.assertFalse(second.getObjects().contains(object));
+      }
+    }
+  }
+
+  @Test
+  public final void garbageNotCachedTest() {
+    WritableSMG smg = createSMG(ITEMS);
+    smg.addHeapObject(new SMGRegion(SIZE16, "garbage"));
+    SMGFingerprint fingerprint = new SMGFingerprint(smg);
+    Assert.assertFalse(fingerprint.isComplete());
+
+    ReadableSMG result = createManager(smg).execute();
+    cache.put(fingerprint, smg, result);
+    Assert.assertEquals(0, cache.size());
+    Assert.assertNull(cache.get(fingerprint, smg));
+  }
+
+  @Test
+  public final void garbageNotLookedUpTest() {
+    for (int i = 0; i < 2; i++) {
+      WritableSMG smg = createSMG(ITEMS);
+      smg.addHeapObject(new SMGRegion(SIZE16, "garbage"));
+      SMGAbstractionManager manager = createManager(smg);
+      ReadableSMG result = manager.execute();
+      Assert.assertTrue(manager.isComplete());
+      Assert.assertTrue(result.getHeapObjects().size() < ITEMS);
+    }
+
+    Assert.assertEquals(0, cache.getStats().requestCount());
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public final void missTest() {
+    createManager(createSMG(ITEMS)).execute();
+    createManager(createSMG(ITEMS + 1)).execute();
+
+    Assert.assertEquals(2, cache.getStats().missCount());
+    Assert.assertEquals(0, cache.getStats().hitCount());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public final void incompleteNotCachedTest() {
+    SMGAbstractionManager manager = createManager(createSMG(ITEMS));
+    manager.execute(SMGBudget.ofSteps(0));
+    Assert.assertFalse(manager.isComplete());
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public final void invalidateTest() {
+    createManager(createSMG(ITEMS)).execute();
+    cache.invalidateAll();
+    createManager(createSMG(ITEMS)).execute();
+
+    Assert.assertEquals(2, cache.getStats().missCount());
+  }
+}
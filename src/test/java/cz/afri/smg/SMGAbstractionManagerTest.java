@@ -21,16 +21,22 @@
  */
 package cz.afri.smg;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
+import cz.afri.smg.abstraction.SMGAbstractionFinder;
 import cz.afri.smg.abstraction.SMGAbstractionManager;
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
 import cz.afri.smg.graphs.SMGEdgePointsTo;
@@ -39,6 +45,7 @@ import cz.afri.smg.graphs.SMGValueFactory;
 import cz.afri.smg.graphs.WritableSMG;
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.objects.sll.SMGSingleLinkedListFinder;
 import cz.afri.smg.types.CPointerType;
 import cz.afri.smg.types.CType;
 
@@ -48,16 +55,20 @@ public class SMGAbstractionManagerTest {
 	private static final int OFFSET8 = 8;
 	private static final int SIZE8 = 8;
 	private static final int SIZE16 = 16;
+  private static final int ITEMS = 20;
   private WritableSMG smg;
 
   @Before
   public final void setUp() {
     smg = SMGFactory.createWritableSMG();
+    addList("pointer", ITEMS);
+  }
 
+  private void addList(final String pGlobal, final int pItems) {
     SMGRegion next = null;
-    final int items = 20;
+    final int items = pItems;
     for (int i = 0; i < items; i++) {
-      SMGRegion node = new SMGRegion(SIZE16, "node " + i);
+      SMGRegion node = new SMGRegion(SIZE16, pGlobal + " node " + i);
       SMGEdgeHasValue hv;
       smg.addHeapObject(node);
       if (next != null) {
@@ -74,7 +85,7 @@ public class SMGAbstractionManagerTest {
     }
 
     int address = SMGValueFactory.getNewValue();
-    SMGRegion globalVar = smg.addGlobalVariable(CType.createTypeWithLength(SIZE8), "pointer");
+    SMGRegion globalVar = smg.addGlobalVariable(CType.createTypeWithLength(SIZE8), pGlobal);
     SMGEdgeHasValue hv = new SMGEdgeHasValue(CPointerType.getVoidPointer(), OFFSET8, globalVar, address);
     SMGEdgePointsTo pt = new SMGEdgePointsTo(address, next, 0);
     smg.addValue(address);
@@ -82,6 +93,13 @@ public class SMGAbstractionManagerTest {
     smg.addHasValueEdge(hv);
   }
 
+  private SMGObject getPointedObject(final ReadableSMG pSMG, final String pGlobal) {
+    SMGRegion globalVar = pSMG.getObjectForVisibleVariable(pGlobal);
+    Iterable<SMGEdgeHasValue> hvs = pSMG.getHVEdges(SMGEdgeHasValueFilter.objectFilter(globalVar));
+    SMGEdgeHasValue hv = Iterables.getOnlyElement(hvs);
+    return pSMG.getPointer(hv.getValue()).getObject();
+  }
+
   @Test
   public final void testExecute() {
     SMGAbstractionManager manager = new SMGAbstractionManager(smg);
@@ -97,4 +115,82 @@ public class SMGAbstractionManagerTest {
     Set<SMGObject> heap = afterAbstraction.getHeapObjects();
     Assert.assertEquals(2, heap.size());
   }
+
+  @Test
+  public final void testExecuteWithoutBudget() {
+    SMGAbstractionManager manager = new SMGAbstractionManager(smg);
+    ReadableSMG afterAbstraction = manager.execute(SMGBudget.ofSteps(0));
+
+    Assert.assertFalse(manager.isComplete());
+    Assert.assertSame(smg, afterAbstraction);
+  }
+
+  @Test
+  public final void testExecuteCancelledSearch() {
+    SMGBudget budget = SMGBudget.unlimited();
+    budget.cancel();
+    SMGAbstractionManager manager = new SMGAbstractionManager(smg);
+    ReadableSMG afterAbstraction = manager.execute(budget);
+
+    Assert.assertFalse(manager.isComplete());
+    Assert.assertSame(smg, afterAbstraction);
+    Assert.assertTrue(new SMGSingleLinkedListFinder().traverse(smg, smg.getHeapObjects(), budget).isEmpty());
+  }
+
+  @Test
+  public final void testExecuteCompletes() {
+    SMGAbstractionManager manager = new SMGAbstractionManager(smg);
+    manager.execute(SMGBudget.unlimited());
+
+    Assert.assertTrue(manager.isComplete());
+  }
+
+  @Test
+  public final void testExecuteMultipleLists() {
+    final String[] globals = {"second", "third"};
+    for (String global : globals) {
+      addList(global, ITEMS);
+    }
+    SMGAbstractionManager manager = new SMGAbstractionManager(smg);
+    ReadableSMG afterAbstraction = manager.execute();
+
+    Assert.assertTrue(manager.isComplete());
+    Assert.assertTrue(getPointedObject(afterAbstraction, "pointer").isAbstract());
+    for (String global : globals) {
+      Assert.assertTrue(getPointedObject(afterAbstraction, global).isAbstract());
+    }
+    Assert.assertEquals(globals.length + 2, afterAbstraction.getHeapObjects().size());
+  }
+
+  @Test
+  public final void testExecuteLargestFirst() {
+    final int longer = 30;
+    addList("longer", longer);
+    SMGAbstractionManager manager = new SMGAbstractionManager(smg);
+    ReadableSMG afterAbstraction = manager.execute(SMGBudget.ofSteps(1));
+
+    Assert.assertFalse(manager.isComplete());
+    Assert.assertTrue(getPointedObject(afterAbstraction, "longer").isAbstract());
+    Assert.assertFalse(getPointedObject(afterAbstraction, "pointer").isAbstract());
+  }
+
+  @Test
+  public final void testExecuteConcurrentFinders() {
+    addList("second", ITEMS);
+    List<SMGAbstractionFinder> finders = ImmutableList.<SMGAbstractionFinder>of(new SMGSingleLinkedListFinder(),
+                                                                                 new SMGSingleLinkedListFinder());
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      SMGAbstractionManager manager = new SMGAbstractionManager(smg, finders, executor);
+      ReadableSMG afterAbstraction = manager.execute();
+
+      Assert.assertTrue(manager.isComplete());
+      Assert.assertTrue(getPointedObject(afterAbstraction, "pointer").isAbstract());
+      Assert.assertTrue(getPointedObject(afterAbstraction, "second").isAbstract());
+      final int expectedHeap = 3;
+      Assert.assertEquals(expectedHeap, afterAbstraction.getHeapObjects().size());
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
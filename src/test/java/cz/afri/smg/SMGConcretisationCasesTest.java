@@ -0,0 +1,98 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+import cz.afri.smg.abstraction.SMGConcretisationCases;
+import cz.afri.smg.abstraction.SMGConcretisationResult;
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.graphs.SMGFactory;
+
+public class SMGConcretisationCasesTest {
+  private static final int CASES = 3;
+
+  private final ReadableSMG smg = SMGFactory.createWritableSMG();
+  private final List<Integer> computed = new ArrayList<>();
+
+  private final SMGConcretisationCases cases = new SMGConcretisationCases(CASES) {
+    @Override
+    protected ReadableSMG computeCase(final int pCase) {
+      computed.add(pCase);
+      if (pCase == 1) {
+        return null;
+      }
+      return smg;
+    }
+  };
+
+  @Test
+  public final void computedOnDemandTest() {
+    Iterator<ReadableSMG> iterator = cases.iterator();
+    Assert.assertTrue(computed.isEmpty());
+
+    Assert.assertSame(smg, iterator.next());
+    Assert.assertEquals(ImmutableList.of(0), computed);
+
+    Assert.assertSame(smg, iterator.next());
+    Assert.assertEquals(ImmutableList.of(0, 1, 2), computed);
+    Assert.assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public final void infeasibleCasesSkippedTest() {
+    Assert.assertEquals(2, Iterables.size(cases));
+  }
+
+  @Test
+  public final void limitedByBudgetTest() {
+    SMGBudget budget = SMGBudget.ofSteps(2);
+    Assert.assertEquals(1, Iterables.size(cases.limitedBy(budget)));
+    Assert.assertEquals(ImmutableList.of(0, 1), computed);
+    Assert.assertTrue(budget.isExhausted());
+
+    budget = SMGBudget.ofSteps(CASES);
+    Assert.assertEquals(2, Iterables.size(cases.limitedBy(budget)));
+    Assert.assertFalse(budget.isExhausted());
+  }
+
+  @Test
+  public final void computeWithBudgetTest() {
+    SMGConcretisationResult partial = cases.compute(SMGBudget.ofSteps(1));
+    Assert.assertFalse(partial.isComplete());
+    Assert.assertEquals(1, partial.getSMGs().size());
+    Assert.assertEquals(ImmutableList.of(0), computed);
+
+    SMGConcretisationResult complete = cases.compute(SMGBudget.ofSteps(CASES));
+    Assert.assertTrue(complete.isComplete());
+    Assert.assertEquals(1, complete.getSMGs().size());
+  }
+}
@@ -57,14 +57,15 @@ public class CLangSMGTest {
   private static final CType TYPE16 = CType.createTypeWithLength(SIZE16);
   private static final CType TYPE32 = CType.createTypeWithLength(SIZE32);
 
+  private static final SMGContext CHECKED_CONTEXT = new SMGContext().withChecks(true);
+
   private static CLangSMG getNewCLangSMG64() {
-    return new CLangSMG();
+    return new CLangSMG(CHECKED_CONTEXT);
   }
 
   @Before
   public final void setUp() {
     sf = new CLangStackFrame(FUNCTION_DECLARATION);
-    CLangSMG.setPerformChecks(true);
   }
 
   @Test
@@ -141,8 +142,7 @@ public class CLangSMGTest {
 
   @Test
   public final void cLangSMGaddHeapObjectTwiceWithoutChecksTest() {
-    CLangSMG.setPerformChecks(false);
-    CLangSMG smg = getNewCLangSMG64();
+    CLangSMG smg = new CLangSMG(new SMGContext());
     SMGRegion obj = new SMGRegion(SIZE8, "label");
 
     smg.addHeapObject(obj);
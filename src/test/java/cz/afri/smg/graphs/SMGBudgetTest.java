@@ -0,0 +1,73 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SMGBudgetTest {
+  private static final int STEPS = 100;
+
+  @Test
+  public final void unlimitedTest() {
+    SMGBudget budget = SMGBudget.unlimited();
+    for (int i = 0; i < STEPS; i++) {
+      Assert.assertTrue(budget.step());
+    }
+    Assert.assertFalse(budget.isExhausted());
+    Assert.assertEquals(STEPS, budget.getStepsTaken());
+  }
+
+  @Test
+  public final void stepsTest() {
+    SMGBudget budget = SMGBudget.ofSteps(2);
+    Assert.assertTrue(budget.step());
+    Assert.assertTrue(budget.step());
+    Assert.assertFalse(budget.isExhausted());
+    Assert.assertFalse(budget.step());
+    Assert.assertTrue(budget.isExhausted());
+    Assert.assertFalse(budget.step());
+  }
+
+  @Test
+  public final void cancelTest() {
+    SMGBudget budget = SMGBudget.unlimited();
+    Assert.assertTrue(budget.step());
+    budget.cancel();
+    Assert.assertTrue(budget.isCancelled());
+    Assert.assertTrue(budget.isExhausted());
+    Assert.assertFalse(budget.step());
+  }
+
+  @Test
+  public final void deadlineTest() {
+    SMGBudget budget = SMGBudget.ofTime(0, TimeUnit.NANOSECONDS);
+    Assert.assertTrue(budget.isExhausted());
+    Assert.assertFalse(budget.step());
+
+    budget = SMGBudget.of(STEPS, 1, TimeUnit.DAYS);
+    Assert.assertTrue(budget.step());
+    Assert.assertFalse(budget.isExhausted());
+  }
+}
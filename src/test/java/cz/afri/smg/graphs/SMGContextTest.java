@@ -0,0 +1,105 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.afri.smg.join.SMGJoin;
+import cz.afri.smg.join.SMGJoinStatistics;
+import cz.afri.smg.types.CType;
+
+public class SMGContextTest {
+  private static final int SIZE8 = 8;
+  private static final CType TYPE8 = CType.createTypeWithLength(SIZE8);
+
+  @Test
+  public final void defaultContextTest() {
+    SMGContext context = SMGContext.getDefault();
+    Assert.assertFalse(context.performChecks());
+    Assert.assertFalse(context.performJoinChecks());
+    Assert.assertNull(context.getJoinMetrics());
+    Assert.assertSame(context, SMGFactory.createWritableSMG().getContext());
+  }
+
+  @Test
+  public final void withTest() {
+    SMGJoinStatistics statistics = new SMGJoinStatistics();
+    SMGContext context = new SMGContext();
+    SMGContext derived = context.withChecks(true).withJoinChecks(true).withJoinMetrics(statistics);
+
+    Assert.assertFalse(context.performChecks());
+    Assert.assertTrue(derived.performChecks());
+    Assert.assertTrue(derived.performJoinChecks());
+    Assert.assertSame(statistics, derived.getJoinMetrics());
+    Assert.assertSame(context.getValueAllocator(), derived.getValueAllocator());
+  }
+
+  @Test
+  public final void propagationTest() {
+    SMGContext context = new SMGContext().withChecks(true);
+    WritableSMG smg = SMGFactory.createWritableSMG(context);
+    Assert.assertSame(context, smg.getContext());
+    Assert.assertSame(context, SMGFactory.createWritableCopy(smg).getContext());
+  }
+
+  @Test
+  public final void internTest() {
+    SMGContext context = new SMGContext();
+    WritableSMG smg1 = SMGFactory.createWritableSMG(context);
+    WritableSMG smg2 = SMGFactory.createWritableSMG(context);
+    String label = "global";
+    smg1.addGlobalVariable(TYPE8, new String(label));
+    smg2.addGlobalVariable(TYPE8, new String(label));
+    Assert.assertSame(smg1.getGlobalObjects().get(label).getLabel(), smg2.getGlobalObjects().get(label).getLabel());
+  }
+
+  @Test
+  public final void joinContextTest() {
+    SMGJoinStatistics statistics = new SMGJoinStatistics();
+    SMGContext context = new SMGContext().withJoinMetrics(statistics);
+    WritableSMG smg1 = SMGFactory.createWritableSMG(context);
+    WritableSMG smg2 = SMGFactory.createWritableSMG(context);
+    smg1.addGlobalVariable(TYPE8, "global");
+    smg2.addGlobalVariable(TYPE8, "global");
+
+    SMGJoin join = new SMGJoin(smg1, smg2);
+    Assert.assertTrue(join.isDefined());
+    Assert.assertSame(context, join.getJointSMG().getContext());
+    Assert.assertEquals(1, statistics.getObjectsMapped());
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public final void deprecatedSettersTest() {
+    SMGContext original = SMGContext.getDefault();
+    try {
+      CLangSMG.setPerformChecks(true);
+      SMGJoin.performChecks(true);
+      Assert.assertTrue(CLangSMG.performChecks());
+      Assert.assertTrue(SMGFactory.createWritableSMG().getContext().performJoinChecks());
+      Assert.assertSame(original.getValueAllocator(), SMGContext.getDefault().getValueAllocator());
+    } finally {
+      SMGContext.setDefault(original);
+    }
+  }
+}
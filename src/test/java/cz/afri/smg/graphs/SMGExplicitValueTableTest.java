@@ -0,0 +1,126 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
+
+public class SMGExplicitValueTableTest {
+  private static final int KEYS = 100;
+  private static final long LARGE = Long.MAX_VALUE;
+  private static final BigInteger HUGE = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+
+  @Test
+  public final void putGetRemoveTest() {
+    SMGExplicitValueTable table = new SMGExplicitValueTable();
+    for (int i = 0; i < KEYS; i++) {
+      table.put(i, BigInteger.valueOf(-i));
+    }
+    Assert.assertEquals(KEYS, table.size());
+    for (int i = 0; i < KEYS; i += 2) {
+      table.remove(i);
+    }
+    for (int i = 0; i < KEYS; i++) {
+      Assert.assertEquals(i % 2 == 1, table.contains(i));
+      if (i % 2 == 1) {
+        Assert.assertEquals(SMGKnownExpValue.valueOf(-i), table.get(i));
+      } else {
+        Assert.assertTrue(table.get(i).isUnknown());
+      }
+    }
+  }
+
+  @Test
+  public final void overflowTest() {
+    SMGExplicitValueTable table = new SMGExplicitValueTable();
+    table.put(1, BigInteger.valueOf(LARGE));
+    table.put(2, HUGE);
+    Assert.assertEquals(SMGKnownExpValue.valueOf(LARGE), table.get(1));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(HUGE), table.get(2));
+
+    table.put(2, BigInteger.ONE);
+    Assert.assertEquals(SMGKnownExpValue.ONE, table.get(2));
+    Assert.assertEquals(2, table.size());
+  }
+
+  @Test
+  public final void copyAndRenameTest() {
+    SMGExplicitValueTable table = new SMGExplicitValueTable();
+    table.put(1, BigInteger.ONE);
+    table.put(2, HUGE);
+    SMGExplicitValueTable copy = new SMGExplicitValueTable(table);
+    Assert.assertEquals(table, copy);
+    Assert.assertEquals(table.hashCode(), copy.hashCode());
+
+    Map<Integer, Integer> renaming = new HashMap<>();
+    renaming.put(1, 2);
+    renaming.put(2, 1);
+    copy.rename(renaming);
+    Assert.assertEquals(SMGKnownExpValue.valueOf(HUGE), copy.get(1));
+    Assert.assertEquals(SMGKnownExpValue.ONE, copy.get(2));
+    Assert.assertEquals(SMGKnownExpValue.ONE, table.get(1));
+
+    renaming.clear();
+    renaming.put(1, 2);
+    copy.rename(renaming);
+    Assert.assertEquals(1, copy.size());
+    Assert.assertEquals(SMGKnownExpValue.ONE, copy.get(2));
+  }
+
+  @Test
+  public final void getWithoutAllocationTest() {
+    SMGExplicitValueTable table = new SMGExplicitValueTable();
+    SMGKnownExpValue large = SMGKnownExpValue.valueOf(LARGE);
+    table.put(1, large);
+    table.put(2, BigInteger.valueOf(LARGE));
+    for (int i = 0; i < KEYS; i++) {
+      table.put(i + 2 + 1, BigInteger.valueOf(i));
+    }
+
+    Assert.assertSame(large, table.get(1));
+    Assert.assertSame(table.get(2), table.get(2));
+    Assert.assertEquals(large, table.get(2));
+  }
+
+  @Test
+  public final void equalsIndependentOfLayoutTest() {
+    SMGExplicitValueTable forward = new SMGExplicitValueTable();
+    SMGExplicitValueTable backward = new SMGExplicitValueTable();
+    for (int i = 0; i < KEYS; i++) {
+      forward.put(i, BigInteger.valueOf(i));
+      backward.put(KEYS - 1 - i, BigInteger.valueOf(KEYS - 1 - i));
+    }
+    backward.put(KEYS, HUGE);
+    backward.remove(KEYS);
+    Assert.assertEquals(forward, backward);
+    Assert.assertEquals(forward.hashCode(), backward.hashCode());
+
+    backward.put(0, BigInteger.ONE);
+    Assert.assertNotEquals(forward, backward);
+  }
+}
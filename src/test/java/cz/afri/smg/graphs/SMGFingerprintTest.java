@@ -0,0 +1,142 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.objects.tree.SimpleBinaryTree;
+import cz.afri.smg.types.CType;
+
+public class SMGFingerprintTest {
+  private static final int SIZE8 = 8;
+  private static final CType TYPE8 = CType.createTypeWithLength(SIZE8);
+
+  private static WritableSMG createListSMG(final int pLength) {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    SMGRegion global = smg.addGlobalVariable(TYPE8, "list");
+    SMGObject previous = global;
+    for (int i = 0; i < pLength; i++) {
+      SMGRegion node = new SMGRegion(SIZE8, "node");
+      Integer address = SMGValueFactory.getNewValue();
+      smg.addHeapObject(node);
+      smg.addValue(address);
+      smg.addPointsToEdge(new SMGEdgePointsTo(address, node, 0));
+      smg.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, previous, address));
+      previous = node;
+    }
+    smg.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, previous, smg.getNullValue()));
+    return smg;
+  }
+
+  @Test
+  public final void isomorphicSMGsTest() {
+    SMGFingerprint first = new SMGFingerprint(createListSMG(2));
+    SMGFingerprint second = new SMGFingerprint(createListSMG(2));
+
+    Assert.assertEquals(first, second);
+    Assert.assertEquals(first.hashCode(), second.hashCode());
+    Assert.assertTrue(first.isComplete());
+  }
+
+  @Test
+  public final void differentSMGsTest() {
+    SMGFingerprint first = new SMGFingerprint(createListSMG(2));
+    SMGFingerprint second = new SMGFingerprint(createListSMG(2 + 1));
+
+    Assert.assertNotEquals(first, second);
+  }
+
+  private static WritableSMG createTreeSMG() {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    SMGRegion global = smg.addGlobalVariable(TYPE8, "tree");
+    SMGObject tree = new SimpleBinaryTree(new SMGRegion(SIZE8 * 2, "node"), 0, SIZE8, 2);
+    Integer address = SMGValueFactory.getNewValue();
+    smg.addHeapObject(tree);
+    smg.addValue(address);
+    smg.addPointsToEdge(new SMGEdgePointsTo(address, tree, 0));
+    smg.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, global, address));
+    return smg;
+  }
+
+  @Test
+  public final void abstractObjectsTest() {
+    Assert.assertEquals(new SMGFingerprint(createTreeSMG()), new SMGFingerprint(createTreeSMG()));
+  }
+
+  @Test
+  public final void neqRelationTest() {
+    WritableSMG smg = createListSMG(2);
+    SMGFingerprint before = new SMGFingerprint(smg);
+    Integer value = smg.readValue(smg.getGlobalObjects().get("list"), 0, TYPE8).getAsInt();
+    smg.addNeqRelation(value, smg.getNullValue());
+
+    Assert.assertNotEquals(before, new SMGFingerprint(smg));
+  }
+
+  @Test
+  public final void compactValuesTest() {
+    WritableSMG first = createListSMG(2);
+    WritableSMG second = createListSMG(2);
+    Assert.assertNotEquals(first.getValues(), second.getValues());
+
+    Integer address = first.readValue(first.getGlobalObjects().get("list"), 0, TYPE8).getAsInt();
+    Map<Integer, Integer> renaming = first.compactValues();
+    second.compactValues();
+
+    Assert.assertEquals(ImmutableSet.of(0, 1, 2), first.getValues());
+    Assert.assertEquals(first.getValues(), second.getValues());
+    Assert.assertEquals(Integer.valueOf(1), renaming.get(address));
+    Assert.assertEquals(1, first.readValue(first.getGlobalObjects().get("list"), 0, TYPE8).getAsInt());
+    Assert.assertEquals(new SMGFingerprint(first), new SMGFingerprint(second));
+  }
+
+  @Test
+  public final void canonicalOrderTest() {
+    WritableSMG smg = createListSMG(1);
+    SMGFingerprint fingerprint = new SMGFingerprint(smg);
+    SMGRegion global = smg.getGlobalObjects().get("list");
+    Integer value = smg.readValue(global, 0, TYPE8).getAsInt();
+
+    Assert.assertSame(smg.getNullObject(), fingerprint.getObjects().get(0));
+    Assert.assertSame(global, fingerprint.getObjects().get(1));
+    Assert.assertSame(smg.getObjectPointedBy(value), fingerprint.getObjects().get(2));
+    Assert.assertEquals(0, fingerprint.getValueId(smg.getNullValue()));
+    Assert.assertEquals(1, fingerprint.getValueId(value));
+  }
+
+  @Test
+  public final void incompleteFingerprintTest() {
+    WritableSMG smg = createListSMG(1);
+    smg.addHeapObject(new SMGRegion(SIZE8, "garbage"));
+
+    SMGFingerprint fingerprint = new SMGFingerprint(smg);
+    Assert.assertFalse(fingerprint.isComplete());
+    Assert.assertEquals(smg.getObjects().size(), fingerprint.getObjects().size());
+  }
+}
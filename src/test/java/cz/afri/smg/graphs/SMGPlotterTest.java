@@ -0,0 +1,52 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.afri.smg.objects.SMGRegion;
+
+public class SMGPlotterTest {
+  private static final int SIZE8 = 8;
+  private static final Pattern REGION_NODE = Pattern.compile("node_region_\\d+\\[");
+
+  @Test
+  public final void reusedPlotterNodeNamesTest() {
+    SMGPlotter plotter = new SMGPlotter();
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    smg.addHeapObject(new SMGRegion(SIZE8, "first"));
+    plotter.smgAsDot(smg, "first", "first");
+
+    smg.addHeapObject(new SMGRegion(SIZE8, "second"));
+    String dot = plotter.smgAsDot(smg, "second", "second");
+
+    Matcher matcher = REGION_NODE.matcher(dot);
+    Assert.assertTrue(matcher.find());
+    String firstNode = matcher.group();
+    Assert.assertTrue(matcher.find());
+    Assert.assertNotEquals(firstNode, matcher.group());
+  }
+}
@@ -22,7 +22,10 @@
 package cz.afri.smg.graphs;
 
 import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -30,9 +33,13 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
+import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
+import cz.afri.smg.graphs.SMGValues.SMGKnownSymValue;
 import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.objects.SMGRegion;
 import cz.afri.smg.types.CType;
@@ -548,6 +555,31 @@ public class SMGTest {
     Assert.assertFalse(newNr.neqExists(three, two));
   }
 
+  @Test
+  public final void neqCopyOnWriteTest() {
+    NeqRelation nr = new NeqRelation();
+    NeqRelation copy = new NeqRelation();
+    Integer one = SMGValueFactory.getNewValue();
+    Integer two = SMGValueFactory.getNewValue();
+    Integer three = SMGValueFactory.getNewValue();
+
+    nr.addRelation(one, two);
+    copy.putAll(nr);
+    copy.addRelation(two, three);
+    copy.removeValue(one);
+    Assert.assertTrue(nr.neqExists(one, two));
+    Assert.assertFalse(nr.neqExists(two, three));
+    Assert.assertFalse(copy.neqExists(one, two));
+    Assert.assertTrue(copy.neqExists(three, two));
+
+    nr.addRelation(two, three);
+    nr.removeRelation(two, one);
+    Assert.assertEquals(copy, nr);
+    Assert.assertEquals(copy.hashCode(), nr.hashCode());
+    Assert.assertEquals(Sets.newHashSet(two), nr.getNeqsForValue(three));
+    Assert.assertTrue(nr.getNeqsForValue(one).isEmpty());
+  }
+
   @Test
 	public final void neqRemoveValueTest() {
     NeqRelation nr = new NeqRelation();
@@ -571,7 +603,7 @@ public class SMGTest {
     Integer three = SMGValueFactory.getNewValue();
 
     nr.addRelation(one, three);
-    nr.mergeValues(two, three);
+    nr.renameValues(ImmutableMap.of(three, two));
 
     Assert.assertTrue(nr.neqExists(one, two));
     Assert.assertFalse(nr.neqExists(one, three));
@@ -588,7 +620,7 @@ public class SMGTest {
 
     nr.addRelation(zero, three);
     nr.addRelation(one, three);
-    nr.mergeValues(two, three);
+    nr.renameValues(ImmutableMap.of(three, two));
 
     Assert.assertTrue(nr.neqExists(zero, two));
     Assert.assertTrue(nr.neqExists(one, two));
@@ -596,4 +628,264 @@ public class SMGTest {
     Assert.assertFalse(nr.neqExists(one, three));
     Assert.assertFalse(nr.neqExists(two, three));
   }
+
+  @Test
+  public final void renameValuesTest() {
+    Integer val3 = SMGValueFactory.getNewValue();
+    smg.addNeqRelation(val1, val2);
+    smg.putExplicit(SMGValues.SMGKnownSymValue.valueOf(val2), SMGValues.SMGKnownExpValue.valueOf(SIZE8));
+
+    Map<Integer, Integer> renaming = new HashMap<>();
+    renaming.put(val2, val3);
+    smg.renameValues(renaming);
+
+    Assert.assertTrue(smg.getValues().contains(val1));
+    Assert.assertFalse(smg.getValues().contains(val2));
+    Assert.assertTrue(smg.getValues().contains(val3));
+    Assert.assertEquals(val3.intValue(), smg.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(obj2).filterAtOffset(0),
+                                                         true).getValue());
+    Assert.assertSame(obj1, smg.getObjectPointedBy(val1));
+    Assert.assertTrue(smg.haveNeqRelation(val1, val3));
+    Assert.assertFalse(smg.haveNeqRelation(val1, val2));
+    Assert.assertFalse(smg.getExplicit(SMGValues.SMGKnownSymValue.valueOf(val3)).isUnknown());
+    Assert.assertTrue(smg.getExplicit(SMGValues.SMGKnownSymValue.valueOf(val2)).isUnknown());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public final void renameNullValueTest() {
+    Map<Integer, Integer> renaming = new HashMap<>();
+    renaming.put(smg.getNullValue(), val1);
+    smg.renameValues(renaming);
+  }
+
+  @Test
+  public final void getAddressTest() {
+    Assert.assertEquals(val1, smg.getAddress(obj1, OFFSET0));
+    Assert.assertNull(smg.getAddress(obj1, OFFSET4));
+    Assert.assertNull(smg.getAddress(obj2, OFFSET0));
+    Assert.assertEquals(Integer.valueOf(smg.getNullValue()), smg.getAddress(smg.getNullObject(), OFFSET0));
+
+    SMG copy = new SMG(smg);
+    smg.addPointsToEdge(new SMGEdgePointsTo(val2, obj2, OFFSET4));
+    Assert.assertEquals(val2, smg.getAddress(obj2, OFFSET4));
+    Assert.assertNull(copy.getAddress(obj2, OFFSET4));
+
+    smg.removePointsToEdge(val1);
+    Assert.assertNull(smg.getAddress(obj1, OFFSET0));
+    Assert.assertEquals(val1, copy.getAddress(obj1, OFFSET0));
+
+    smg.removeObjectAndEdges(obj2);
+    Assert.assertNull(smg.getAddress(obj2, OFFSET4));
+    Assert.assertFalse(smg.isPointer(val2));
+  }
+
+  @Test
+  public final void getHVEdgesByObjectTest() {
+    SMGEdgeHasValueFilter obj1Filter = SMGEdgeHasValueFilter.objectFilter(obj1);
+    SMGEdgeHasValueFilter obj2Filter = SMGEdgeHasValueFilter.objectFilter(obj2);
+    Assert.assertEquals(Sets.newHashSet(hv2has2at0, hv2has1at4), Sets.newHashSet(smg.getHVEdges(obj2Filter)));
+
+    SMGEdgeHasValue hv1has2at0 = new SMGEdgeHasValue(mockType, OFFSET0, obj1, val2);
+    smg.replaceHVSet(Sets.newHashSet(hv1has2at0, hv2has1at4));
+    Assert.assertEquals(Sets.newHashSet(hv1has2at0), Sets.newHashSet(smg.getHVEdges(obj1Filter)));
+    Assert.assertEquals(Sets.newHashSet(hv2has1at4), Sets.newHashSet(smg.getHVEdges(obj2Filter)));
+
+    smg.mergeValues(val1, val2);
+    smg.normalize();
+    SMGEdgeHasValue merged = smg.getUniqueHV(obj1Filter, true);
+    Assert.assertEquals(val1.intValue(), merged.getValue());
+
+    smg.removeObjectAndEdges(obj1);
+    Assert.assertTrue(Iterables.isEmpty(smg.getHVEdges(obj1Filter)));
+    Assert.assertEquals(Sets.newHashSet(hv2has1at4), smg.getHVEdges());
+  }
+
+  @Test
+  public final void getPTEdgesByObjectTest() {
+    Assert.assertEquals(Sets.newHashSet(pt1to1), smg.getPTEdges(obj1));
+    Assert.assertTrue(smg.getPTEdges(obj2).isEmpty());
+
+    SMGEdgePointsTo pt2to1 = new SMGEdgePointsTo(val2, obj1, OFFSET4);
+    smg.addPointsToEdge(pt2to1);
+    Assert.assertEquals(Sets.newHashSet(pt1to1, pt2to1), smg.getPTEdges(obj1));
+
+    SMGEdgePointsTo pt2to2 = new SMGEdgePointsTo(val2, obj2, OFFSET0);
+    smg.addPointsToEdge(pt2to2);
+    Assert.assertEquals(Sets.newHashSet(pt1to1), smg.getPTEdges(obj1));
+    Assert.assertEquals(Sets.newHashSet(pt2to2), smg.getPTEdges(obj2));
+
+    SMGEdgePointsTo pt2to1at0 = new SMGEdgePointsTo(val2, obj1, OFFSET0);
+    smg.addPointsToEdge(pt2to1at0);
+    Assert.assertEquals(Sets.newHashSet(pt1to1, pt2to1at0), smg.getPTEdges(obj1));
+    Assert.assertTrue(smg.getPTEdges(obj2).isEmpty());
+
+    smg.removeObjectAndEdges(obj1);
+    Assert.assertTrue(smg.getPTEdges(obj1).isEmpty());
+  }
+
+  @Test
+  public final void sharedAddressTest() {
+    SMGEdgePointsTo pt2to1 = new SMGEdgePointsTo(val2, obj1, OFFSET0);
+    smg.addPointsToEdge(pt2to1);
+    Assert.assertEquals(val1, smg.getAddress(obj1, OFFSET0));
+
+    SMG copy = new SMG(smg);
+    smg.removePointsToEdge(val1);
+    Assert.assertEquals(val2, smg.getAddress(obj1, OFFSET0));
+    Assert.assertEquals(val1, copy.getAddress(obj1, OFFSET0));
+
+    copy.removeObjectAndEdges(obj1);
+    Assert.assertFalse(copy.isPointer(val1));
+    Assert.assertFalse(copy.isPointer(val2));
+    Assert.assertTrue(SMGConsistencyVerifier.verifySMG(copy));
+  }
+
+  @Test
+  public final void fieldsSortedAndCopyOnWriteTest() {
+    SMGEdgeHasValueFilter obj2Filter = SMGEdgeHasValueFilter.objectFilter(obj2);
+    SMGEdgeHasValue wideAt0 = new SMGEdgeHasValue(SIZE8, OFFSET0, obj2, val1);
+    smg.addHasValueEdge(wideAt0);
+    List<SMGEdgeHasValue> sorted = ImmutableList.of(hv2has2at0, wideAt0, hv2has1at4);
+    Assert.assertEquals(sorted, ImmutableList.copyOf(smg.getHVEdges(obj2Filter)));
+
+    SMG copy = new SMG(smg);
+    copy.removeHasValueEdge(wideAt0);
+    Assert.assertEquals(ImmutableList.of(hv2has2at0, hv2has1at4), ImmutableList.copyOf(copy.getHVEdges(obj2Filter)));
+    Assert.assertEquals(sorted, ImmutableList.copyOf(smg.getHVEdges(obj2Filter)));
+
+    smg.removeObjectAndEdges(obj2);
+    Assert.assertTrue(Iterables.isEmpty(smg.getHVEdges(obj2Filter)));
+    Assert.assertEquals(2, Iterables.size(copy.getHVEdges(obj2Filter)));
+  }
+
+  @Test
+  public final void addressesCopyOnWriteTest() {
+    SMG copy = new SMG(smg);
+    SMGEdgePointsTo pt2to1 = new SMGEdgePointsTo(val2, obj1, OFFSET4);
+    copy.addPointsToEdge(pt2to1);
+    Assert.assertEquals(Sets.newHashSet(pt1to1), smg.getPTEdges(obj1));
+    Assert.assertNull(smg.getAddress(obj1, OFFSET4));
+    Assert.assertEquals(Sets.newHashSet(pt1to1, pt2to1), copy.getPTEdges(obj1));
+
+    smg.removePointsToEdge(val1);
+    Assert.assertTrue(smg.getPTEdges(obj1).isEmpty());
+    Assert.assertEquals(val1, copy.getAddress(obj1, OFFSET0));
+
+    SMG secondCopy = new SMG(copy);
+    copy.removeObjectAndEdges(obj1);
+    Assert.assertNull(copy.getAddress(obj1, OFFSET0));
+    Assert.assertEquals(Sets.newHashSet(pt1to1, pt2to1), secondCopy.getPTEdges(obj1));
+    Assert.assertEquals(val2, secondCopy.getAddress(obj1, OFFSET4));
+  }
+
+  @Test
+  public final void mergeValuesTest() {
+    Integer val3 = Integer.valueOf(SIZE8);
+    smg.addValue(val3);
+    smg.addNeqRelation(val3, val2);
+    smg.putExplicit(SMGKnownSymValue.valueOf(val2), SMGKnownExpValue.valueOf(SIZE4));
+
+    smg.mergeValues(val2, val3);
+    smg.mergeValues(val1, val2);
+    SMG copy = new SMG(smg);
+    smg.normalize();
+
+    Assert.assertEquals(Sets.newHashSet(smg.getNullValue(), val1), smg.getValues());
+    Assert.assertEquals(val1.intValue(), smg.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(obj2)
+                                                         .filterAtOffset(OFFSET0), true).getValue());
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SIZE4), smg.getExplicit(SMGKnownSymValue.valueOf(val1)));
+    Assert.assertTrue(smg.getNeqsForValue(val1).isEmpty());
+    Assert.assertTrue(smg.isPointer(val1));
+    Assert.assertEquals(smg.getValues(), copy.getValues());
+    Assert.assertEquals(val1.intValue(), copy.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(obj2)
+                                                          .filterAtOffset(OFFSET0), true).getValue());
+  }
+
+  @Test
+  public final void mergeValuesPendingTest() {
+    smg.mergeValues(val1, val2);
+
+    Assert.assertEquals(Sets.newHashSet(smg.getNullValue(), val1, val2), smg.getValues());
+    Assert.assertEquals(val2.intValue(), smg.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(obj2)
+                                                         .filterAtOffset(OFFSET0), true).getValue());
+    Assert.assertEquals(Sets.newHashSet(smg.getNullValue(), val1, val2), smg.getValues());
+
+    smg.normalize();
+    Assert.assertEquals(Sets.newHashSet(smg.getNullValue(), val1), smg.getValues());
+    Assert.assertEquals(val1.intValue(), smg.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(obj2)
+                                                         .filterAtOffset(OFFSET0), true).getValue());
+  }
+
+  @Test
+  public final void mergeValuesExplicitTest() {
+    SMGKnownSymValue sym1 = SMGKnownSymValue.valueOf(val1);
+    SMGKnownSymValue sym2 = SMGKnownSymValue.valueOf(val2);
+    smg.putExplicit(sym2, SMGKnownExpValue.valueOf(SIZE4));
+    SMG copy = new SMG(smg);
+
+    smg.mergeValues(val1, val2);
+    smg.normalize();
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SIZE4), smg.getExplicit(sym1));
+    Assert.assertTrue(smg.getExplicit(sym2).isUnknown());
+
+    copy.putExplicit(sym1, SMGKnownExpValue.valueOf(SIZE8));
+    copy.mergeValues(val1, val2);
+    copy.normalize();
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SIZE8), copy.getExplicit(sym1));
+    Assert.assertTrue(copy.getExplicit(sym2).isUnknown());
+  }
+
+  @Test
+  public final void mergeValueIntoNullTest() {
+    smg.mergeValues(val2, smg.getNullValue());
+    smg.normalize();
+
+    Assert.assertEquals(Sets.newHashSet(smg.getNullValue(), val1), smg.getValues());
+    Assert.assertEquals(smg.getNullValue(), smg.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(obj2)
+                                                             .filterAtOffset(OFFSET0), true).getValue());
+  }
+
+  @Test
+  public final void mergePointerIntoNullTest() {
+    for (int offset = 0; offset < SIZE16; offset++) {
+      Integer value = SMGValueFactory.getNewValue();
+      smg.addValue(value);
+      smg.addPointsToEdge(new SMGEdgePointsTo(value, obj1, offset));
+      SMG copy = new SMG(smg);
+      smg.mergeValues(value, smg.getNullValue());
+      copy.mergeValues(copy.getNullValue(), value);
+
+      for (SMG merged : new SMG[] {smg, copy}) {
+        merged.normalize();
+        Assert.assertSame(merged.getNullObject(), merged.getObjectPointedBy(merged.getNullValue()));
+        Assert.assertEquals(Sets.newHashSet(pt1to1), merged.getPTEdges(obj1));
+        Assert.assertTrue(SMGConsistencyVerifier.verifySMG(merged));
+      }
+    }
+  }
+
+  @Test
+  public final void mergePointersTest() {
+    smg.addPointsToEdge(new SMGEdgePointsTo(val2, obj2, OFFSET0));
+    SMG copy = new SMG(smg);
+    smg.mergeValues(val1, val2);
+    copy.mergeValues(val2, val1);
+    smg.normalize();
+    copy.normalize();
+
+    Assert.assertSame(obj1, smg.getObjectPointedBy(val1));
+    Assert.assertTrue(smg.getPTEdges(obj2).isEmpty());
+    Assert.assertSame(obj2, copy.getObjectPointedBy(val2));
+    Assert.assertTrue(copy.getPTEdges(obj1).isEmpty());
+  }
+
+  @Test
+  public final void fieldOrderTest() {
+    SMGEdgeHasValue hv2has2at4 = new SMGEdgeHasValue(mockType, OFFSET4, obj2, val2);
+    SMGEdgeHasValue wideAt0 = new SMGEdgeHasValue(SIZE8, OFFSET0, obj2, val2);
+
+    Assert.assertTrue(SMGEdgeHasValue.FIELD_ORDER.compare(hv2has2at0, hv2has1at4) < 0);
+    Assert.assertTrue(SMGEdgeHasValue.FIELD_ORDER.compare(hv2has2at0, wideAt0) < 0);
+    Assert.assertEquals(0, SMGEdgeHasValue.FIELD_ORDER.compare(hv2has1at4, hv2has2at4));
+  }
 }
@@ -0,0 +1,92 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SMGValueAllocatorTest {
+  private static final int THREADS = 4;
+  private static final int VALUES_PER_THREAD = 1000;
+  private static final int BLOCK_SIZE = 3;
+
+  @Test
+  public final void blockTest() {
+    SMGValueAllocator allocator = new SMGValueAllocator(BLOCK_SIZE);
+    Set<Integer> values = new HashSet<>();
+    for (int i = 0; i < BLOCK_SIZE * 2 + 1; i++) {
+      Integer value = allocator.getNewValue();
+      Assert.assertTrue(value.intValue() > 0);
+      Assert.assertTrue(values.add(value));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public final void invalidBlockSizeTest() {
+    new SMGValueAllocator(0);
+  }
+
+  @Test
+  public final void namespaceTest() {
+    SMGValueAllocator first = new SMGValueAllocator();
+    SMGValueAllocator second = new SMGValueAllocator();
+    Assert.assertEquals(first.getNewValue(), second.getNewValue());
+  }
+
+  @Test
+  public final void parallelAllocationTest() throws InterruptedException, ExecutionException {
+    final SMGValueAllocator allocator = new SMGValueAllocator(BLOCK_SIZE);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<List<Integer>>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(executor.submit(new Callable<List<Integer>>() {
+          @Override
+          public List<Integer> call() {
+            List<Integer> values = new ArrayList<>();
+            for (int j = 0; j < VALUES_PER_THREAD; j++) {
+              values.add(allocator.getNewValue());
+            }
+            return values;
+          }
+        }));
+      }
+      Set<Integer> values = new HashSet<>();
+      for (Future<List<Integer>> future : futures) {
+        values.addAll(future.get());
+      }
+      Assert.assertEquals(THREADS * VALUES_PER_THREAD, values.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
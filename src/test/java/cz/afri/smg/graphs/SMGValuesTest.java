@@ -0,0 +1,114 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.graphs;
+
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.afri.smg.graphs.SMGValues.SMGExplicitValue;
+import cz.afri.smg.graphs.SMGValues.SMGKnownExpValue;
+import cz.afri.smg.graphs.SMGValues.SMGKnownSymValue;
+import cz.afri.smg.graphs.SMGValues.SMGUnknownValue;
+
+public class SMGValuesTest {
+  private static final int SMALL = 7;
+  private static final int OTHER = 3;
+  private static final int LARGE = 100000;
+  private static final int SHIFT = 4;
+  private static final int WIDE_SHIFT = 62;
+
+  private static final SMGKnownExpValue MAX = SMGKnownExpValue.valueOf(Long.MAX_VALUE);
+  private static final SMGKnownExpValue MIN = SMGKnownExpValue.valueOf(Long.MIN_VALUE);
+  private static final BigInteger BIG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+  private static final BigInteger BIG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+  @Test
+  public final void cacheTest() {
+    Assert.assertSame(SMGKnownExpValue.ZERO, SMGKnownExpValue.valueOf(0));
+    Assert.assertSame(SMGKnownExpValue.ONE, SMGKnownExpValue.valueOf(BigInteger.ONE));
+    Assert.assertSame(SMGKnownExpValue.valueOf(SMALL), SMGKnownExpValue.valueOf((long) SMALL));
+    Assert.assertSame(SMGKnownSymValue.ZERO, SMGKnownSymValue.valueOf(0));
+    Assert.assertSame(SMGKnownSymValue.ONE, SMGKnownSymValue.valueOf(1));
+    Assert.assertSame(SMGKnownSymValue.valueOf(SMALL), SMGKnownSymValue.valueOf(BigInteger.valueOf(SMALL)));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(LARGE), SMGKnownExpValue.valueOf(BigInteger.valueOf(LARGE)));
+  }
+
+  @Test
+  public final void representationTest() {
+    BigInteger big = BIG_MAX.add(BigInteger.ONE);
+    SMGKnownExpValue value = SMGKnownExpValue.valueOf(big);
+    Assert.assertEquals(big, value.getValue());
+    Assert.assertEquals(value, SMGKnownExpValue.valueOf(big));
+    Assert.assertEquals(value.hashCode(), SMGKnownExpValue.valueOf(big).hashCode());
+    Assert.assertEquals(MAX, SMGKnownExpValue.valueOf(BIG_MAX));
+    Assert.assertEquals(MAX.hashCode(), SMGKnownExpValue.valueOf(BIG_MAX).hashCode());
+    Assert.assertFalse(SMGKnownExpValue.valueOf(SMALL).equals(SMGKnownSymValue.valueOf(SMALL)));
+  }
+
+  @Test
+  public final void arithmeticTest() {
+    SMGKnownExpValue small = SMGKnownExpValue.valueOf(SMALL);
+    SMGKnownExpValue other = SMGKnownExpValue.valueOf(OTHER);
+
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SMALL + OTHER), small.add(other));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SMALL - OTHER), small.subtract(other));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SMALL * OTHER), small.multiply(other));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SMALL / OTHER), small.divide(other));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SMALL & OTHER), small.and(other));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SMALL | OTHER), small.or(other));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SMALL ^ OTHER), small.xor(other));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(SMALL << SHIFT), small.shiftLeft(SMGKnownExpValue.valueOf(SHIFT)));
+    Assert.assertEquals(SMGKnownExpValue.valueOf(-SMALL), small.negate());
+  }
+
+  @Test
+  public final void overflowTest() {
+    SMGExplicitValue one = SMGKnownExpValue.ONE;
+    SMGExplicitValue two = SMGKnownExpValue.valueOf(2);
+
+    Assert.assertEquals(BIG_MAX.add(BigInteger.ONE), MAX.add(one).getValue());
+    Assert.assertEquals(BIG_MIN.subtract(BigInteger.ONE), MIN.subtract(one).getValue());
+    Assert.assertEquals(BIG_MAX.multiply(BigInteger.valueOf(2)), MAX.multiply(two).getValue());
+    Assert.assertEquals(BIG_MIN.negate(), MIN.negate().getValue());
+    Assert.assertEquals(BIG_MIN.negate(), MIN.divide(SMGKnownExpValue.valueOf(-1)).getValue());
+    Assert.assertEquals(BigInteger.valueOf(OTHER).shiftLeft(WIDE_SHIFT),
+                        SMGKnownExpValue.valueOf(OTHER).shiftLeft(SMGKnownExpValue.valueOf(WIDE_SHIFT)).getValue());
+
+    SMGExplicitValue big = MAX.add(one);
+    Assert.assertEquals(MAX, big.subtract(one));
+    Assert.assertSame(SMGKnownExpValue.ONE, big.subtract(MAX));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public final void divideByZeroTest() {
+    SMGKnownExpValue.ONE.divide(SMGKnownExpValue.ZERO);
+  }
+
+  @Test
+  public final void unknownTest() {
+    SMGExplicitValue unknown = SMGUnknownValue.getInstance();
+    Assert.assertTrue(SMGKnownExpValue.ONE.add(unknown).isUnknown());
+    Assert.assertTrue(SMGKnownExpValue.ONE.shiftLeft(unknown).isUnknown());
+  }
+}
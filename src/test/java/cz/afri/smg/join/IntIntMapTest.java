@@ -0,0 +1,98 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntIntMapTest {
+  private static final int COUNT = 1000;
+
+  @Test
+  public final void putGetTest() {
+    IntIntMap map = new IntIntMap();
+    for (int i = -COUNT; i < COUNT; i++) {
+      map.put(i, -i);
+    }
+
+    Assert.assertEquals(2 * COUNT, map.size());
+    for (int i = -COUNT; i < COUNT; i++) {
+      Assert.assertTrue(map.containsKey(i));
+      Assert.assertEquals(Integer.valueOf(-i), map.get(i));
+    }
+    Assert.assertFalse(map.containsKey(COUNT));
+    Assert.assertNull(map.get(COUNT));
+    Assert.assertEquals(1, map.get(COUNT, 1));
+  }
+
+  @Test
+  public final void overwriteTest() {
+    IntIntMap map = new IntIntMap();
+    map.put(0, 1);
+    map.put(0, 2);
+
+    Assert.assertEquals(1, map.size());
+    Assert.assertEquals(Integer.valueOf(2), map.get(0));
+  }
+
+  @Test
+  public final void copyAndEqualsTest() {
+    IntIntMap map = new IntIntMap();
+    for (int i = 0; i < COUNT; i++) {
+      map.put(i, i);
+    }
+    IntIntMap copy = new IntIntMap(map);
+    IntIntMap reversed = new IntIntMap();
+    for (int i = COUNT - 1; i >= 0; i--) {
+      reversed.put(i, i);
+    }
+
+    Assert.assertEquals(map, copy);
+    Assert.assertEquals(map, reversed);
+    Assert.assertEquals(map.hashCode(), reversed.hashCode());
+
+    copy.put(COUNT, COUNT);
+    Assert.assertNotEquals(map, copy);
+    Assert.assertFalse(map.containsKey(COUNT));
+  }
+
+  @Test
+  public final void nodeMappingReverseLookupTest() {
+    SMGNodeMapping mapping = new SMGNodeMapping();
+    mapping.map(1, 2);
+    Assert.assertTrue(mapping.containsValue(Integer.valueOf(2)));
+
+    mapping.map(1, COUNT);
+    Assert.assertFalse(mapping.containsValue(Integer.valueOf(2)));
+    Assert.assertTrue(mapping.containsValue(Integer.valueOf(COUNT)));
+  }
+
+  @Test
+  public final void nodeMappingNullValueTest() {
+    SMGNodeMapping mapping = new SMGNodeMapping();
+    mapping.map(1, 2);
+
+    Assert.assertNull(mapping.get((Integer) null));
+    Assert.assertFalse(mapping.containsKey((Integer) null));
+    Assert.assertFalse(mapping.containsValue((Integer) null));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGValueFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.types.CType;
+
+public class SMGJoinAllTest {
+  private static final int SIZE4 = 4;
+  private static final int SIZE8 = 8;
+  private static final CType TYPE8 = CType.createTypeWithLength(SIZE8);
+
+  private static WritableSMG createStateWithGlobal(final String pVarName) {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    SMGRegion global = smg.addGlobalVariable(TYPE8, pVarName);
+    Integer value = SMGValueFactory.getNewValue();
+    smg.addValue(value);
+    smg.addHasValueEdge(new SMGEdgeHasValue(SIZE4, 0, global, value));
+    return smg;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public final void emptyCollectionTest() {
+    new SMGJoinAll(ImmutableList.<ReadableSMG>of());
+  }
+
+  @Test
+  public final void singleStateTest() {
+    WritableSMG smg = createStateWithGlobal("variable");
+    SMGJoinAll join = new SMGJoinAll(ImmutableList.of(smg));
+
+    Assert.assertTrue(join.isDefined());
+    Assert.assertEquals(SMGJoinStatus.EQUAL, join.getStatus());
+    Assert.assertSame(smg, join.getJointSMG());
+  }
+
+  @Test
+  public final void joinableStatesTest() {
+    final int states = 7;
+    List<ReadableSMG> toJoin = new ArrayList<>();
+    for (int i = 0; i < states; i++) {
+      toJoin.add(createStateWithGlobal("variable"));
+    }
+
+    SMGJoinAll join = new SMGJoinAll(toJoin);
+    Assert.assertTrue(join.isDefined());
+    Assert.assertEquals(SMGJoinStatus.EQUAL, join.getStatus());
+    Assert.assertEquals(1, join.getGroups().size());
+    Assert.assertEquals(states, join.getGroups().get(0).size());
+
+    ReadableSMG jointSMG = join.getJointSMG();
+    Assert.assertTrue(jointSMG.getGlobalObjects().containsKey("variable"));
+    Assert.assertEquals(1, jointSMG.getGlobalObjects().size());
+  }
+
+  @Test
+  public final void partiallyJoinableStatesTest() {
+    List<ReadableSMG> toJoin = new ArrayList<>();
+    toJoin.add(createStateWithGlobal("first"));
+    toJoin.add(createStateWithGlobal("second"));
+    toJoin.add(createStateWithGlobal("first"));
+    toJoin.add(createStateWithGlobal("second"));
+    toJoin.add(createStateWithGlobal("first"));
+
+    SMGJoinAll join = new SMGJoinAll(toJoin);
+    Assert.assertFalse(join.isDefined());
+    Assert.assertEquals(2, join.getGroups().size());
+
+    final int firstGroupSize = 3;
+    final int fourth = 3;
+    final int fifth = 4;
+    for (SMGJoinGroup group : join.getGroups()) {
+      ReadableSMG jointSMG = group.getJointSMG();
+      if (jointSMG.getGlobalObjects().containsKey("first")) {
+        Assert.assertEquals(firstGroupSize, group.size());
+        Assert.assertEquals(ImmutableList.of(0, 2, fifth), group.getMembers());
+      } else {
+        Assert.assertTrue(jointSMG.getGlobalObjects().containsKey("second"));
+        Assert.assertEquals(2, group.size());
+        Assert.assertEquals(ImmutableList.of(1, fourth), group.getMembers());
+      }
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public final void jointSMGOfUnjoinableStatesTest() {
+    SMGJoinAll join = new SMGJoinAll(ImmutableList.of(createStateWithGlobal("first"),
+                                                      createStateWithGlobal("second")));
+    join.getJointSMG();
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGFingerprint;
+import cz.afri.smg.graphs.SMGValueFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.types.CType;
+
+public class SMGJoinCacheTest {
+  private static final int SIZE8 = 8;
+  private static final CType TYPE8 = CType.createTypeWithLength(SIZE8);
+
+  private SMGJoinCache cache;
+
+  @Before
+  public final void setUp() {
+    cache = new SMGJoinCache();
+  }
+
+  private static WritableSMG createSMG(final String pVariable) {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    SMGRegion global = smg.addGlobalVariable(TYPE8, pVariable);
+    SMGRegion node = new SMGRegion(SIZE8, "node");
+    Integer address = SMGValueFactory.getNewValue();
+    smg.addHeapObject(node);
+    smg.addValue(address);
+    smg.addPointsToEdge(new SMGEdgePointsTo(address, node, 0));
+    smg.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, global, address));
+    smg.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, node, smg.getNullValue()));
+    return smg;
+  }
+
+  @Test
+  public final void hitTest() {
+    SMGJoin first = cache.join(createSMG("x"), createSMG("x"));
+    SMGJoin second = cache.join(createSMG("x"), createSMG("x"));
+
+    Assert.assertEquals(1, cache.getStats().missCount());
+    Assert.assertEquals(1, cache.getStats().hitCount());
+    Assert.assertTrue(second.isDefined());
+    Assert.assertEquals(first.getStatus(), second.getStatus());
+
+    ReadableSMG firstSMG = first.getJointSMG();
+    ReadableSMG secondSMG = second.getJointSMG();
+    Assert.assertEquals(new SMGFingerprint(firstSMG), new SMGFingerprint(secondSMG));
+    Assert.assertEquals(Sets.newHashSet(firstSMG.getNullValue()),
+                        Sets.intersection(firstSMG.getValues(), secondSMG.getValues()));
+  }
+
+  @Test
+  public final void hitFreshObjectsTest() {
+    ReadableSMG firstSMG = cache.join(createSMG("x"), createSMG("x")).getJointSMG();
+    ReadableSMG secondSMG = cache.join(createSMG("x"), createSMG("x")).getJointSMG();
+
+    Assert.assertEquals(Sets.newHashSet(firstSMG.getNullObject()),
+                        Sets.intersection(firstSMG.getObjects(), secondSMG.getObjects()));
+    Assert.assertEquals(firstSMG.getObjects().size(), secondSMG.getObjects().size());
+  }
+
+  @Test
+  public final void incompleteNotCachedTest() {
+    WritableSMG smg1 = createSMG("x");
+    WritableSMG smg2 = createSMG("x");
+    smg1.addHeapObject(new SMGRegion(SIZE8, "garbage"));
+    smg2.addHeapObject(new SMGRegion(SIZE8, "garbage"));
+
+    cache.join(smg1, smg2);
+    cache.join(smg1, smg2);
+
+    Assert.assertEquals(0, cache.size());
+    Assert.assertEquals(0, cache.getStats().requestCount());
+  }
+
+  @Test
+  public final void missTest() {
+    cache.join(createSMG("x"), createSMG("x"));
+    cache.join(createSMG("y"), createSMG("y"));
+
+    Assert.assertEquals(2, cache.getStats().missCount());
+    Assert.assertEquals(0, cache.getStats().hitCount());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public final void undefinedJoinTest() {
+    Assert.assertFalse(cache.join(createSMG("x"), createSMG("y")).isDefined());
+    Assert.assertFalse(cache.join(createSMG("x"), createSMG("y")).isDefined());
+    Assert.assertEquals(1, cache.getStats().hitCount());
+  }
+
+  @Test
+  public final void invalidateTest() {
+    cache.join(createSMG("x"), createSMG("x"));
+    cache.invalidateAll();
+    cache.join(createSMG("x"), createSMG("x"));
+
+    Assert.assertEquals(2, cache.getStats().missCount());
+  }
+}
@@ -120,7 +120,7 @@ public class SMGJoinMapTargetAddressTest {
     Assert.assertSame(destObj, newEdge.getObject());
     Assert.assertEquals(0, newEdge.getOffset());
 
-    Assert.assertSame(mta.getValue(), mta.getMapping1().get(value1));
-    Assert.assertSame(mta.getValue(), mta.getMapping2().get(value2));
+    Assert.assertEquals(mta.getValue(), mta.getMapping1().get(value1));
+    Assert.assertEquals(mta.getValue(), mta.getMapping2().get(value2));
   }
 }
@@ -0,0 +1,119 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.join;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.afri.smg.graphs.SMGBudget;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGValueFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.join.SMGJoinMetrics.Failure;
+import cz.afri.smg.join.SMGJoinMetrics.Phase;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.types.CType;
+
+public class SMGJoinStatisticsTest {
+  private static final int SIZE8 = 8;
+  private static final CType TYPE8 = CType.createTypeWithLength(SIZE8);
+  private static final int DEPTH = 3;
+
+  private WritableSMG smg1;
+  private WritableSMG smg2;
+  private SMGJoinStatistics statistics;
+
+  @Before
+  public final void setUp() {
+    smg1 = SMGFactory.createWritableSMG();
+    smg2 = SMGFactory.createWritableSMG();
+    statistics = new SMGJoinStatistics();
+  }
+
+  private static void addGlobalWithHeapObject(final WritableSMG pSMG, final String pVarName) {
+    SMGRegion global = pSMG.addGlobalVariable(TYPE8, pVarName);
+    SMGRegion node = new SMGRegion(SIZE8, "node");
+    Integer address = SMGValueFactory.getNewValue();
+    pSMG.addHeapObject(node);
+    pSMG.addValue(address);
+    pSMG.addPointsToEdge(new SMGEdgePointsTo(address, node, 0));
+    pSMG.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, global, address));
+  }
+
+  @Test
+  public final void emptyStatisticsTest() {
+    for (Phase phase : Phase.values()) {
+      Assert.assertEquals(0, statistics.getCalls(phase));
+      Assert.assertEquals(0, statistics.getTime(phase, TimeUnit.NANOSECONDS));
+    }
+    for (Failure failure : Failure.values()) {
+      Assert.assertEquals(0, statistics.getFailures(failure));
+    }
+    Assert.assertEquals(0, statistics.getMaxDepth());
+  }
+
+  @Test
+  public final void maxDepthTest() {
+    statistics.subSMGsEntered(1);
+    statistics.subSMGsEntered(DEPTH);
+    statistics.subSMGsEntered(2);
+    Assert.assertEquals(DEPTH, statistics.getMaxDepth());
+    Assert.assertEquals(DEPTH, statistics.getSubSMGJoins());
+  }
+
+  @Test
+  public final void joinStatisticsTest() {
+    addGlobalWithHeapObject(smg1, "global");
+    addGlobalWithHeapObject(smg2, "global");
+
+    SMGJoin join = new SMGJoin(smg1, smg2, null, SMGBudget.unlimited(), statistics);
+    Assert.assertTrue(join.isDefined());
+
+    Assert.assertEquals(1, statistics.getCalls(Phase.COPY));
+    Assert.assertEquals(2, statistics.getCalls(Phase.JOIN_FIELDS));
+    Assert.assertEquals(1, statistics.getCalls(Phase.JOIN_TARGET_OBJECTS));
+    Assert.assertEquals(1, statistics.getCalls(Phase.MATCH_OBJECTS));
+    Assert.assertEquals(2, statistics.getSubSMGJoins());
+    Assert.assertEquals(2, statistics.getMaxDepth());
+    Assert.assertEquals(2, statistics.getObjectsMapped());
+    Assert.assertEquals(1, statistics.getValuesMapped());
+  }
+
+  @Test
+  public final void joinFailureTest() {
+    smg1.addGlobalVariable(TYPE8, "global");
+    SMGJoin join = new SMGJoin(smg1, smg2, null, SMGBudget.unlimited(), statistics);
+    Assert.assertFalse(join.isDefined());
+    Assert.assertEquals(1, statistics.getFailures(Failure.MISSING_GLOBAL));
+
+    SMGBudget budget = SMGBudget.unlimited();
+    budget.cancel();
+    join = new SMGJoin(smg1, smg1, null, budget, statistics);
+    Assert.assertFalse(join.isDefined());
+    Assert.assertEquals(1, statistics.getFailures(Failure.BUDGET_EXHAUSTED));
+  }
+}
@@ -21,6 +21,11 @@
  */
 package cz.afri.smg.join;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -28,9 +33,12 @@ import org.junit.Test;
 import com.google.common.collect.ImmutableList;
 
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
 import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGFingerprint;
 import cz.afri.smg.graphs.SMGValueFactory;
 import cz.afri.smg.graphs.WritableSMG;
 import cz.afri.smg.objects.SMGObject;
@@ -195,5 +203,128 @@ public class SMGJoinTest {
         SMGJoinStatus.RIGHT_ENTAIL);
     joinUpdateUnit(SMGJoinStatus.INCOMPARABLE, SMGJoinStatus.INCOMPARABLE,
         SMGJoinStatus.INCOMPARABLE);
+
+    for (SMGJoinStatus status : SMGJoinStatus.values()) {
+      Assert.assertEquals(SMGJoinStatus.INCOMPLETE, SMGJoinStatus.updateStatus(status, SMGJoinStatus.INCOMPLETE));
+      Assert.assertEquals(SMGJoinStatus.INCOMPLETE, SMGJoinStatus.updateStatus(SMGJoinStatus.INCOMPLETE, status));
+    }
+  }
+
+  // Testing condition: adds a global variable pointing to a fresh heap object, returns the heap object
+  private static SMGRegion addGlobalWithHeapObject(final WritableSMG pSMG, final String pVarName) {
+    SMGRegion global = pSMG.addGlobalVariable(TYPE8, pVarName);
+    SMGRegion node = new SMGRegion(SIZE8, "node");
+    Integer address = SMGValueFactory.getNewValue();
+    pSMG.addHeapObject(node);
+    pSMG.addValue(address);
+    pSMG.addPointsToEdge(new SMGEdgePointsTo(address, node, 0));
+    pSMG.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, global, address));
+    return node;
+  }
+
+  private static void addSharedGlobals(final WritableSMG pSMG) {
+    SMGRegion shared = addGlobalWithHeapObject(pSMG, "shared1");
+    SMGRegion global = pSMG.addGlobalVariable(TYPE8, "shared2");
+    Integer address = pSMG.readValue(pSMG.getGlobalObjects().get("shared1"), 0, TYPE8).getAsInt();
+    pSMG.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, global, address));
+    pSMG.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, shared, pSMG.getNullValue()));
+  }
+
+  @Test
+  public final void parallelJoinTest() {
+    SMGRegion node1 = addGlobalWithHeapObject(smg1, "first");
+    addGlobalWithHeapObject(smg2, "first");
+    smg1.addHasValueEdge(new SMGEdgeHasValue(TYPE8, 0, node1, smg1.getNullValue()));
+    addGlobalWithHeapObject(smg1, "second");
+    addGlobalWithHeapObject(smg2, "second");
+    addSharedGlobals(smg1);
+    addSharedGlobals(smg2);
+
+    SMGJoin sequential = new SMGJoin(smg1, smg2);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    SMGJoin parallel;
+    try {
+      parallel = new SMGJoin(smg1, smg2, executor);
+    } finally {
+      executor.shutdown();
+    }
+
+    Assert.assertTrue(parallel.isDefined());
+    Assert.assertEquals(SMGJoinStatus.RIGHT_ENTAIL, parallel.getStatus());
+    Assert.assertEquals(sequential.getStatus(), parallel.getStatus());
+    Assert.assertEquals(new SMGFingerprint(sequential.getJointSMG()), new SMGFingerprint(parallel.getJointSMG()));
+  }
+
+  @Test
+  public final void parallelJoinValidityAndNeqTest() {
+    smg1.setValidity(addGlobalWithHeapObject(smg1, "first"), false);
+    smg2.setValidity(addGlobalWithHeapObject(smg2, "first"), false);
+    addGlobalWithHeapObject(smg1, "second");
+    addGlobalWithHeapObject(smg2, "second");
+    for (WritableSMG smg : ImmutableList.of(smg1, smg2)) {
+      Integer address = smg.readValue(smg.getGlobalObjects().get("second"), 0, TYPE8).getAsInt();
+      smg.addNeqRelation(address, smg.getNullValue());
+    }
+
+    SMGJoin sequential = new SMGJoin(smg1, smg2);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    SMGJoin parallel;
+    try {
+      parallel = new SMGJoin(smg1, smg2, executor);
+    } finally {
+      executor.shutdown();
+    }
+
+    Assert.assertTrue(parallel.isDefined());
+    Assert.assertEquals(sequential.getStatus(), parallel.getStatus());
+    Assert.assertEquals(new SMGFingerprint(sequential.getJointSMG()), new SMGFingerprint(parallel.getJointSMG()));
+  }
+
+  @Test
+  public final void partitionRootsTest() {
+    addGlobalWithHeapObject(smg1, "first");
+    addGlobalWithHeapObject(smg2, "first");
+    addSharedGlobals(smg1);
+    addSharedGlobals(smg2);
+
+    List<SMGJoinRoot> roots = new ArrayList<>();
+    for (String name : new String[] {"first", "shared1", "shared2"}) {
+      roots.add(new SMGJoinRoot(smg1.getGlobalObjects().get(name), smg2.getGlobalObjects().get(name), null));
+    }
+
+    List<List<SMGJoinRoot>> groups = SMGJoinRoot.partition(smg1, smg2, roots);
+    Assert.assertEquals(2, groups.size());
+    Assert.assertEquals(ImmutableList.of(roots.get(0)), groups.get(0));
+    Assert.assertEquals(ImmutableList.of(roots.get(1), roots.get(2)), groups.get(1));
+  }
+
+  @Test
+  public final void budgetExhaustedJoinTest() {
+    addGlobalWithHeapObject(smg1, "first");
+    addGlobalWithHeapObject(smg2, "first");
+    addSharedGlobals(smg1);
+    addSharedGlobals(smg2);
+
+    SMGJoin join = new SMGJoin(smg1, smg2, SMGBudget.ofSteps(2));
+    Assert.assertFalse(join.isDefined());
+    Assert.assertEquals(SMGJoinStatus.INCOMPLETE, join.getStatus());
+
+    SMGBudget budget = SMGBudget.unlimited();
+    budget.cancel();
+    join = new SMGJoin(smg1, smg2, budget);
+    Assert.assertFalse(join.isDefined());
+    Assert.assertEquals(SMGJoinStatus.INCOMPLETE, join.getStatus());
+  }
+
+  @Test
+  public final void budgetSufficientJoinTest() {
+    addGlobalWithHeapObject(smg1, "first");
+    addGlobalWithHeapObject(smg2, "first");
+
+    SMGBudget budget = SMGBudget.ofSteps(SIZE8);
+    SMGJoin join = new SMGJoin(smg1, smg2, budget);
+    Assert.assertTrue(join.isDefined());
+    Assert.assertEquals(SMGJoinStatus.EQUAL, join.getStatus());
+    Assert.assertFalse(budget.isExhausted());
   }
 }
@@ -0,0 +1,123 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.afri.smg.abstraction.SMGAbstractionCandidate;
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+
+public class SMGDoublyLinkedListCandidateTest {
+  private static final int SIZE16 = 16;
+  private static final int OFFSET8 = 8;
+  private static final int LENGTH5 = 5;
+
+  private WritableSMG smg;
+
+  @Before
+  public final void setUp() {
+    smg = SMGFactory.createWritableSMG();
+  }
+
+  private SMGDoublyLinkedListCandidate findCandidate() {
+    Set<SMGAbstractionCandidate> candidates = new SMGDoublyLinkedListFinder(1).traverse(smg);
+    Assert.assertEquals(1, candidates.size());
+    return (SMGDoublyLinkedListCandidate) candidates.iterator().next();
+  }
+
+  @Test
+  public final void scoreTest() {
+    TestHelpers.createGlobalList(smg, LENGTH5, SIZE16, 0, OFFSET8, "pointer");
+    final int expectedScore = 16;
+    Assert.assertEquals(expectedScore, findCandidate().getScore());
+  }
+
+  @Test
+  public final void executeOnSimpleList() {
+    SMGEdgeHasValue root = TestHelpers.createGlobalList(smg, LENGTH5, SIZE16, 0, OFFSET8, "pointer");
+    ReadableSMG abstracted = findCandidate().execute(smg);
+
+    // Null object and the segment
+    Assert.assertEquals(2, abstracted.getHeapObjects().size());
+    SMGEdgePointsTo pt = abstracted.getPointer(root.getValue());
+    Assert.assertTrue(pt.getObject() instanceof SMGDoublyLinkedList);
+    Assert.assertEquals(0, pt.getOffset());
+
+    SMGDoublyLinkedList dll = (SMGDoublyLinkedList) pt.getObject();
+    Assert.assertEquals(LENGTH5, dll.getLength());
+    Assert.assertEquals(0, dll.getNextOffset());
+    Assert.assertEquals(OFFSET8, dll.getPrevOffset());
+
+    SMGEdgeHasValue next = abstracted.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(dll).filterAtOffset(0), true);
+    Assert.assertEquals(abstracted.getNullValue(), next.getValue());
+    SMGEdgeHasValue prev = abstracted.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(dll).filterAtOffset(OFFSET8),
+                                                  true);
+    Assert.assertEquals(abstracted.getNullValue(), prev.getValue());
+
+    // The original SMG is kept intact
+    Assert.assertEquals(LENGTH5 + 1, smg.getHeapObjects().size());
+  }
+
+  @Test
+  public final void executeKeepsPointerToLastNode() {
+    List<Integer> addresses = TestHelpers.createList(smg, LENGTH5, SIZE16, 0, OFFSET8, "list");
+    TestHelpers.addGlobalPointer(smg, addresses.get(0), "head");
+    Integer tail = addresses.get(LENGTH5 - 1);
+    TestHelpers.addGlobalPointer(smg, tail, "tail");
+
+    ReadableSMG abstracted = findCandidate().execute(smg);
+    SMGEdgePointsTo pt = abstracted.getPointer(tail);
+    SMGDoublyLinkedList dll = (SMGDoublyLinkedList) pt.getObject();
+    Assert.assertSame(dll, abstracted.getPointer(addresses.get(0)).getObject());
+    Assert.assertTrue(dll.isLastNodeOffset(pt.getOffset()));
+    Assert.assertEquals(dll.getLastNodeOffset(0), pt.getOffset());
+
+    // Addresses of the inner nodes disappear together with the nodes
+    for (Integer address : addresses.subList(1, LENGTH5 - 1)) {
+      Assert.assertFalse(abstracted.getValues().contains(address));
+    }
+  }
+
+  @Test
+  public final void applyInPlace() {
+    SMGEdgeHasValue root = TestHelpers.createGlobalList(smg, LENGTH5, SIZE16, 0, OFFSET8, "pointer");
+    SMGDoublyLinkedListCandidate candidate = findCandidate();
+    candidate.apply(smg);
+
+    SMGObject pointed = smg.getPointer(root.getValue()).getObject();
+    Assert.assertTrue(pointed instanceof SMGDoublyLinkedList);
+    for (SMGObject node : candidate.getNodes()) {
+      Assert.assertFalse(smg.getHeapObjects().contains(node));
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+
+import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.SMGValueFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGRegion;
+
+public class SMGDoublyLinkedListConcretisationTest {
+  private static final int SIZE16 = 16;
+  private static final int OFFSET8 = 8;
+
+  private WritableSMG smg;
+
+  @Before
+  public final void setUp() {
+    smg = SMGFactory.createWritableSMG();
+  }
+
+  @Test
+  public final void basicTest() {
+    final int length3 = 3;
+    SMGDoublyLinkedList dll = new SMGDoublyLinkedList(new SMGRegion(SIZE16, "prototype"), 0, OFFSET8, 0, length3);
+    Assert.assertSame(dll, new SMGDoublyLinkedListConcretisation(dll).getDll());
+  }
+
+  @Test
+  public final void executeOnSimpleList() {
+    final int length3 = 3;
+    SMGEdgeHasValue root = TestHelpers.createGlobalDll(smg, length3, SIZE16, 0, OFFSET8, "pointer");
+    SMGDoublyLinkedList dll = (SMGDoublyLinkedList) smg.getPointer(root.getValue()).getObject();
+
+    Set<ReadableSMG> concretised = dll.concretise(smg);
+    Assert.assertEquals(1, concretised.size());
+    ReadableSMG concrete = concretised.iterator().next();
+
+    // Null object, the new node and the shorter segment
+    final int expectedHeapSize = 3;
+    Assert.assertEquals(expectedHeapSize, concrete.getHeapObjects().size());
+    Assert.assertFalse(concrete.getHeapObjects().contains(dll));
+
+    SMGObject node = concrete.getPointer(root.getValue()).getObject();
+    Assert.assertTrue(node instanceof SMGRegion);
+    SMGEdgeHasValue prev = concrete.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(node).filterAtOffset(OFFSET8),
+                                                true);
+    Assert.assertEquals(concrete.getNullValue(), prev.getValue());
+
+    SMGEdgeHasValue next = concrete.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(node).filterAtOffset(0), true);
+    SMGEdgePointsTo toShorter = concrete.getPointer(next.getValue());
+    SMGDoublyLinkedList shorter = (SMGDoublyLinkedList) toShorter.getObject();
+    Assert.assertEquals(length3 - 1, shorter.getLength());
+    Assert.assertEquals(dll.getHeadOffset(), toShorter.getOffset());
+
+    SMGEdgeHasValue back = concrete.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(shorter).filterAtOffset(OFFSET8),
+                                                true);
+    Assert.assertSame(node, concrete.getPointer(back.getValue()).getObject());
+    SMGEdgeHasValue shorterNext = concrete.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(shorter).filterAtOffset(0),
+                                                       true);
+    Assert.assertEquals(concrete.getNullValue(), shorterNext.getValue());
+
+    // The concretised SMG is unchanged
+    Assert.assertSame(dll, smg.getPointer(root.getValue()).getObject());
+    Assert.assertEquals(length3, dll.getLength());
+  }
+
+  @Test
+  public final void executeOnEmptyList() {
+    SMGEdgeHasValue root = TestHelpers.createGlobalDll(smg, 0, SIZE16, 0, OFFSET8, "pointer");
+    SMGDoublyLinkedList dll = (SMGDoublyLinkedList) smg.getPointer(root.getValue()).getObject();
+
+    Set<ReadableSMG> concretised = dll.concretise(smg);
+    Assert.assertEquals(2, concretised.size());
+
+    boolean foundEmpty = false;
+    for (ReadableSMG concrete : concretised) {
+      Assert.assertFalse(concrete.getHeapObjects().contains(dll));
+      if (concrete.getHeapObjects().size() == 1) {
+        // Only the null object is left, the pointer now holds the successor of the segment
+        foundEmpty = true;
+        WritableSMG writable = SMGFactory.createWritableCopy(concrete);
+        writable.normalize();
+        SMGObject global = root.getObject();
+        SMGEdgeHasValue hv = writable.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(global), true);
+        Assert.assertEquals(writable.getNullValue(), hv.getValue());
+      }
+    }
+    Assert.assertTrue(foundEmpty);
+  }
+
+  @Test
+  public final void executeOnNonNullLengthList() {
+    SMGEdgeHasValue root = TestHelpers.createGlobalDll(smg, 0, SIZE16, 0, OFFSET8, "pointer");
+    SMGDoublyLinkedList dll = (SMGDoublyLinkedList) smg.getPointer(root.getValue()).getObject();
+    smg.addNeqRelation(root.getValue(), smg.getNullValue());
+
+    Set<ReadableSMG> concretised = dll.concretise(smg);
+    Assert.assertEquals(1, concretised.size());
+    ReadableSMG concrete = concretised.iterator().next();
+    Assert.assertTrue(concrete.getPointer(root.getValue()).getObject() instanceof SMGRegion);
+  }
+
+  @Test
+  public final void concretiseLastNodeTest() {
+    final int length3 = 3;
+    SMGEdgeHasValue root = TestHelpers.createGlobalDll(smg, length3, SIZE16, 0, OFFSET8, "pointer");
+    SMGDoublyLinkedList dll = (SMGDoublyLinkedList) smg.getPointer(root.getValue()).getObject();
+    Integer tail = SMGValueFactory.getNewValue();
+    smg.addValue(tail);
+    smg.addPointsToEdge(new SMGEdgePointsTo(tail, dll, dll.getLastNodeOffset(0)));
+    TestHelpers.addGlobalPointer(smg, tail, "tail");
+
+    Iterable<ReadableSMG> concretised = dll.concretiseAt(smg, dll.getLastNodeOffset(OFFSET8));
+    Assert.assertEquals(1, Iterables.size(concretised));
+    ReadableSMG concrete = concretised.iterator().next();
+
+    SMGEdgePointsTo toNode = concrete.getPointer(tail);
+    SMGObject node = toNode.getObject();
+    Assert.assertTrue(node instanceof SMGRegion);
+    Assert.assertEquals(0, toNode.getOffset());
+    SMGEdgeHasValue next = concrete.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(node).filterAtOffset(0), true);
+    Assert.assertEquals(concrete.getNullValue(), next.getValue());
+
+    // The head still points to the shorter segment, whose last node precedes the concrete one
+    SMGEdgePointsTo toShorter = concrete.getPointer(root.getValue());
+    SMGDoublyLinkedList shorter = (SMGDoublyLinkedList) toShorter.getObject();
+    Assert.assertEquals(length3 - 1, shorter.getLength());
+    SMGEdgeHasValue prev = concrete.getUniqueHV(SMGEdgeHasValueFilter.objectFilter(node).filterAtOffset(OFFSET8),
+                                                true);
+    Assert.assertSame(shorter, concrete.getPointer(prev.getValue()).getObject());
+    Assert.assertTrue(shorter.isLastNodeOffset(concrete.getPointer(prev.getValue()).getOffset()));
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+import cz.afri.smg.abstraction.SMGAbstractionCandidate;
+import cz.afri.smg.graphs.SMGFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.sll.SMGSingleLinkedListFinder;
+
+public class SMGDoublyLinkedListFinderTest {
+  private static final int SIZE16 = 16;
+  private static final int OFFSET8 = 8;
+
+  private WritableSMG smg;
+
+  @Before
+  public final void setUp() {
+    smg = SMGFactory.createWritableSMG();
+  }
+
+  private SMGDoublyLinkedListCandidate singleCandidateCheck(final Set<SMGAbstractionCandidate> pCandidates,
+                                                           final int pLength) {
+    Assert.assertEquals(1, pCandidates.size());
+    SMGDoublyLinkedListCandidate candidate = (SMGDoublyLinkedListCandidate) pCandidates.iterator().next();
+    Assert.assertEquals(pLength, candidate.getLength());
+    return candidate;
+  }
+
+  @Test
+  public final void simpleConstructorTest() {
+    final int length11 = 11;
+    TestHelpers.createGlobalList(smg, length11, SIZE16, 0, OFFSET8, "pointer");
+    SMGDoublyLinkedListCandidate candidate = singleCandidateCheck(new SMGDoublyLinkedListFinder().traverse(smg),
+                                                                  length11);
+    Assert.assertEquals(0, candidate.getNextOffset());
+    Assert.assertEquals(OFFSET8, candidate.getPrevOffset());
+    Assert.assertEquals(0, candidate.getHeadOffset());
+  }
+
+  @Test
+  public final void thresholdTest() {
+    final int length3 = 3;
+    TestHelpers.createGlobalList(smg, length3, SIZE16, 0, OFFSET8, "pointer");
+    Assert.assertTrue(new SMGDoublyLinkedListFinder(length3).traverse(smg).isEmpty());
+    singleCandidateCheck(new SMGDoublyLinkedListFinder(2).traverse(smg), length3);
+  }
+
+  @Test
+  public final void singleLinkedListTest() {
+    final int length5 = 5;
+    cz.afri.smg.objects.sll.TestHelpers.createGlobalList(smg, length5, SIZE16, OFFSET8, "pointer");
+    Assert.assertTrue(new SMGDoublyLinkedListFinder(1).traverse(smg).isEmpty());
+  }
+
+  @Test
+  public final void splitAtExternalPointerTest() {
+    final int length7 = 7;
+    final int middle = 3;
+    List<Integer> addresses = TestHelpers.createList(smg, length7, SIZE16, 0, OFFSET8, "list");
+    TestHelpers.addGlobalPointer(smg, addresses.get(0), "head");
+    TestHelpers.addGlobalPointer(smg, addresses.get(middle), "iterator");
+
+    Set<SMGAbstractionCandidate> candidates = new SMGDoublyLinkedListFinder(1).traverse(smg);
+    Assert.assertEquals(2, candidates.size());
+    // The pointed node ends one segment or starts the other one, depending on the direction of the walk
+    Set<Integer> lengths = new HashSet<>();
+    for (SMGAbstractionCandidate candidate : candidates) {
+      lengths.add(((SMGDoublyLinkedListCandidate) candidate).getLength());
+    }
+    Assert.assertEquals(ImmutableSet.of(middle, middle + 1), lengths);
+  }
+
+  @Test
+  public final void orientationTest() {
+    final int length5 = 5;
+    List<Integer> addresses = TestHelpers.createList(smg, length5, SIZE16, 0, OFFSET8, "list");
+    TestHelpers.addGlobalPointer(smg, addresses.get(length5 - 1), "tail");
+
+    SMGDoublyLinkedListCandidate candidate = singleCandidateCheck(new SMGDoublyLinkedListFinder(1).traverse(smg),
+                                                                  length5);
+    Assert.assertSame(smg.getPointer(addresses.get(length5 - 1)).getObject(), candidate.getStart());
+    Assert.assertEquals(OFFSET8, candidate.getNextOffset());
+    Assert.assertEquals(0, candidate.getPrevOffset());
+  }
+
+  @Test
+  public final void scopedTraverseTest() {
+    final int length5 = 5;
+    List<Integer> addresses = TestHelpers.createList(smg, length5, SIZE16, 0, OFFSET8, "list");
+    TestHelpers.addGlobalPointer(smg, addresses.get(0), "head");
+    SMGObject middle = smg.getPointer(addresses.get(2)).getObject();
+
+    singleCandidateCheck(new SMGDoublyLinkedListFinder(1).traverse(smg, ImmutableSet.of(middle)), length5);
+  }
+
+  @Test
+  public final void outranksSingleLinkedListTest() {
+    final int length5 = 5;
+    TestHelpers.createGlobalList(smg, length5, SIZE16, 0, OFFSET8, "pointer");
+    int dllScore = singleCandidateCheck(new SMGDoublyLinkedListFinder(1).traverse(smg), length5).getScore();
+    for (SMGAbstractionCandidate candidate : new SMGSingleLinkedListFinder(1).traverse(smg)) {
+      Assert.assertTrue(candidate.getScore() < dllScore);
+    }
+  }
+}
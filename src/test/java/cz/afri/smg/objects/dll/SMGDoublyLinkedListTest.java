@@ -0,0 +1,131 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.afri.smg.objects.DummyAbstraction;
+import cz.afri.smg.objects.SMGObjectVisitor;
+import cz.afri.smg.objects.SMGRegion;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+public class SMGDoublyLinkedListTest {
+  private static final int SIZE16 = 16;
+  private static final int SIZE32 = 32;
+  private static final int OFFSET8 = 8;
+  private static final int LENGTH4 = 4;
+  private static final int LENGTH8 = 8;
+  private static SMGRegion prototype16 = new SMGRegion(SIZE16, "prototype");
+
+  private static void checkDLL(final SMGDoublyLinkedList pDll, final int pLen, final int pNext, final int pPrev) {
+    Assert.assertTrue(pDll.isAbstract());
+    Assert.assertEquals(pLen, pDll.getLength());
+    Assert.assertEquals(SIZE16, pDll.getSize());
+    Assert.assertEquals(pNext, pDll.getNextOffset());
+    Assert.assertEquals(pPrev, pDll.getPrevOffset());
+    Assert.assertEquals(0, pDll.getHeadOffset());
+  }
+
+  @Test
+  public final void basicsTest() {
+    SMGDoublyLinkedList dll = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH4);
+    checkDLL(dll, LENGTH4, 0, OFFSET8);
+    checkDLL(new SMGDoublyLinkedList(dll), LENGTH4, 0, OFFSET8);
+    checkDLL(new SMGDoublyLinkedList(dll, LENGTH8), LENGTH8, 0, OFFSET8);
+    Assert.assertFalse(dll.toString().contains("@"));
+  }
+
+  @Test
+  public final void lastNodeOffsetTest() {
+    SMGDoublyLinkedList dll = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH4);
+    Assert.assertFalse(dll.isLastNodeOffset(0));
+    Assert.assertFalse(dll.isLastNodeOffset(OFFSET8));
+    Assert.assertEquals(SIZE16 + OFFSET8, dll.getLastNodeOffset(OFFSET8));
+    Assert.assertTrue(dll.isLastNodeOffset(dll.getLastNodeOffset(0)));
+  }
+
+  @Test
+  public final void matchShapeTest() {
+    SMGDoublyLinkedList dll1 = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH4);
+    SMGDoublyLinkedList dll2 = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH8);
+    SMGDoublyLinkedList dll3 = new SMGDoublyLinkedList(prototype16, OFFSET8, 0, 0, LENGTH4);
+    DummyAbstraction dummy = new DummyAbstraction(prototype16);
+
+    Assert.assertFalse(dll1.matchGenericShape(dummy));
+    Assert.assertTrue(dll1.matchGenericShape(dll3));
+    Assert.assertFalse(dll1.matchSpecificShape(dummy));
+    Assert.assertTrue(dll1.matchSpecificShape(dll2));
+    Assert.assertFalse(dll1.matchSpecificShape(dll3));
+  }
+
+  @Test
+  public final void isMoreGeneralTest() {
+    SMGDoublyLinkedList dll4 = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH4);
+    SMGDoublyLinkedList dll8 = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH8);
+
+    Assert.assertTrue(dll4.isMoreGeneral(prototype16));
+    Assert.assertTrue(dll4.isMoreGeneral(dll8));
+    Assert.assertFalse(dll8.isMoreGeneral(dll4));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public final void isMoreGeneralDiffSizeTest() {
+    SMGRegion prototype32 = new SMGRegion(SIZE32, "prototype_2");
+    SMGDoublyLinkedList dll1 = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH4);
+    SMGDoublyLinkedList dll2 = new SMGDoublyLinkedList(prototype32, 0, OFFSET8, 0, LENGTH4);
+    dll1.isMoreGeneral(dll2);
+  }
+
+  @Test
+  public final void objectVisitorTest() {
+    final boolean[] visited = {false};
+    SMGObjectVisitor visitor = new SMGObjectVisitor() {
+      @Override
+      public void visit(final SMGDoublyLinkedList pObject) {
+        visited[0] = true;
+      }
+    };
+    new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH4).accept(visitor);
+    Assert.assertTrue(visited[0]);
+  }
+
+  @Test
+  public final void joinTest() {
+    SMGDoublyLinkedList dll4 = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH4);
+    SMGDoublyLinkedList dll8 = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH8);
+
+    checkDLL(dll4.join(prototype16), LENGTH4, 0, OFFSET8);
+    checkDLL(dll4.join(dll4), LENGTH4, 0, OFFSET8);
+    checkDLL(dll8.join(dll4), LENGTH4, 0, OFFSET8);
+    checkDLL(dll4.join(dll8), LENGTH4, 0, OFFSET8);
+  }
+
+  @SuppressFBWarnings(value = "RV_RETURN_VALUE_IGNORED_INFERRED",
+                      justification = "We are testing exception is raised in join(), we do not care about return value")
+  @Test(expected = UnsupportedOperationException.class)
+  public final void joinIncompatibleTest() {
+    SMGDoublyLinkedList dll1 = new SMGDoublyLinkedList(prototype16, 0, OFFSET8, 0, LENGTH4);
+    SMGDoublyLinkedList dll2 = new SMGDoublyLinkedList(prototype16, OFFSET8, 0, 0, LENGTH4);
+    dll1.join(dll2);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ *  This file is part of SMG, a symbolic memory graph Java library
+ *  Originally developed as part of CPAChecker, the configurable software verification platform
+ *
+ *  Copyright (C) 2011-2015  Petr Muller
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package cz.afri.smg.objects.dll;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.afri.smg.graphs.SMGEdgeHasValue;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
+import cz.afri.smg.graphs.SMGValueFactory;
+import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
+import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.types.CPointerType;
+import cz.afri.smg.types.CType;
+
+public final class TestHelpers {
+  private static final int SIZE8 = 8;
+  private static final CType TYPE8 = CType.createTypeWithLength(SIZE8);
+
+  /**
+   * Creates a doubly-linked list of concrete regions, terminated by null in both directions.
+   *
+   * @return Addresses of the nodes, from the first to the last one
+   */
+  public static List<Integer> createList(final WritableSMG pSmg, final int pLength, final int pSize,
+                                         final int pNextOffset, final int pPrevOffset, final String pPrefix) {
+    List<SMGObject> nodes = new ArrayList<>();
+    List<Integer> addresses = new ArrayList<>();
+    for (int i = 0; i < pLength; i++) {
+      SMGObject node = new SMGRegion(pSize, pPrefix + "list_node" + i);
+      Integer value = SMGValueFactory.getNewValue();
+      pSmg.addHeapObject(node);
+      pSmg.addValue(value);
+      pSmg.addPointsToEdge(new SMGEdgePointsTo(value, node, 0));
+      nodes.add(node);
+      addresses.add(value);
+    }
+    for (int i = 0; i < pLength; i++) {
+      Integer next = pSmg.getNullValue();
+      if (i < pLength - 1) {
+        next = addresses.get(i + 1);
+      }
+      Integer prev = pSmg.getNullValue();
+      if (i > 0) {
+        prev = addresses.get(i - 1);
+      }
+      pSmg.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), pNextOffset, nodes.get(i), next));
+      pSmg.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), pPrevOffset, nodes.get(i), prev));
+    }
+    return addresses;
+  }
+
+  public static SMGEdgeHasValue addGlobalPointer(final WritableSMG pSmg, final Integer pValue,
+                                                 final String pVariable) {
+    SMGRegion globalVar = pSmg.addGlobalVariable(TYPE8, pVariable);
+    SMGEdgeHasValue hv = new SMGEdgeHasValue(CPointerType.getVoidPointer(), 0, globalVar, pValue);
+    pSmg.addHasValueEdge(hv);
+    return hv;
+  }
+
+  public static SMGEdgeHasValue createGlobalList(final WritableSMG pSmg, final int pLength, final int pSize,
+                                                 final int pNextOffset, final int pPrevOffset,
+                                                 final String pVariable) {
+    List<Integer> addresses = createList(pSmg, pLength, pSize, pNextOffset, pPrevOffset, pVariable);
+    return addGlobalPointer(pSmg, addresses.get(0), pVariable);
+  }
+
+  public static SMGEdgeHasValue createGlobalDll(final WritableSMG pSmg, final int pLength, final int pSize,
+                                                final int pNextOffset, final int pPrevOffset, final String pLabel) {
+    SMGRegion prototype = new SMGRegion(pSize, pLabel);
+    SMGDoublyLinkedList dll = new SMGDoublyLinkedList(prototype, pNextOffset, pPrevOffset, 0, pLength);
+    Integer value = SMGValueFactory.getNewValue();
+    pSmg.addHeapObject(dll);
+    pSmg.addValue(value);
+    pSmg.addPointsToEdge(new SMGEdgePointsTo(value, dll, 0));
+    pSmg.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), pNextOffset, dll, pSmg.getNullValue()));
+    pSmg.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), pPrevOffset, dll, pSmg.getNullValue()));
+    return addGlobalPointer(pSmg, value, pLabel);
+  }
+
+  private TestHelpers() {
+  }
+}
@@ -26,9 +26,12 @@ import java.util.Set;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.Iterables;
+
 import cz.afri.smg.graphs.ReadableSMG;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
+import cz.afri.smg.graphs.SMGEdgePointsTo;
 import cz.afri.smg.graphs.SMGFactory;
 import cz.afri.smg.graphs.SMGValueFactory;
 import cz.afri.smg.graphs.WritableSMG;
@@ -60,7 +63,8 @@ public class SMGSingleLinkedListCandidateTest {
     final int expectedLength = 6;
 		Assert.assertEquals(expectedLength, candidate.getLength());
 
-    Assert.assertEquals(0, candidate.getScore());
+    final int expectedScore = 15;
+    Assert.assertEquals(expectedScore, candidate.getScore());
     Assert.assertFalse(candidate.toString().contains("@"));
   }
 
@@ -169,4 +173,57 @@ public class SMGSingleLinkedListCandidateTest {
     Assert.assertEquals(SIZE8, outbound.getSizeInBytes());
     Assert.assertEquals(0, outbound.getValue());
   }
+
+  @Test
+  public final void applyDisjointInPlace() {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    final int offset8 = 8;
+    SMGEdgeHasValue first = TestHelpers.createGlobalList(smg, 2, SIZE16, offset8, "first");
+    SMGEdgeHasValue second = TestHelpers.createGlobalList(smg, 2, SIZE16, offset8, "second");
+
+    SMGObject firstStart = smg.getPointer(first.getValue()).getObject();
+    SMGObject secondStart = smg.getPointer(second.getValue()).getObject();
+    new SMGSingleLinkedListCandidate(firstStart, offset8, 2).apply(smg);
+    new SMGSingleLinkedListCandidate(secondStart, offset8, 2).apply(smg);
+
+    final int expectedHeapSize = 3;
+    Assert.assertEquals(expectedHeapSize, smg.getHeapObjects().size());
+    Assert.assertTrue(smg.getPointer(first.getValue()).getObject() instanceof SMGSingleLinkedList);
+    Assert.assertTrue(smg.getPointer(second.getValue()).getObject() instanceof SMGSingleLinkedList);
+  }
+
+  @Test
+  public final void executeRedirectsSharedAddress() {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    final int offset8 = 8;
+    SMGEdgeHasValue root = TestHelpers.createGlobalList(smg, 2, SIZE16, offset8, "pointer");
+    SMGObject startObject = smg.getPointer(root.getValue()).getObject();
+
+    SMGRegion alias = smg.addGlobalVariable(CPointerType.getVoidPointer(), "alias");
+    Integer aliasValue = SMGValueFactory.getNewValue();
+    smg.addValue(aliasValue);
+    smg.addPointsToEdge(new SMGEdgePointsTo(aliasValue, startObject, 0));
+    smg.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), 0, alias, aliasValue));
+
+    ReadableSMG abstractedSmg = new SMGSingleLinkedListCandidate(startObject, offset8, 2).execute(smg);
+    SMGObject sll = abstractedSmg.getPointer(root.getValue()).getObject();
+    Assert.assertTrue(sll instanceof SMGSingleLinkedList);
+    Assert.assertSame(sll, abstractedSmg.getPointer(aliasValue).getObject());
+    Assert.assertTrue(Iterables.isEmpty(abstractedSmg.getPTEdges(startObject)));
+  }
+
+  @Test
+  public final void executeOnLongList() {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    final int segmentLength = 10000;
+    final int offset8 = 8;
+    SMGEdgeHasValue root = TestHelpers.createGlobalList(smg, segmentLength, SIZE16, offset8, "pointer");
+
+    SMGObject startObject = smg.getPointer(root.getValue()).getObject();
+    SMGSingleLinkedListCandidate candidate = new SMGSingleLinkedListCandidate(startObject, offset8, segmentLength);
+    ReadableSMG abstractedSmg = candidate.execute(smg);
+    Assert.assertEquals(2, abstractedSmg.getHeapObjects().size());
+    SMGObject sll = abstractedSmg.getPointer(root.getValue()).getObject();
+    Assert.assertEquals(segmentLength, ((SMGSingleLinkedList) sll).getLength());
+  }
 }
@@ -26,7 +26,11 @@ import java.util.Set;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.Iterables;
+
+import cz.afri.smg.abstraction.SMGConcretisationResult;
 import cz.afri.smg.graphs.ReadableSMG;
+import cz.afri.smg.graphs.SMGBudget;
 import cz.afri.smg.graphs.SMGEdgeHasValue;
 import cz.afri.smg.graphs.SMGEdgeHasValueFilter;
 import cz.afri.smg.graphs.SMGEdgePointsTo;
@@ -52,6 +56,26 @@ public class SMGSingleLinkedListConcretisationTest {
     Assert.assertSame(sll, concretisation.getSll());
   }
 
+  @Test
+  public final void concretiseWithExhaustedBudget() {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+    final int offset = 8;
+    SMGEdgeHasValue pointer = TestHelpers.createGlobalSll(smg, 2, SIZE16, offset, "pointer");
+    SMGSingleLinkedList sll = (SMGSingleLinkedList) smg.getPointer(pointer.getValue()).getObject();
+
+    SMGConcretisationResult exhausted = sll.concretise(smg, SMGBudget.ofSteps(0));
+    Assert.assertFalse(exhausted.isComplete());
+    Assert.assertTrue(exhausted.getSMGs().isEmpty());
+
+    SMGConcretisationResult first = sll.concretise(smg, SMGBudget.ofSteps(1));
+    Assert.assertFalse(first.isComplete());
+    Assert.assertEquals(1, first.getSMGs().size());
+
+    SMGConcretisationResult all = sll.concretise(smg, SMGBudget.ofSteps(2));
+    Assert.assertTrue(all.isComplete());
+    Assert.assertEquals(sll.concretise(smg).size(), all.getSMGs().size());
+  }
+
   @Test
   public final void executeOnSimpleList() {
     WritableSMG smg = SMGFactory.createWritableSMG();
@@ -88,8 +112,10 @@ public class SMGSingleLinkedListConcretisationTest {
     SMGObject newValueObj = newPt.getObject();
     Assert.assertTrue(newValueObj instanceof SMGSingleLinkedList);
     SMGSingleLinkedList editedSll = (SMGSingleLinkedList) newValueObj;
-    Assert.assertEquals(sll, editedSll);
+    Assert.assertNotSame(sll, editedSll);
     Assert.assertEquals(editedSll.getLength(), listLength - 1);
+    Assert.assertEquals(listLength, sll.getLength());
+    Assert.assertSame(sll, smg.getPointer(value).getObject());
     Assert.assertEquals(offset, editedSll.getOffset());
     Assert.assertEquals(sll.getSize(), editedSll.getSize());
   }
@@ -163,4 +189,41 @@ public class SMGSingleLinkedListConcretisationTest {
     }
     Assert.assertTrue(noPointer);
   }
+
+  @Test
+  public final void executeOnNonNullLengthList() {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+
+    final int listLength = 0;
+    final int offset = 8;
+
+    SMGEdgeHasValue pointer = TestHelpers.createGlobalSll(smg, listLength, SIZE16, offset, "pointer");
+    Integer value = pointer.getValue();
+    SMGSingleLinkedList sll = (SMGSingleLinkedList) smg.getPointer(value).getObject();
+
+    Integer nullValue = smg.getNullValue();
+    smg.addHasValueEdge(new SMGEdgeHasValue(CPointerType.getVoidPointer(), sll.getOffset(), sll, nullValue));
+    smg.addNeqRelation(value, nullValue);
+
+    // The pointer is known not to be null, so the segment cannot be empty
+    Set<ReadableSMG> concretisedSmgSet = sll.concretise(smg);
+    Assert.assertEquals(1, concretisedSmgSet.size());
+    ReadableSMG concretisedSmg = concretisedSmgSet.iterator().next();
+    Assert.assertTrue(concretisedSmg.getPointer(value).getObject() instanceof SMGRegion);
+  }
+
+  @Test
+  public final void concretiseAtTest() {
+    WritableSMG smg = SMGFactory.createWritableSMG();
+
+    final int offset = 8;
+    SMGEdgeHasValue pointer = TestHelpers.createGlobalSll(smg, 0, SIZE16, offset, "pointer");
+    Integer value = pointer.getValue();
+    SMGSingleLinkedList sll = (SMGSingleLinkedList) smg.getPointer(value).getObject();
+
+    Iterable<ReadableSMG> concretised = sll.concretiseAt(smg, offset);
+    ReadableSMG first = concretised.iterator().next();
+    Assert.assertTrue(first.getPointer(value).getObject() instanceof SMGRegion);
+    Assert.assertEquals(2, Iterables.size(concretised));
+  }
 }
@@ -21,6 +21,7 @@
  */
 package cz.afri.smg.objects.sll;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -138,6 +139,34 @@ public class SMGSingleLinkedListFinderTest {
     Assert.assertSame(expectedStart, sllCandidate.getStart());
   }
 
+  @Test
+  public final void scopedTraverseTest() {
+    final int length5 = 5;
+    final int offset8 = 8;
+    SMGEdgeHasValue first = TestHelpers.createGlobalList(smg, length5, SIZE16, offset8, "first");
+    TestHelpers.createGlobalList(smg, length5, SIZE16, offset8, "second");
+    SMGSingleLinkedListFinder finder = new SMGSingleLinkedListFinder(1);
+    Assert.assertEquals(2, finder.traverse(smg).size());
+
+    SMGObject firstStart = smg.getPointer(first.getValue()).getObject();
+    Set<SMGAbstractionCandidate> candidates = finder.traverse(smg, Collections.singleton(firstStart));
+    Assert.assertEquals(1, candidates.size());
+    SMGAbstractionCandidate candidate = Iterables.getOnlyElement(candidates);
+    Assert.assertSame(firstStart, ((SMGSingleLinkedListCandidate) candidate).getStart());
+    Assert.assertEquals(length5, candidate.getObjects().size());
+    Assert.assertTrue(candidate.getObjects().contains(firstStart));
+  }
+
+  @Test
+  public final void longListTest() {
+    final int length = 100000;
+    final int offset8 = 8;
+    TestHelpers.createGlobalList(smg, length, SIZE16, offset8, "pointer");
+    SMGSingleLinkedListFinder finder = new SMGSingleLinkedListFinder();
+    SMGSingleLinkedListCandidate candidate = singleCandidateCheck(finder, length, offset8);
+    Assert.assertEquals(length, candidate.getObjects().size());
+  }
+
   @Test
 	public final void nullifiedPointerInferenceTest() {
     final int offset8 = 8;
@@ -22,15 +22,24 @@
 package cz.afri.smg.objects.tree;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import cz.afri.smg.abstraction.SMGAbstractionCandidate;
+import cz.afri.smg.abstraction.SMGAbstractionFinder;
+import cz.afri.smg.abstraction.SMGAbstractionManager;
+import cz.afri.smg.graphs.ReadableSMG;
 import cz.afri.smg.graphs.SMGFactory;
 import cz.afri.smg.graphs.WritableSMG;
+import cz.afri.smg.objects.SMGObject;
 import cz.afri.smg.objects.SMGRegion;
+import cz.afri.smg.objects.sll.SMGSingleLinkedListFinder;
 
 public class SimpleBinaryTreeFinderTest {
 
@@ -52,4 +61,24 @@ public class SimpleBinaryTreeFinderTest {
     Set<SMGAbstractionCandidate> candidates = finder.traverse(smg);
     Assert.assertEquals(1, candidates.size());
   }
+
+  @Test
+  public final void managerTest() {
+    TestHelpers.createGlobalPointerToThreeLevelTree(smg, nodePrototype, LEFT_OFFSET, RIGHT_OFFSET);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      SMGAbstractionManager manager = new SMGAbstractionManager(smg,
+          ImmutableList.<SMGAbstractionFinder>of(new SMGSingleLinkedListFinder(), new SimpleBinaryTreeFinder()),
+          executor);
+      ReadableSMG abstracted = manager.execute();
+      Assert.assertTrue(manager.isComplete());
+      boolean sawTree = false;
+      for (SMGObject object : abstracted.getHeapObjects()) {
+        sawTree = sawTree || object instanceof SimpleBinaryTree;
+      }
+      Assert.assertTrue(sawTree);
+    } finally {
+      executor.shutdown();
+    }
+  }
 }